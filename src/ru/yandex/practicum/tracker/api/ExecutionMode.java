@@ -0,0 +1,16 @@
+package ru.yandex.practicum.tracker.api;
+
+// Threads on which the HTTP server handles requests.
+public enum ExecutionMode {
+    // One request after another on the dispatcher thread of the server.
+    DISPATCHER,
+    // A fixed number of threads with an unbounded queue of waiting requests.
+    FIXED_POOL,
+    // A new virtual thread per request. A manager with a BlockIdGenerator leases a whole block of ids to every
+    // thread, so here every created task would take a fresh block and leave the rest of it unused; use
+    // an AtomicIdGenerator, the default one, with this mode.
+    VIRTUAL_THREADS,
+    // A fixed number of threads with a bounded queue. Connections arriving when the queue is full are closed
+    // right away instead of waiting.
+    BOUNDED_QUEUE
+}
\ No newline at end of file
@@ -4,23 +4,52 @@ import com.sun.net.httpserver.HttpServer;
 import ru.yandex.practicum.tracker.api.handlers.*;
 import ru.yandex.practicum.tracker.managers.FileBackedTaskManager;
 import ru.yandex.practicum.tracker.managers.InMemoryHistoryManager;
+import ru.yandex.practicum.tracker.managers.SynchronizedTaskManager;
 import ru.yandex.practicum.tracker.managers.TaskManager;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class HttpTaskServer {
+    // Default port.
     public static final int PORT = 8080;
+
     private final HttpServer server;
+    // Null when requests are handled on the dispatcher thread.
+    private final ExecutorService executor;
+    // Null when responses aren't cached.
+    private final ResponseCache responseCache;
 
     public HttpTaskServer(TaskManager manager) throws IOException {
-        server = HttpServer.create(new InetSocketAddress(PORT), 0);
-        server.createContext("/tasks", new TaskHandler(manager));
-        server.createContext("/subtasks", new SubtaskHandler(manager));
-        server.createContext("/epics", new EpicHandler(manager));
-        server.createContext("/history", new HistoryHandler(manager));
-        server.createContext("/prioritized", new PrioritizedHandler(manager));
+        this(manager, ServerOptions.defaults());
+    }
+
+    public HttpTaskServer(TaskManager manager, ServerOptions options) throws IOException {
+        Objects.requireNonNull(manager, "Task manager can't be null");
+        Objects.requireNonNull(options, "Server options can't be null");
+        if (options.isManagerLocked()) {
+            manager = new SynchronizedTaskManager(manager);
+        }
+        server = HttpServer.create(new InetSocketAddress(options.getPort()), options.getBacklog());
+        executor = createExecutor(options);
+        server.setExecutor(executor);
+        long cacheBytes = options.getResponseCacheBytes();
+        responseCache = (cacheBytes > 0) ? new ResponseCache(cacheBytes) : null;
+        server.createContext("/tasks", new TaskHandler(manager, responseCache));
+        server.createContext("/subtasks", new SubtaskHandler(manager, responseCache));
+        server.createContext("/epics", new EpicHandler(manager, responseCache));
+        server.createContext("/history", new HistoryHandler(manager, responseCache));
+        server.createContext("/prioritized", new PrioritizedHandler(manager, responseCache));
+        server.createContext("/slots", new SlotsHandler(manager));
     }
 
     public static void main(String[] args) {
@@ -28,9 +57,13 @@ public class HttpTaskServer {
         try {
             File file = File.createTempFile("tasks-", ".csv");
             TaskManager manager = new FileBackedTaskManager(new InMemoryHistoryManager(), file.getPath());
-            apiServer = new HttpTaskServer(manager);
+            int port = (args.length > 0) ? Integer.parseInt(args[0]) : PORT;
+            apiServer = new HttpTaskServer(manager, ServerOptions.defaults()
+                    .withPort(port)
+                    .withVirtualThreads()
+                    .withManagerLock());
             apiServer.start();
-            System.out.println("Server started on port " + PORT);
+            System.out.println("Server started on port " + apiServer.getPort());
         } catch (Throwable throwable) {
             System.out.println(throwable.getMessage());
         } finally {
@@ -44,7 +77,36 @@ public class HttpTaskServer {
         server.start();
     }
 
+    // Requests which are being handled are not waited for.
     public void stop() {
         server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    // The port the server listens on, also when the system has picked it.
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Statistics of the cache, empty when it's disabled.
+    public Optional<ResponseCache> getResponseCache() {
+        return Optional.ofNullable(responseCache);
+    }
+
+    private static ExecutorService createExecutor(ServerOptions options) {
+        ThreadFactory platformThreads = Thread.ofPlatform().name("http-handler-", 1).factory();
+        return switch (options.getExecutionMode()) {
+            case DISPATCHER -> null;
+            case FIXED_POOL -> Executors.newFixedThreadPool(options.getThreads(), platformThreads);
+            case VIRTUAL_THREADS -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                    .name("http-handler-", 1)
+                    .factory());
+            // Rejected exchanges are closed by the server.
+            case BOUNDED_QUEUE -> new ThreadPoolExecutor(options.getThreads(), options.getThreads(), 0,
+                    TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(options.getQueueCapacity()),
+                    platformThreads, new ThreadPoolExecutor.AbortPolicy());
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.tracker.api;
+
+// Immutable settings of the HTTP server. By default it listens on port 8080 with the system backlog and
+// handles requests on its dispatcher thread.
+public final class ServerOptions {
+    private static final ServerOptions DEFAULTS = new ServerOptions(HttpTaskServer.PORT, 0,
+            ExecutionMode.DISPATCHER, 0, 0, false, 0);
+
+    private final int port;
+    private final int backlog;
+    private final ExecutionMode executionMode;
+    private final int threads;
+    private final int queueCapacity;
+    private final boolean managerLocked;
+    private final long responseCacheBytes;
+
+    private ServerOptions(int port, int backlog, ExecutionMode executionMode, int threads, int queueCapacity,
+                          boolean managerLocked, long responseCacheBytes) {
+        this.port = port;
+        this.backlog = backlog;
+        this.executionMode = executionMode;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.managerLocked = managerLocked;
+        this.responseCacheBytes = responseCacheBytes;
+    }
+
+    public static ServerOptions defaults() {
+        return DEFAULTS;
+    }
+
+    // Port 0 lets the system pick a free port, see HttpTaskServer.getPort.
+    public ServerOptions withPort(int port) {
+        if ((port < 0) || (port > 0xFFFF)) {
+            throw new IllegalArgumentException("Port must be from 0 to 65535");
+        }
+        return new ServerOptions(port, backlog, executionMode, threads, queueCapacity, managerLocked,
+                responseCacheBytes);
+    }
+
+    // Maximum number of connections waiting to be accepted, 0 for the system default.
+    public ServerOptions withBacklog(int backlog) {
+        if (backlog < 0) {
+            throw new IllegalArgumentException("Backlog can't be negative");
+        }
+        return new ServerOptions(port, backlog, executionMode, threads, queueCapacity, managerLocked,
+                responseCacheBytes);
+    }
+
+    public ServerOptions withFixedPool(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        return new ServerOptions(port, backlog, ExecutionMode.FIXED_POOL, threads, 0, managerLocked,
+                responseCacheBytes);
+    }
+
+    public ServerOptions withVirtualThreads() {
+        return new ServerOptions(port, backlog, ExecutionMode.VIRTUAL_THREADS, 0, 0, managerLocked,
+                responseCacheBytes);
+    }
+
+    public ServerOptions withBoundedQueue(int threads, int queueCapacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        return new ServerOptions(port, backlog, ExecutionMode.BOUNDED_QUEUE, threads, queueCapacity, managerLocked,
+                responseCacheBytes);
+    }
+
+    // The manager is wrapped into a SynchronizedTaskManager, so that a manager which isn't thread-safe can be
+    // served by several threads.
+    public ServerOptions withManagerLock() {
+        return new ServerOptions(port, backlog, executionMode, threads, queueCapacity, true, responseCacheBytes);
+    }
+
+    // Encoded list responses up to the given total size are kept until the listed data changes.
+    public ServerOptions withResponseCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        return new ServerOptions(port, backlog, executionMode, threads, queueCapacity, managerLocked, maxBytes);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public boolean isManagerLocked() {
+        return managerLocked;
+    }
+
+    // 0 when responses aren't cached.
+    public long getResponseCacheBytes() {
+        return responseCacheBytes;
+    }
+}
\ No newline at end of file
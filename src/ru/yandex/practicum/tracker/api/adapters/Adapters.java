@@ -0,0 +1,28 @@
+package ru.yandex.practicum.tracker.api.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public final class Adapters {
+    // Gson is thread-safe and caches its adapters, so one instance serves all handlers.
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Task.class, new TaskAdapter<>(Task.class))
+            .registerTypeAdapter(Subtask.class, new TaskAdapter<>(Subtask.class))
+            .registerTypeAdapter(Epic.class, new TaskAdapter<>(Epic.class))
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+            .registerTypeAdapter(Duration.class, new DurationAdapter().nullSafe())
+            .create();
+
+    private Adapters() {
+    }
+
+    public static Gson getGson() {
+        return GSON;
+    }
+}
\ No newline at end of file
@@ -13,8 +13,9 @@ public class DurationAdapter extends TypeAdapter<Duration> {
         jsonWriter.value(duration.toMinutes());
     }
 
+    // Minutes are written as a number, but are also accepted as a string.
     @Override
     public Duration read(JsonReader jsonReader) throws IOException {
-        return Duration.ofMinutes(Long.parseLong(jsonReader.nextString()));
+        return Duration.ofMinutes(jsonReader.nextLong());
     }
 }
\ No newline at end of file
@@ -10,14 +10,43 @@ import java.time.format.DateTimeFormatter;
 
 public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    // Length of the yyyy-MM-ddTHH:mm:ss form, which the formatter writes for times without fractions.
+    private static final int SECONDS_LENGTH = 19;
 
     @Override
     public void write(JsonWriter jsonWriter, LocalDateTime dateTime) throws IOException {
         jsonWriter.value(dateTime != null ? dateTime.format(FORMATTER) : null);
     }
 
+    // The form written by this adapter is parsed by hand, it's several times faster than the formatter.
     @Override
     public LocalDateTime read(JsonReader jsonReader) throws IOException {
-        return LocalDateTime.parse(jsonReader.nextString(), FORMATTER);
+        String value = jsonReader.nextString();
+        if ((value.length() == SECONDS_LENGTH) && (value.charAt(4) == '-') && (value.charAt(7) == '-')
+                && (value.charAt(10) == 'T') && (value.charAt(13) == ':') && (value.charAt(16) == ':')) {
+            int year = parseDigits(value, 0, 4);
+            int month = parseDigits(value, 5, 7);
+            int day = parseDigits(value, 8, 10);
+            int hour = parseDigits(value, 11, 13);
+            int minute = parseDigits(value, 14, 16);
+            int second = parseDigits(value, 17, 19);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(value, FORMATTER);
+    }
+
+    // -1 if there is something but a digit.
+    private static int parseDigits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0') || (c > '9')) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
     }
 }
\ No newline at end of file
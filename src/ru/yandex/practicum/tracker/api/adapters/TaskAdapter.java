@@ -0,0 +1,153 @@
+package ru.yandex.practicum.tracker.api.adapters;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Writes a task with its type in the "type" field and reads it back as a task of that type. Without the
+// field a task of the adapted type is read, so bodies of older clients are still accepted. Fields are
+// read and written one by one, without reflection. Null fields are omitted, like Gson does by default.
+public class TaskAdapter<T extends Task> extends TypeAdapter<T> {
+    private static final String TYPE = "type";
+
+    private final Class<T> type;
+    private final LocalDateTimeAdapter dateTimeAdapter = new LocalDateTimeAdapter();
+    private final DurationAdapter durationAdapter = new DurationAdapter();
+
+    public TaskAdapter(Class<T> type) {
+        this.type = Objects.requireNonNull(type, "Type can't be null");
+    }
+
+    @Override
+    public void write(JsonWriter out, T task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name(TYPE).value(getTypeName(task));
+        out.name("id").value(task.getId());
+        if (task.getName() != null) {
+            out.name("name").value(task.getName());
+        }
+        if (task.getDescription() != null) {
+            out.name("description").value(task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            out.name("status").value(task.getStatus().name());
+        }
+        if (task.getStartTime() != null) {
+            out.name("startTime");
+            dateTimeAdapter.write(out, task.getStartTime());
+        }
+        if (task.getDuration() != null) {
+            out.name("duration");
+            durationAdapter.write(out, task.getDuration());
+        }
+        if (task instanceof Subtask subtask) {
+            out.name("parentEpicId").value(subtask.getParentEpicId());
+        } else if (task instanceof Epic epic) {
+            out.name("subtaskIds").beginArray();
+            for (long subtaskId : epic.getSubtaskIds()) {
+                out.value(subtaskId);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    // The type may come after other fields, so the task is built when the whole object is read.
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String typeName = null;
+        long id = 0;
+        String name = null;
+        String description = null;
+        Status status = Status.NEW;
+        LocalDateTime startTime = null;
+        Duration duration = null;
+        long parentEpicId = 0;
+        List<Long> subtaskIds = null;
+
+        try {
+            in.beginObject();
+            while (in.hasNext()) {
+                String field = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (field) {
+                    case TYPE -> typeName = in.nextString();
+                    case "id" -> id = in.nextLong();
+                    case "name" -> name = in.nextString();
+                    case "description" -> description = in.nextString();
+                    case "status" -> status = Status.valueOf(in.nextString());
+                    case "startTime" -> startTime = dateTimeAdapter.read(in);
+                    case "duration" -> duration = durationAdapter.read(in);
+                    case "parentEpicId" -> parentEpicId = in.nextLong();
+                    case "subtaskIds" -> {
+                        subtaskIds = new ArrayList<>();
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            subtaskIds.add(in.nextLong());
+                        }
+                        in.endArray();
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (IllegalArgumentException | DateTimeException exception) {
+            throw new JsonSyntaxException(exception);
+        }
+
+        Task task = switch ((typeName != null) ? typeName : type.getSimpleName()) {
+            case "Task" -> new Task(name, description, startTime, duration);
+            case "Subtask" -> new Subtask(name, description, startTime, duration, parentEpicId);
+            case "Epic" -> {
+                Epic epic = new Epic(name, description);
+                epic.setStartTime(startTime);
+                epic.setDuration(duration);
+                if (subtaskIds != null) {
+                    subtaskIds.forEach(epic::addSubtaskId);
+                }
+                yield epic;
+            }
+            default -> throw new JsonSyntaxException("Unknown task type: " + typeName);
+        };
+        if (!type.isInstance(task)) {
+            throw new JsonSyntaxException("Expected " + type.getSimpleName() + " but was " + typeName);
+        }
+        task.setId(id);
+        task.setStatus(status);
+        return type.cast(task);
+    }
+
+    private static String getTypeName(Task task) {
+        if (task instanceof Subtask) {
+            return "Subtask";
+        } else if (task instanceof Epic) {
+            return "Epic";
+        }
+        return "Task";
+    }
+}
\ No newline at end of file
@@ -1,35 +1,69 @@
 package ru.yandex.practicum.tracker.api.handlers;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
-import com.sun.net.httpserver.Headers;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
-import ru.yandex.practicum.tracker.api.adapters.DurationAdapter;
-import ru.yandex.practicum.tracker.api.adapters.LocalDateTimeAdapter;
+import ru.yandex.practicum.tracker.api.adapters.Adapters;
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
 import ru.yandex.practicum.tracker.exceptions.TaskNotFoundException;
 import ru.yandex.practicum.tracker.exceptions.TasksIntersectException;
 import ru.yandex.practicum.tracker.models.Task;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URI;
+import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 
+// Tasks are sent and received as JSON, or in the format of a task codec if the client asks for its content
+// type in the Accept or Content-Type header.
 abstract class BaseHttpHandler<T extends Task> implements HttpHandler {
     private static final Charset CHARSET = StandardCharsets.UTF_8;
-    private final Gson gson;
+    private static final String JSON_TYPE = "application/json";
+    private static final String JSON_CONTENT_TYPE = JSON_TYPE + "; charset=" + CHARSET;
+    private static final int BUFFER_SIZE = 8192;
+    // The body and its ETag depend on the negotiated codec and on the compression.
+    private static final String VARY = "Accept, Accept-Encoding";
+    // Shorter bodies aren't compressed, GZIP would save too little for the time it takes.
+    static final int COMPRESSION_THRESHOLD = 1024;
+    // Bodies up to this size are built before the status is sent, so a failure while writing them is a 500.
+    static final int RESPONSE_HOLD_SIZE = 64 * 1024;
+    private final Gson gson = Adapters.getGson();
+    // Versions start anew with every manager, so tags of different managers must differ.
+    private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    // Null when list responses aren't cached.
+    private final ResponseCache cache;
 
     BaseHttpHandler() {
-        gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .registerTypeAdapter(Duration.class, new DurationAdapter())
-                .create();
+        this(null);
+    }
+
+    BaseHttpHandler(ResponseCache cache) {
+        this.cache = cache;
     }
 
     @Override
@@ -55,32 +89,306 @@ abstract class BaseHttpHandler<T extends Task> implements HttpHandler {
 
     protected abstract boolean checkIntersection(T value);
 
-    protected void sendResponse(HttpExchange exchange, Object object, int code) throws IOException {
-        Headers headers = exchange.getResponseHeaders();
+    // Version of the data of list(), which becomes the ETag of list responses. -1 if it isn't versioned.
+    protected long getListVersion() {
+        return -1;
+    }
+
+    // Sets the ETag of the list response and answers 304 if the client already holds it, without building
+    // the list. The version is read before the list, so the body is never older than its tag claims.
+    protected boolean sendNotModified(HttpExchange exchange, long version) throws IOException {
+        if (version < 0) {
+            return false;
+        }
+        String eTag = "\"" + instanceTag + "-" + version + "-" + getRepresentation(exchange) + "\"";
+        exchange.getResponseHeaders().set("ETag", eTag);
+        exchange.getResponseHeaders().set("Vary", VARY);
+        if (!matchesAny(exchange.getRequestHeaders().getFirst("If-None-Match"), eTag)) {
+            return false;
+        }
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    // Weak tags match as well, a GET may be answered with 304 for them.
+    private static boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Sends the list, from the cache if it holds the list of this version. Uncached lists are streamed.
+    protected void sendList(HttpExchange exchange, long version, Supplier<?> list) throws IOException {
+        if ((cache == null) || (version < 0)) {
+            sendResponse(exchange, list.get(), 200);
+            return;
+        }
+        URI uri = exchange.getRequestURI();
+        String key = uri.getRawPath() + "?" + uri.getRawQuery() + " " + getRepresentation(exchange);
+        ResponseCache.Entry entry = cache.get(key, version);
+        if (entry == null) {
+            // Rejected arguments reach the caller, only a list which can't be encoded is answered with 500.
+            Object value = list.get();
+            try {
+                entry = encodeList(exchange, version, value);
+            } catch (RuntimeException exception) {
+                sendResponse(exchange, null, 500);
+                return;
+            }
+            cache.put(key, entry);
+        }
+        exchange.getResponseHeaders().set("Content-Type", entry.contentType());
+        exchange.getResponseHeaders().set("Vary", VARY);
+        if (entry.contentEncoding() != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", entry.contentEncoding());
+        }
+        exchange.sendResponseHeaders(200, entry.body().length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(entry.body());
+        }
+    }
+
+    // A cached body is compressed once for all clients which accept GZIP.
+    private ResponseCache.Entry encodeList(HttpExchange exchange, long version, Object list) throws IOException {
+        TaskCodec codec = getResponseCodec(exchange, list);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeBody(list, codec, body);
+        if (!acceptsGzip(exchange) || (body.size() < COMPRESSION_THRESHOLD)) {
+            return new ResponseCache.Entry(version, getContentType(codec), null, body.toByteArray());
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.size() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            body.writeTo(gzip);
+        }
+        return new ResponseCache.Entry(version, getContentType(codec), "gzip", compressed.toByteArray());
+    }
 
+    // Bodies up to RESPONSE_HOLD_SIZE are sent with a fixed length, longer ones are streamed with chunked
+    // encoding, so that a long list is never held as a whole string or array. Clients which accept GZIP get
+    // bodies from COMPRESSION_THRESHOLD bytes compressed.
+    // A body which fails before it's streamed is answered with 500. Once streaming has started the status is
+    // sent, so the exception is rethrown instead: the server then drops the connection without the last chunk
+    // and the client sees that the body is incomplete.
+    protected void sendResponse(HttpExchange exchange, Object object, int code) throws IOException {
         if (object == null) {
-            headers.set("Content-Length", "0");
-            exchange.sendResponseHeaders(code, 0);
-        } else {
-            headers.set("Content-Type", "application/json; charset=" + CHARSET);
+            // Length -1 sends an empty body, 0 would start a chunked one which is never finished.
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+            return;
+        }
+        TaskCodec codec = getResponseCodec(exchange, object);
+        exchange.getResponseHeaders().set("Content-Type", getContentType(codec));
+        exchange.getResponseHeaders().set("Vary", VARY);
+        ResponseBodyStream body = new ResponseBodyStream(exchange, code, RESPONSE_HOLD_SIZE, COMPRESSION_THRESHOLD,
+                acceptsGzip(exchange));
+        try {
+            writeBody(object, codec, body);
+        } catch (IOException | RuntimeException exception) {
+            if (body.isCommitted()) {
+                throw exception;
+            }
+            exchange.getResponseHeaders().remove("Content-Type");
+            sendResponse(exchange, null, 500);
+            return;
+        }
+        body.close();
+    }
 
-            String json = gson.toJson(object);
-            byte[] responseBody = json.getBytes(CHARSET);
+    // Without a codec the object is written as JSON.
+    private void writeBody(Object object, TaskCodec codec, OutputStream os) throws IOException {
+        if (codec != null) {
+            codec.write(asTasks(object), os);
+            return;
+        }
+        JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(os, CHARSET), BUFFER_SIZE));
+        gson.toJson(object, object.getClass(), writer);
+        writer.flush();
+    }
+
+    // The accepted codec if it can write the object, null for JSON.
+    private static TaskCodec getResponseCodec(HttpExchange exchange, Object object) {
+        Optional<TaskCodec> codec = getAcceptedCodec(exchange);
+        return (codec.isPresent() && isTasks(object)) ? codec.get() : null;
+    }
 
-            exchange.sendResponseHeaders(code, responseBody.length);
+    private static String getContentType(TaskCodec codec) {
+        return (codec != null) ? codec.getContentType() : JSON_CONTENT_TYPE;
+    }
 
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBody);
+    // Compressed and plain bodies are different representations with different tags.
+    private static String getRepresentation(HttpExchange exchange) {
+        String format = getAcceptedCodec(exchange).map(TaskCodec::getName).orElse("json");
+        return acceptsGzip(exchange) ? format + "-gzip" : format;
+    }
+
+    // Whether gzip, or any coding, is in the Accept-Encoding header with a non-zero quality.
+    static boolean acceptsGzip(HttpExchange exchange) {
+        return acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            boolean accepted = getQuality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                any = accepted;
             }
         }
+        return (any != null) && any;
+    }
+
+    // A malformed quality counts as 1, like a missing one.
+    private static double getQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException exception) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Null if the body is encoded in a way the server can't decode.
+    private static InputStream getRequestBody(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if ((encoding == null) || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+            return exchange.getRequestBody();
+        }
+        if (encoding.trim().equalsIgnoreCase("gzip") || encoding.trim().equalsIgnoreCase("x-gzip")) {
+            return new GZIPInputStream(exchange.getRequestBody(), BUFFER_SIZE);
+        }
+        return null;
+    }
+
+    // The first media type of the Accept header which is JSON or the type of a codec. Anything but tasks
+    // is always sent as JSON.
+    private static Optional<TaskCodec> getAcceptedCodec(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept == null) {
+            return Optional.empty();
+        }
+        for (String mediaRange : accept.split(",")) {
+            String mediaType = TaskCodecs.getMediaType(mediaRange);
+            if (mediaType.equals(JSON_TYPE)) {
+                return Optional.empty();
+            }
+            Optional<TaskCodec> codec = TaskCodecs.forContentType(mediaType);
+            if (codec.isPresent()) {
+                return codec;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isTasks(Object object) {
+        if (object instanceof Task) {
+            return true;
+        }
+        if (!(object instanceof List<?> values)) {
+            return false;
+        }
+        for (Object value : values) {
+            if (!(value instanceof Task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Requires isTasks(object).
+    private static List<Task> asTasks(Object object) {
+        if (object instanceof Task task) {
+            return List.of(task);
+        }
+        List<?> values = (List<?>) object;
+        List<Task> tasks = new ArrayList<>(values.size());
+        for (Object value : values) {
+            tasks.add((Task) value);
+        }
+        return tasks;
+    }
+
+    // A body of a codec must hold exactly one value of the handled type.
+    private T readValue(InputStream body, TaskCodec codec) throws IOException {
+        if (codec == null) {
+            return readJson(body);
+        }
+        List<Task> tasks = codec.read(body);
+        if ((tasks.size() != 1) || (tasks.getFirst().getClass() != getType())) {
+            throw new TaskFormatException("Body must hold one value of type " + getType().getSimpleName());
+        }
+        return getType().cast(tasks.getFirst());
+    }
+
+    // Like Gson.fromJson for a string, the body must hold one value and nothing after it.
+    private T readJson(InputStream body) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(body, CHARSET));
+        T value = gson.fromJson(reader, getType());
+        if (value == null) {
+            throw new JsonSyntaxException("Body is empty");
+        }
+        try {
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Body holds more than one value");
+            }
+        } catch (MalformedJsonException exception) {
+            throw new JsonSyntaxException(exception);
+        }
+        // The adapter of Task reads subtasks and epics too, which this handler can't store.
+        if (value.getClass() != getType()) {
+            throw new JsonSyntaxException("Expected " + getType().getSimpleName() + " but was "
+                    + value.getClass().getSimpleName());
+        }
+        return value;
+    }
+
+    protected static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if ((query != null) && !query.isEmpty()) {
+            for (String parameter : query.split("&")) {
+                int separatorIndex = parameter.indexOf('=');
+                if (separatorIndex > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, separatorIndex), CHARSET),
+                            URLDecoder.decode(parameter.substring(separatorIndex + 1), CHARSET));
+                }
+            }
+        }
+        return parameters;
     }
 
     protected void get(HttpExchange exchange) throws IOException {
         String[] pathComponents = exchange.getRequestURI().getPath().split("/");
 
         if (pathComponents.length == 2) {
-            List<T> values = list();
-            sendResponse(exchange, values, 200);
+            long version = getListVersion();
+            if (!sendNotModified(exchange, version)) {
+                sendList(exchange, version, this::list);
+            }
         } else if (pathComponents.length == 3) {
             try {
                 long id = Long.parseLong(pathComponents[2]);
@@ -106,8 +414,14 @@ abstract class BaseHttpHandler<T extends Task> implements HttpHandler {
 
         if (pathComponents.length == 2) {
             try {
-                String json = new String(exchange.getRequestBody().readAllBytes(), CHARSET);
-                T value = gson.fromJson(json, getType());
+                // Bodies of other types are read as JSON, like before codecs were supported.
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                InputStream body = getRequestBody(exchange);
+                if (body == null) {
+                    sendResponse(exchange, null, 415);
+                    return;
+                }
+                T value = readValue(body, TaskCodecs.forContentType(contentType).orElse(null));
                 long id = value.getId();
                 Optional<T> optionalValue = getById(id);
 
@@ -120,7 +434,8 @@ abstract class BaseHttpHandler<T extends Task> implements HttpHandler {
                     update(value);
                 }
                 sendResponse(exchange, getById(id).get(), 200);
-            } catch (JsonSyntaxException exception) {
+            } catch (JsonSyntaxException | TaskFormatException | ZipException | EOFException exception) {
+                // A compressed body which is broken or cut short is as malformed as broken JSON.
                 sendResponse(exchange, null, 400);
             } catch (TasksIntersectException exception) {
                 sendResponse(exchange, null, 406);
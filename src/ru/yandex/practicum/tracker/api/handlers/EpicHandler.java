@@ -3,6 +3,7 @@ package ru.yandex.practicum.tracker.api.handlers;
 import com.sun.net.httpserver.HttpExchange;
 import ru.yandex.practicum.tracker.exceptions.TaskNotFoundException;
 import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.managers.VersionScope;
 import ru.yandex.practicum.tracker.models.Epic;
 import ru.yandex.practicum.tracker.models.Subtask;
 
@@ -15,6 +16,12 @@ public class EpicHandler extends BaseHttpHandler<Epic> {
     private final TaskManager manager;
 
     public EpicHandler(TaskManager manager) {
+        this(manager, null);
+    }
+
+    // Lists are served from the cache while the manager version doesn't change. Null disables it.
+    public EpicHandler(TaskManager manager, ResponseCache cache) {
+        super(cache);
         this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
     }
 
@@ -23,6 +30,11 @@ public class EpicHandler extends BaseHttpHandler<Epic> {
         return manager.getEpicList();
     }
 
+    @Override
+    protected long getListVersion() {
+        return manager.getVersion(VersionScope.EPICS);
+    }
+
     @Override
     protected Optional<Epic> getById(long id) {
         return manager.getEpicById(id);
@@ -2,6 +2,7 @@ package ru.yandex.practicum.tracker.api.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.managers.VersionScope;
 import ru.yandex.practicum.tracker.models.Task;
 
 import java.io.IOException;
@@ -13,6 +14,12 @@ public class HistoryHandler extends BaseHttpHandler<Task> {
     private final TaskManager manager;
 
     public HistoryHandler(TaskManager manager) {
+        this(manager, null);
+    }
+
+    // Lists are served from the cache while the manager version doesn't change. Null disables it.
+    public HistoryHandler(TaskManager manager, ResponseCache cache) {
+        super(cache);
         this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
     }
 
@@ -33,6 +40,11 @@ public class HistoryHandler extends BaseHttpHandler<Task> {
         return manager.getHistory();
     }
 
+    @Override
+    protected long getListVersion() {
+        return manager.getVersion(VersionScope.HISTORY);
+    }
+
     @Override
     protected Optional<Task> getById(long id) {
         throw new UnsupportedOperationException();
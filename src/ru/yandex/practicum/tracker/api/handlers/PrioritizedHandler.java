@@ -2,10 +2,14 @@ package ru.yandex.practicum.tracker.api.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.managers.VersionScope;
 import ru.yandex.practicum.tracker.models.Task;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -13,6 +17,12 @@ public class PrioritizedHandler extends BaseHttpHandler<Task> {
     private final TaskManager manager;
 
     public PrioritizedHandler(TaskManager manager) {
+        this(manager, null);
+    }
+
+    // Lists are served from the cache while the manager version doesn't change. Null disables it.
+    public PrioritizedHandler(TaskManager manager, ResponseCache cache) {
+        super(cache);
         this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
     }
 
@@ -28,11 +38,36 @@ public class PrioritizedHandler extends BaseHttpHandler<Task> {
         }
     }
 
+    // Supports optional from, to (ISO date time, end exclusive) and limit parameters.
+    @Override
+    protected void get(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange);
+            LocalDateTime from = query.containsKey("from") ? LocalDateTime.parse(query.get("from")) : null;
+            LocalDateTime to = query.containsKey("to") ? LocalDateTime.parse(query.get("to")) : null;
+            int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : Integer.MAX_VALUE;
+
+            long version = getListVersion();
+            if (!sendNotModified(exchange, version)) {
+                sendList(exchange, version, () -> manager.getPrioritizedTasks(from, to, limit));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            sendResponse(exchange, null, 400);
+        } catch (Exception exception) {
+            sendResponse(exchange, null, 500);
+        }
+    }
+
     @Override
     protected List<Task> list() {
         return manager.getPrioritizedTasks();
     }
 
+    @Override
+    protected long getListVersion() {
+        return manager.getVersion(VersionScope.ALL);
+    }
+
     @Override
     protected Optional<Task> getById(long id) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.tracker.api.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+// Body of a response which is held in memory until it grows past holdSize bytes, so that a body which fails
+// to serialize before that can still be answered with another status. A body which fits is sent with a fixed
+// length when the stream is closed, a longer one is streamed with chunked encoding from the moment it passes
+// the limit, and its status can't change after that. For a client which accepts GZIP, bodies from
+// compressionThreshold bytes are compressed; the threshold must not exceed holdSize.
+final class ResponseBodyStream extends OutputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpExchange exchange;
+    private final int code;
+    private final int holdSize;
+    private final int compressionThreshold;
+    private final boolean gzipAccepted;
+    private byte[] head;
+    private int count;
+    // Null until the headers are sent.
+    private OutputStream out;
+    private boolean closed;
+
+    ResponseBodyStream(HttpExchange exchange, int code, int holdSize, int compressionThreshold,
+                       boolean gzipAccepted) {
+        if (compressionThreshold > holdSize) {
+            throw new IllegalArgumentException("Compression threshold can't exceed hold size");
+        }
+        this.exchange = exchange;
+        this.code = code;
+        this.holdSize = holdSize;
+        this.compressionThreshold = compressionThreshold;
+        this.gzipAccepted = gzipAccepted;
+        head = new byte[Math.min(holdSize, BUFFER_SIZE)];
+    }
+
+    // Whether the status and the headers have been sent.
+    boolean isCommitted() {
+        return out != null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        if (out == null) {
+            if (count + len <= holdSize) {
+                if (count + len > head.length) {
+                    head = Arrays.copyOf(head, Math.min(Math.max(head.length * 2, count + len), holdSize));
+                }
+                System.arraycopy(b, off, head, count, len);
+                count += len;
+                return;
+            }
+            if (gzipAccepted) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(code, 0);
+            out = gzipAccepted ? new GZIPOutputStream(exchange.getResponseBody(), BUFFER_SIZE)
+                    : exchange.getResponseBody();
+            out.write(head, 0, count);
+            head = null;
+        }
+        out.write(b, off, len);
+    }
+
+    // Held bytes stay held, flushing doesn't commit the response.
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    // Finishes the body. A body which failed to serialize must not be closed, see BaseHttpHandler.sendResponse.
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (out == null) {
+            byte[] body = head;
+            int length = count;
+            if (gzipAccepted && (count >= compressionThreshold)) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(count / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+                    gzip.write(head, 0, count);
+                }
+                body = compressed.toByteArray();
+                length = body.length;
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(code, (length == 0) ? -1 : length);
+            out = exchange.getResponseBody();
+            out.write(body, 0, length);
+        }
+        out.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.tracker.api.handlers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Encoded bodies of list responses, shared by all handlers of a server. Every body is stored with the manager
+// version it was built at and is only returned for that version, so any change of the listed data
+// invalidates it. The least recently used bodies are evicted when the total size exceeds the limit.
+public class ResponseCache {
+    private final long maxBytes;
+    // In access order, the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ResponseCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    // Null if there is no body of the given version. A body of another version is dropped, it can't become
+    // valid again.
+    synchronized Entry get(String key, long version) {
+        Entry entry = entries.get(key);
+        if ((entry != null) && (entry.version() == version)) {
+            hits++;
+            return entry;
+        }
+        if (entry != null) {
+            remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    // A body larger than the whole cache isn't stored.
+    synchronized void put(String key, Entry entry) {
+        Objects.requireNonNull(key, "Key can't be null");
+        Objects.requireNonNull(entry, "Entry can't be null");
+        remove(key);
+        if (entry.body().length > maxBytes) {
+            return;
+        }
+        entries.put(key, entry);
+        bytes += entry.body().length;
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            bytes -= iterator.next().getValue().body().length;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRatio() {
+        long requests = hits + misses;
+        return (requests == 0) ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResponseCache{" +
+                "entries=" + entries.size() +
+                ", bytes=" + bytes +
+                ", maxBytes=" + maxBytes +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.body().length;
+        }
+    }
+
+    // The content encoding is null for a body which isn't compressed.
+    record Entry(long version, String contentType, String contentEncoding, byte[] body) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.tracker.api.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.models.TimeSlot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+public class SlotsHandler extends BaseHttpHandler<Task> {
+    private final TaskManager manager;
+
+    public SlotsHandler(TaskManager manager) {
+        this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String[] pathComponents = exchange.getRequestURI().getPath().split("/");
+        String method = exchange.getRequestMethod();
+
+        if (method.equals("GET") && (pathComponents.length == 2)) {
+            get(exchange);
+        } else {
+            sendResponse(exchange, null, 404);
+        }
+    }
+
+    @Override
+    protected void get(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange);
+            String durationValue = query.get("duration");
+            if (durationValue == null) {
+                throw new IllegalArgumentException("Duration is required");
+            }
+
+            Duration duration = Duration.ofMinutes(Long.parseLong(durationValue));
+            LocalDateTime from = query.containsKey("from") ? LocalDateTime.parse(query.get("from"))
+                    : LocalDateTime.now();
+            LocalDateTime to = query.containsKey("to") ? LocalDateTime.parse(query.get("to"))
+                    : from.plusYears(1);
+            Optional<LocalDateTime> startTime = manager.findEarliestSlot(duration, from, to);
+
+            if (startTime.isPresent()) {
+                sendResponse(exchange, new TimeSlot(startTime.get(), startTime.get().plus(duration)), 200);
+            } else {
+                sendResponse(exchange, null, 404);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            sendResponse(exchange, null, 400);
+        } catch (Exception exception) {
+            sendResponse(exchange, null, 500);
+        }
+    }
+
+    @Override
+    protected List<Task> list() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Optional<Task> getById(long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected long create(Task value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void update(Task value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void delete(long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Class<Task> getType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected boolean checkIntersection(Task value) {
+        throw new UnsupportedOperationException();
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.tracker.api.handlers;
 
 import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.managers.VersionScope;
 import ru.yandex.practicum.tracker.models.Subtask;
 
 import java.util.List;
@@ -11,6 +12,12 @@ public class SubtaskHandler extends BaseHttpHandler<Subtask> {
     private final TaskManager manager;
 
     public SubtaskHandler(TaskManager manager) {
+        this(manager, null);
+    }
+
+    // Lists are served from the cache while the manager version doesn't change. Null disables it.
+    public SubtaskHandler(TaskManager manager, ResponseCache cache) {
+        super(cache);
         this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
     }
 
@@ -19,6 +26,11 @@ public class SubtaskHandler extends BaseHttpHandler<Subtask> {
         return manager.getSubtaskList();
     }
 
+    @Override
+    protected long getListVersion() {
+        return manager.getVersion(VersionScope.SUBTASKS);
+    }
+
     @Override
     protected Optional<Subtask> getById(long id) {
         return manager.getSubtaskById(id);
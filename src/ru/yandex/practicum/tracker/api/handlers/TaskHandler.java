@@ -1,6 +1,7 @@
 package ru.yandex.practicum.tracker.api.handlers;
 
 import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.managers.VersionScope;
 import ru.yandex.practicum.tracker.models.Task;
 
 import java.util.List;
@@ -11,6 +12,12 @@ public class TaskHandler extends BaseHttpHandler<Task> {
     private final TaskManager manager;
 
     public TaskHandler(TaskManager manager) {
+        this(manager, null);
+    }
+
+    // Lists are served from the cache while the manager version doesn't change. Null disables it.
+    public TaskHandler(TaskManager manager, ResponseCache cache) {
+        super(cache);
         this.manager = Objects.requireNonNull(manager, "Task manager can't be null");
     }
 
@@ -19,6 +26,11 @@ public class TaskHandler extends BaseHttpHandler<Task> {
         return manager.getTaskList();
     }
 
+    @Override
+    protected long getListVersion() {
+        return manager.getVersion(VersionScope.TASKS);
+    }
+
     @Override
     protected Optional<Task> getById(long id) {
         return manager.getTaskById(id);
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.BinarySnapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+// Fixed size records with a shared string table, see BinarySnapshot.
+public class BinaryTaskCodec implements TaskCodec {
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-tasks-binary";
+    }
+
+    @Override
+    public boolean recognizes(byte[] head, int length) {
+        return BinarySnapshot.isBinary(head, length);
+    }
+
+    @Override
+    public void write(Collection<? extends Task> tasks, OutputStream out) throws IOException {
+        out.write(BinarySnapshot.write(tasks));
+    }
+
+    @Override
+    public byte[] encode(Collection<? extends Task> tasks) {
+        return BinarySnapshot.write(tasks);
+    }
+
+    @Override
+    public List<Task> read(InputStream in) throws IOException {
+        try {
+            return BinarySnapshot.read(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (ManagerLoadException exception) {
+            throw new TaskFormatException(exception.getMessage());
+        }
+    }
+
+    // The file is mapped, not copied.
+    @Override
+    public List<Task> read(Path file) {
+        return BinarySnapshot.read(file);
+    }
+}
\ No newline at end of file
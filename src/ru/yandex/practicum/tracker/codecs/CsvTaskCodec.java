@@ -0,0 +1,102 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.CsvSnapshot;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Rows of TaskSerializer after a title line, one task per line. Nothing at all is written for no tasks.
+public class CsvTaskCodec implements TaskCodec {
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+    private static final int ROW_SIZE_ESTIMATE = 96;
+
+    private final TaskSerializer serializer;
+
+    public CsvTaskCodec(TaskSerializer serializer) {
+        this.serializer = Objects.requireNonNull(serializer, "Serializer can't be null");
+    }
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    // Both the title and the rows start with a letter or a digit.
+    @Override
+    public boolean recognizes(byte[] head, int length) {
+        return (length == 0) || Character.isLetterOrDigit(head[0]);
+    }
+
+    @Override
+    public void write(Collection<? extends Task> tasks, OutputStream out) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, CHARSET));
+        writer.write(serializer.getTitle());
+        for (Task task : tasks) {
+            writer.write(System.lineSeparator());
+            serializer.write(task, writer);
+        }
+        writer.flush();
+    }
+
+    // Rows are written straight into one buffer, without a string per row.
+    @Override
+    public byte[] encode(Collection<? extends Task> tasks) {
+        if (tasks.isEmpty()) {
+            return new byte[0];
+        }
+        StringBuilder content = new StringBuilder((int) Math.min((long) ROW_SIZE_ESTIMATE * (tasks.size() + 1),
+                Integer.MAX_VALUE - 8));
+        content.append(serializer.getTitle());
+        for (Task task : tasks) {
+            content.append(System.lineSeparator());
+            serializer.write(task, content);
+        }
+        return content.toString().getBytes(CHARSET);
+    }
+
+    // The title may be left out and empty lines are skipped.
+    @Override
+    public List<Task> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, CHARSET));
+        List<Task> tasks = new ArrayList<>();
+        String line = reader.readLine();
+        if ((line != null) && line.equals(serializer.getTitle())) {
+            line = reader.readLine();
+        }
+        for (; line != null; line = reader.readLine()) {
+            if (!line.isEmpty()) {
+                tasks.add(serializer.fromString(line));
+            }
+        }
+        return tasks;
+    }
+
+    // Large files are parsed in parallel chunks.
+    @Override
+    public List<Task> read(Path file) {
+        return CsvSnapshot.read(file, serializer);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.tracker.api.adapters.TaskAdapter;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// One JSON object per line with the fields of the task and its type in the "type" field.
+public class JsonLinesTaskCodec implements TaskCodec {
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private final TaskAdapter<Task> adapter = new TaskAdapter<>(Task.class);
+
+    @Override
+    public String getName() {
+        return "jsonl";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-ndjson";
+    }
+
+    @Override
+    public boolean recognizes(byte[] head, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(head[i])) {
+                return head[i] == '{';
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void write(Collection<? extends Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, CHARSET));
+        // Lenient, so that the writer accepts a value after a value. It writes straight to the buffer.
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setLenient(true);
+        for (Task task : tasks) {
+            adapter.write(jsonWriter, task);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // Empty lines are skipped.
+    @Override
+    public List<Task> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, CHARSET));
+        List<Task> tasks = new ArrayList<>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.isBlank()) {
+                tasks.add(parse(line));
+            }
+        }
+        return tasks;
+    }
+
+    private Task parse(String line) {
+        try {
+            Task task = adapter.fromJson(line);
+            if (task == null) {
+                throw new TaskFormatException("Line holds no task: " + line);
+            }
+            return task;
+        } catch (IOException | JsonParseException | IllegalStateException exception) {
+            throw new TaskFormatException("Line has bad format and can't be converted to Task: " + line);
+        }
+    }
+}
\ No newline at end of file
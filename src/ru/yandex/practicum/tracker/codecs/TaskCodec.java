@@ -0,0 +1,49 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+// Format of a list of tasks in snapshot files and HTTP bodies. The type of every task is kept, so that tasks,
+// subtasks and epics are read back as they were written. Implementations are shared between threads.
+public interface TaskCodec {
+    // Short name used in messages and benchmarks.
+    String getName();
+
+    // Media type of HTTP bodies in this format, without parameters.
+    String getContentType();
+
+    // Whether data starting with the given bytes is written in this format. At most TaskCodecs.HEAD_SIZE
+    // bytes are given, fewer if the data is shorter.
+    boolean recognizes(byte[] head, int length);
+
+    void write(Collection<? extends Task> tasks, OutputStream out) throws IOException;
+
+    // Tasks in the order of the input. Malformed input is reported by TaskFormatException.
+    List<Task> read(InputStream in) throws IOException;
+
+    default byte[] encode(Collection<? extends Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(tasks, out);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return out.toByteArray();
+    }
+
+    default List<Task> read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+}
\ No newline at end of file
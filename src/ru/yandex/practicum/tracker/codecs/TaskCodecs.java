@@ -0,0 +1,77 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+// Built-in codecs and lookups by content type and by the first bytes of a file.
+public final class TaskCodecs {
+    // Number of first bytes by which a format is recognized.
+    public static final int HEAD_SIZE = 16;
+
+    public static final TaskCodec CSV = new CsvTaskCodec(new TaskSerializer(",",
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    public static final TaskCodec JSON_LINES = new JsonLinesTaskCodec();
+    public static final TaskCodec BINARY = new BinaryTaskCodec();
+
+    // CSV goes last, because it takes almost any text.
+    private static final List<TaskCodec> BUILT_IN = List.of(BINARY, JSON_LINES, CSV);
+
+    private TaskCodecs() {
+    }
+
+    public static List<TaskCodec> getBuiltIn() {
+        return BUILT_IN;
+    }
+
+    // Parameters of the media type, such as the charset, are ignored.
+    public static Optional<TaskCodec> forContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        String mediaType = getMediaType(contentType);
+        return BUILT_IN.stream()
+                .filter(codec -> codec.getContentType().equals(mediaType))
+                .findFirst();
+    }
+
+    // Lower case media type without parameters.
+    public static String getMediaType(String contentType) {
+        int parametersStart = contentType.indexOf(';');
+        String mediaType = (parametersStart >= 0) ? contentType.substring(0, parametersStart) : contentType;
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // A custom codec is tried before the built-in ones, so that its files are read by it. Files which no
+    // codec recognizes are read as CSV.
+    public static TaskCodec detect(Path file, TaskCodec preferred) {
+        byte[] head = new byte[0];
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(HEAD_SIZE);
+        } catch (IOException exception) {
+            // A missing file fails when it is read.
+        }
+        return detect(head, head.length, preferred);
+    }
+
+    public static TaskCodec detect(byte[] head, int length, TaskCodec preferred) {
+        Objects.requireNonNull(preferred, "Codec can't be null");
+        if (!BUILT_IN.contains(preferred) && preferred.recognizes(head, length)) {
+            return preferred;
+        }
+        for (TaskCodec codec : BUILT_IN) {
+            if (codec.recognizes(head, length)) {
+                return codec;
+            }
+        }
+        return CSV;
+    }
+}
\ No newline at end of file
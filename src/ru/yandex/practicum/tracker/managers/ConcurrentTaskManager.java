@@ -0,0 +1,602 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.IdGenerator;
+import ru.yandex.practicum.tracker.utils.TaskScheduler;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+// Task manager which can be shared between threads.
+// Stored tasks are never modified after they are put into the maps, every change stores a new copy,
+// so readers work without locks. Getters by id take the read lock of the stripe, because they also add
+// to the history. Writers lock the stripe of the epic they change (or of the task id for plain tasks),
+// and all scheduler calls go through one lock, so that checking and booking a time interval is atomic.
+public class ConcurrentTaskManager implements TaskManager {
+    private static final int STRIPE_COUNT = 64;
+
+    private final IdGenerator idGenerator;
+
+    private final Map<Long, Task> taskMap;
+    private final Map<Long, Subtask> subtaskMap;
+    private final Map<Long, Epic> epicMap;
+
+    // Every aggregate is changed only under the write lock of its epic's stripe.
+    private final Map<Long, EpicAggregate> epicAggregates;
+    private final PrioritizedTaskIndex prioritizedTasks;
+    private final StampedLock[] stripes;
+
+    private final TaskScheduler scheduler;
+    private final ScheduleBookings bookings;
+    private final Lock scheduleLock;
+
+    private final HistoryManager historyManager;
+    private final VersionCounters versions;
+
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        this(historyManager, Managers.getDefaultScheduler());
+    }
+
+    public ConcurrentTaskManager(HistoryManager historyManager, TaskScheduler scheduler) {
+        this(historyManager, scheduler, Managers.getDefaultIdGenerator());
+    }
+
+    public ConcurrentTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator) {
+        Objects.requireNonNull(historyManager, "History manager can't be null");
+        Objects.requireNonNull(scheduler, "Scheduler can't be null");
+        Objects.requireNonNull(idGenerator, "Id generator can't be null");
+        this.historyManager = historyManager;
+        this.scheduler = scheduler;
+        bookings = new ScheduleBookings(scheduler);
+        this.idGenerator = idGenerator;
+        scheduleLock = new ReentrantLock();
+        versions = new VersionCounters();
+
+        taskMap = new ConcurrentHashMap<>();
+        subtaskMap = new ConcurrentHashMap<>();
+        epicMap = new ConcurrentHashMap<>();
+        epicAggregates = new ConcurrentHashMap<>();
+
+        // All changes of one id are made under the same stripe.
+        prioritizedTasks = PrioritizedTaskIndex.concurrent(this::findTask);
+        stripes = new StampedLock[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new StampedLock();
+        }
+    }
+
+    @Override
+    public List<Task> getTaskList() {
+        return taskMap.values().stream().map(Task::new).toList();
+    }
+
+    @Override
+    public List<Subtask> getSubtaskList() {
+        return subtaskMap.values().stream().map(Subtask::new).toList();
+    }
+
+    @Override
+    public List<Subtask> getSubtaskListForEpic(long epicId) {
+        StampedLock lock = stripeFor(epicId);
+        long stamp = lock.tryOptimisticRead();
+        List<Subtask> subtasks = collectSubtasks(epicId);
+        if (!lock.validate(stamp)) {
+            // The epic has been changed while reading, repeat under the read lock.
+            stamp = lock.readLock();
+            try {
+                subtasks = collectSubtasks(epicId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return subtasks;
+    }
+
+    @Override
+    public List<Epic> getEpicList() {
+        return epicMap.values().stream().map(Epic::new).toList();
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        synchronized (historyManager) {
+            return historyManager.getHistory();
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return getPrioritizedTasks(null, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return prioritizedTasks.get(from, to, limit).stream().map(TaskSerializer::copyTask).toList();
+    }
+
+    @Override
+    public Optional<Task> getTaskById(long id) {
+        StampedLock lock = stripeFor(id);
+        long stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(taskMap.get(id)).map(Task::new).map(this::addToHistory);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Subtask> getSubtaskById(long id) {
+        while (true) {
+            Subtask current = subtaskMap.get(id);
+            if (current == null) {
+                return Optional.empty();
+            }
+
+            long epicId = current.getParentEpicId();
+            StampedLock lock = stripeFor(epicId);
+            long stamp = lock.readLock();
+            try {
+                Subtask locked = subtaskMap.get(id);
+                if ((locked != null) && (locked.getParentEpicId() != epicId)) {
+                    continue;
+                }
+                return Optional.ofNullable(locked).map(Subtask::new).map(this::addToHistory);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(long id) {
+        StampedLock lock = stripeFor(id);
+        long stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(epicMap.get(id)).map(Epic::new).map(this::addToHistory);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean checkIntersection(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        scheduleLock.lock();
+        try {
+            return scheduler.isAvailable(task.getStartTime(), task.getEndTime());
+        } catch (IllegalArgumentException exception) {
+            return true;
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        scheduleLock.lock();
+        try {
+            return scheduler.findEarliestSlot(duration, notBefore, notAfter);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public long createTask(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        if ((task instanceof Subtask) || (task instanceof Epic)) {
+            throw new IllegalArgumentException("Task must be only Task type");
+        }
+
+        Task copy = new Task(task);
+        copy.setId(idGenerator.nextId());
+
+        StampedLock lock = stripeFor(copy.getId());
+        long stamp = lock.writeLock();
+        try {
+            scheduleTask(copy);
+            taskMap.put(copy.getId(), copy);
+            prioritizedTasks.put(copy);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        versions.increment(VersionScope.TASKS);
+        return copy.getId();
+    }
+
+    @Override
+    public long createSubtask(Subtask subtask) {
+        Objects.requireNonNull(subtask, "Subtask can't be null");
+        long epicId = subtask.getParentEpicId();
+        StampedLock lock = stripeFor(epicId);
+        long stamp = lock.writeLock();
+        try {
+            if (!epicMap.containsKey(epicId)) {
+                throw new IllegalArgumentException("Parent epic doesn't exist");
+            }
+
+            Subtask copy = new Subtask(subtask);
+            copy.setId(idGenerator.nextId());
+
+            scheduleTask(copy);
+            subtaskMap.put(copy.getId(), copy);
+            getAggregate(epicId).add(copy);
+            refreshEpic(epicId);
+            prioritizedTasks.put(copy);
+            versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS);
+
+            return copy.getId();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long createEpic(Epic epic) {
+        Objects.requireNonNull(epic, "Epic can't be null");
+        Epic copy = new Epic(epic);
+        copy.setId(idGenerator.nextId());
+
+        StampedLock lock = stripeFor(copy.getId());
+        long stamp = lock.writeLock();
+        try {
+            epicAggregates.put(copy.getId(), new EpicAggregate());
+            storeEpic(copy);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        versions.increment(VersionScope.EPICS);
+        return copy.getId();
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        if ((task instanceof Subtask) || (task instanceof Epic)) {
+            throw new IllegalArgumentException("Task must be only Task type");
+        }
+
+        StampedLock lock = stripeFor(task.getId());
+        long stamp = lock.writeLock();
+        try {
+            Task current = taskMap.get(task.getId());
+            if (current != null) {
+                Task copy = new Task(task);
+
+                scheduleTask(copy);
+                taskMap.put(copy.getId(), copy);
+                prioritizedTasks.put(copy);
+                versions.increment(VersionScope.TASKS);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        Objects.requireNonNull(subtask, "Subtask can't be null");
+        long epicId = subtask.getParentEpicId();
+        if (epicId == subtask.getId()) {
+            throw new IllegalArgumentException("Subtask cannot be its own epic");
+        }
+
+        while (true) {
+            Subtask current = subtaskMap.get(subtask.getId());
+            long oldEpicId = (current != null) ? current.getParentEpicId() : epicId;
+            long[] stamps = lockStripes(oldEpicId, epicId);
+            try {
+                if (!epicMap.containsKey(epicId)) {
+                    throw new IllegalArgumentException("Parent epic doesn't exist");
+                }
+                Subtask locked = subtaskMap.get(subtask.getId());
+                if (locked == null) {
+                    return;
+                }
+                if (locked.getParentEpicId() != oldEpicId) {
+                    // Moved to another epic by a concurrent update, the old epic is not locked.
+                    continue;
+                }
+
+                Subtask copy = new Subtask(subtask);
+                scheduleTask(copy);
+                subtaskMap.put(copy.getId(), copy);
+
+                getAggregate(oldEpicId).remove(locked);
+                getAggregate(epicId).add(copy);
+                if (oldEpicId != epicId) {
+                    refreshEpic(oldEpicId);
+                }
+                refreshEpic(epicId);
+                prioritizedTasks.put(copy);
+                versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS);
+                return;
+            } finally {
+                unlockStripes(stamps, oldEpicId, epicId);
+            }
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        Objects.requireNonNull(epic, "Epic can't be null");
+        StampedLock lock = stripeFor(epic.getId());
+        long stamp = lock.writeLock();
+        try {
+            if (epicMap.containsKey(epic.getId())) {
+                storeEpic(new Epic(epic));
+                versions.increment(VersionScope.EPICS);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeTask(long id) {
+        StampedLock lock = stripeFor(id);
+        long stamp = lock.writeLock();
+        try {
+            Task removedTask = taskMap.remove(id);
+            if (removedTask != null) {
+                unscheduleTask(removedTask);
+                prioritizedTasks.remove(removedTask.getId());
+                removeFromHistory(id);
+                versions.increment(VersionScope.TASKS, VersionScope.HISTORY);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeSubtask(long id) {
+        while (true) {
+            Subtask current = subtaskMap.get(id);
+            if (current == null) {
+                return;
+            }
+
+            long epicId = current.getParentEpicId();
+            StampedLock lock = stripeFor(epicId);
+            long stamp = lock.writeLock();
+            try {
+                Subtask locked = subtaskMap.get(id);
+                if ((locked != null) && (locked.getParentEpicId() != epicId)) {
+                    continue;
+                }
+                if (locked != null) {
+                    subtaskMap.remove(id);
+                    unscheduleTask(locked);
+                    getAggregate(epicId).remove(locked);
+                    refreshEpic(epicId);
+                    prioritizedTasks.remove(locked.getId());
+                    removeFromHistory(id);
+                    versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
+                }
+                return;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    public void removeEpic(long id) {
+        StampedLock lock = stripeFor(id);
+        long stamp = lock.writeLock();
+        try {
+            Epic removedEpic = epicMap.remove(id);
+            EpicAggregate aggregate = epicAggregates.remove(id);
+            if ((removedEpic != null) && (aggregate != null)) {
+                aggregate.getSubtaskIds().forEach(subtaskId -> {
+                    Subtask subtask = subtaskMap.remove(subtaskId);
+                    if (subtask != null) {
+                        unscheduleTask(subtask);
+                        prioritizedTasks.remove(subtask.getId());
+                    }
+                    removeFromHistory(subtaskId);
+                });
+                prioritizedTasks.remove(removedEpic.getId());
+                removeFromHistory(id);
+                versions.increment(VersionScope.EPICS, VersionScope.SUBTASKS, VersionScope.HISTORY);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeAllTasks() {
+        long[] stamps = lockAllStripes();
+        try {
+            taskMap.forEach((id, task) -> {
+                unscheduleTask(task);
+                prioritizedTasks.remove(id);
+                removeFromHistory(id);
+            });
+            taskMap.clear();
+            versions.increment(VersionScope.TASKS, VersionScope.HISTORY);
+        } finally {
+            unlockAllStripes(stamps);
+        }
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        long[] stamps = lockAllStripes();
+        try {
+            subtaskMap.forEach((id, subtask) -> {
+                unscheduleTask(subtask);
+                prioritizedTasks.remove(id);
+                removeFromHistory(id);
+            });
+            subtaskMap.clear();
+            for (long epicId : epicMap.keySet()) {
+                epicAggregates.put(epicId, new EpicAggregate());
+                refreshEpic(epicId);
+            }
+            versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
+        } finally {
+            unlockAllStripes(stamps);
+        }
+    }
+
+    @Override
+    public void removeAllEpics() {
+        long[] stamps = lockAllStripes();
+        try {
+            subtaskMap.forEach((id, subtask) -> {
+                unscheduleTask(subtask);
+                prioritizedTasks.remove(id);
+                removeFromHistory(id);
+            });
+            epicMap.forEach((id, epic) -> {
+                prioritizedTasks.remove(id);
+                removeFromHistory(id);
+            });
+            epicMap.clear();
+            subtaskMap.clear();
+            epicAggregates.clear();
+            versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
+        } finally {
+            unlockAllStripes(stamps);
+        }
+    }
+
+    @Override
+    public long getVersion(VersionScope scope) {
+        return versions.get(Objects.requireNonNull(scope, "Scope can't be null"));
+    }
+
+    private List<Subtask> collectSubtasks(long epicId) {
+        Epic epic = epicMap.get(epicId);
+        if (epic == null) {
+            return Collections.emptyList();
+        }
+
+        List<Subtask> subtasks = new ArrayList<>();
+        for (long subtaskId : epic.getSubtaskIds()) {
+            Subtask subtask = subtaskMap.get(subtaskId);
+            if ((subtask != null) && (subtask.getParentEpicId() == epicId)) {
+                subtasks.add(new Subtask(subtask));
+            }
+        }
+        return subtasks;
+    }
+
+    private EpicAggregate getAggregate(long epicId) {
+        return epicAggregates.computeIfAbsent(epicId, id -> new EpicAggregate());
+    }
+
+    private void refreshEpic(long epicId) {
+        Epic current = epicMap.get(epicId);
+        if (current != null) {
+            storeEpic(new Epic(current));
+        }
+    }
+
+    // Fills the epic from its aggregate and replaces the stored one. Requires the epic's stripe.
+    private void storeEpic(Epic epic) {
+        EpicAggregate aggregate = getAggregate(epic.getId());
+        epic.removeAllSubtaskIds();
+        aggregate.getSubtaskIds().forEach(epic::addSubtaskId);
+        aggregate.applyTo(epic);
+
+        epicMap.put(epic.getId(), epic);
+        prioritizedTasks.put(epic);
+    }
+
+    // Requires the read lock of the task's stripe, otherwise a concurrent removal may clear the history
+    // before the task is added and leave the removed task there.
+    private <T extends Task> T addToHistory(T task) {
+        synchronized (historyManager) {
+            historyManager.add(task);
+        }
+        versions.increment(VersionScope.HISTORY);
+        return task;
+    }
+
+    private void removeFromHistory(long id) {
+        synchronized (historyManager) {
+            historyManager.remove(id);
+        }
+    }
+
+    // Frees the time of the current version of the task and books the new one in one step.
+    private void scheduleTask(Task task) {
+        scheduleLock.lock();
+        try {
+            bookings.book(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void unscheduleTask(Task task) {
+        scheduleLock.lock();
+        try {
+            bookings.release(task.getId());
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private int stripeIndex(long id) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & (STRIPE_COUNT - 1);
+    }
+
+    private StampedLock stripeFor(long id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    // Locks the stripes of both epics in index order, so that two moves in opposite directions can't deadlock.
+    private long[] lockStripes(long firstId, long secondId) {
+        int first = Math.min(stripeIndex(firstId), stripeIndex(secondId));
+        int second = Math.max(stripeIndex(firstId), stripeIndex(secondId));
+        long firstStamp = stripes[first].writeLock();
+        long secondStamp = (first != second) ? stripes[second].writeLock() : 0;
+        return new long[]{firstStamp, secondStamp};
+    }
+
+    private void unlockStripes(long[] stamps, long firstId, long secondId) {
+        int first = Math.min(stripeIndex(firstId), stripeIndex(secondId));
+        int second = Math.max(stripeIndex(firstId), stripeIndex(secondId));
+        if (first != second) {
+            stripes[second].unlockWrite(stamps[1]);
+        }
+        stripes[first].unlockWrite(stamps[0]);
+    }
+
+    private long[] lockAllStripes() {
+        long[] stamps = new long[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stamps[i] = stripes[i].writeLock();
+        }
+        return stamps;
+    }
+
+    private void unlockAllStripes(long[] stamps) {
+        for (int i = STRIPE_COUNT - 1; i >= 0; i--) {
+            stripes[i].unlockWrite(stamps[i]);
+        }
+    }
+
+    private Task findTask(long id) {
+        Task task = taskMap.get(id);
+        if (task == null) {
+            task = subtaskMap.get(id);
+        }
+        return (task != null) ? task : epicMap.get(id);
+    }
+}
\ No newline at end of file
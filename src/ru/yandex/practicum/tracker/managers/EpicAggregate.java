@@ -0,0 +1,83 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Subtask ids and running totals of one epic, so that neither a subtask change nor
+// a lookup of the epic's subtasks requires a scan over all subtasks.
+final class EpicAggregate {
+    private final Set<Long> subtaskIds;
+    private final int[] statusCounts;
+    private long totalMinutes;
+    // Start time -> number of subtasks starting at that time.
+    private final NavigableMap<LocalDateTime, Integer> startTimes;
+
+    EpicAggregate() {
+        subtaskIds = new LinkedHashSet<>();
+        statusCounts = new int[Status.values().length];
+        startTimes = new TreeMap<>();
+    }
+
+    void add(Subtask subtask) {
+        if (!subtaskIds.add(subtask.getId())) {
+            throw new IllegalStateException("Subtask with id=" + subtask.getId() + " is already added");
+        }
+        statusCounts[statusOf(subtask).ordinal()]++;
+        if (hasTime(subtask)) {
+            totalMinutes += subtask.getDuration().toMinutes();
+            startTimes.merge(subtask.getStartTime(), 1, Integer::sum);
+        }
+    }
+
+    void remove(Subtask subtask) {
+        if (!subtaskIds.remove(subtask.getId())) {
+            return;
+        }
+        statusCounts[statusOf(subtask).ordinal()]--;
+        if (hasTime(subtask)) {
+            totalMinutes -= subtask.getDuration().toMinutes();
+            startTimes.computeIfPresent(subtask.getStartTime(), (time, count) -> (count > 1) ? count - 1 : null);
+        }
+    }
+
+    Set<Long> getSubtaskIds() {
+        return Collections.unmodifiableSet(subtaskIds);
+    }
+
+    Status getStatus() {
+        int subtaskCount = subtaskIds.size();
+        if (statusCounts[Status.NEW.ordinal()] == subtaskCount) {
+            return Status.NEW;
+        } else if (statusCounts[Status.DONE.ordinal()] == subtaskCount) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+
+    LocalDateTime getStartTime() {
+        return startTimes.isEmpty() ? null : startTimes.firstKey();
+    }
+
+    Duration getDuration() {
+        return Duration.ofMinutes(totalMinutes);
+    }
+
+    void applyTo(Epic epic) {
+        epic.setStatus(getStatus());
+        epic.setStartTime(getStartTime());
+        epic.setDuration(getDuration());
+    }
+
+    private static Status statusOf(Subtask subtask) {
+        return (subtask.getStatus() != null) ? subtask.getStatus() : Status.NEW;
+    }
+
+    private static boolean hasTime(Subtask subtask) {
+        return (subtask.getStartTime() != null) && (subtask.getDuration() != null);
+    }
+}
\ No newline at end of file
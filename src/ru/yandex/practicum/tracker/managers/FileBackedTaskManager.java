@@ -1,31 +1,116 @@
 package ru.yandex.practicum.tracker.managers;
 
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
 import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
-import ru.yandex.practicum.tracker.exceptions.ManagerSaveException;
 import ru.yandex.practicum.tracker.models.Epic;
 import ru.yandex.practicum.tracker.models.Subtask;
 import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.CompressedSnapshot;
+import ru.yandex.practicum.tracker.storage.LazyTaskMap;
+import ru.yandex.practicum.tracker.storage.SnapshotSource;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+import ru.yandex.practicum.tracker.storage.TaskArchive;
+import ru.yandex.practicum.tracker.storage.TaskFileIndex;
+import ru.yandex.practicum.tracker.storage.TaskJournal;
+import ru.yandex.practicum.tracker.storage.TaskStore;
+import ru.yandex.practicum.tracker.utils.IdGenerator;
+import ru.yandex.practicum.tracker.utils.TaskScheduler;
 import ru.yandex.practicum.tracker.utils.TaskSerializer;
 
 import java.io.*;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-
-public class FileBackedTaskManager extends InMemoryTaskManager {
-    private static final Charset CHARSET = StandardCharsets.UTF_8;
+import java.util.stream.LongStream;
+
+// Task manager which keeps its tasks in a file of the codec chosen by the storage options, CSV by default,
+// or in segment files by ranges of ids.
+// Archived tasks are kept in an archive file next to it.
+// In write-behind mode the files are written by a background thread, so changes and snapshots of
+// the tasks are made under the manager's lock.
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
     private static final TaskSerializer SERIALIZER = new TaskSerializer(",",
             DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-    private final String path;
+    private final TaskCodec codec;
+    private final TaskStore store;
+    // Snapshot of the tasks which aren't kept in memory in lazy mode.
+    private TaskFileIndex index;
 
     public FileBackedTaskManager(HistoryManager historyManager, String path) {
-        super(historyManager);
+        this(historyManager, Managers.getDefaultScheduler(), path);
+    }
+
+    public FileBackedTaskManager(HistoryManager historyManager, TaskScheduler scheduler, String path) {
+        this(historyManager, scheduler, Managers.getDefaultIdGenerator(), path);
+    }
+
+    public FileBackedTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator,
+                                 String path) {
+        this(historyManager, scheduler, idGenerator, path, StorageOptions.defaults());
+    }
+
+    public FileBackedTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator,
+                                 String path, StorageOptions options) {
+        this(historyManager, scheduler, idGenerator, path, options, false);
+    }
+
+    private FileBackedTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator,
+                                  String path, StorageOptions options, boolean loaded) {
+        super(historyManager, scheduler, idGenerator, createMap(Task.class, options),
+                createMap(Subtask.class, options), createArchive(path, options, loaded),
+                options.getArchivePolicy());
+        codec = options.getCodec();
+        store = new TaskStore(Path.of(path), SERIALIZER, options, new SnapshotSource() {
+            @Override
+            public byte[] render() {
+                return renderSnapshot();
+            }
+
+            @Override
+            public byte[] render(long fromId, long toId) {
+                return renderSegment(fromId, toId);
+            }
+
+            @Override
+            public long[] getIds() {
+                return getAllIds();
+            }
+        });
+    }
+
+    // Null if the options don't archive tasks.
+    private static TaskArchive createArchive(String path, StorageOptions options, boolean loaded) {
         Objects.requireNonNull(path, "Path can't be null");
-        this.path = path;
+        if (!options.isArchived()) {
+            return null;
+        }
+        TaskArchive taskArchive = new TaskArchive(TaskStore.getArchivePath(Path.of(path)), SERIALIZER,
+                options.getDurability());
+        // A new manager must not pick up tasks archived by an earlier one.
+        if (!loaded) {
+            taskArchive.clear();
+        }
+        return taskArchive;
+    }
+
+    private static <T extends Task> Map<Long, T> createMap(Class<T> type, StorageOptions options) {
+        Objects.requireNonNull(options, "Storage options can't be null");
+        if (options.isLazy() && options.isSegmented()) {
+            throw new IllegalArgumentException("Lazy loading isn't supported with segments");
+        }
+        if (options.isLazy() && !TaskFileIndex.supports(options.getCodec())) {
+            throw new IllegalArgumentException("Lazy loading is supported with CSV and binary snapshots only");
+        }
+        if (options.isLazy() && options.isCompressed()) {
+            throw new IllegalArgumentException("Lazy loading isn't supported with compression");
+        }
+        return options.isLazy() ? new LazyTaskMap<>(type, options.getLazyCacheSize()) : new HashMap<>();
     }
 
     public static void main(String[] args) {
@@ -83,58 +168,103 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     public static FileBackedTaskManager loadFromFile(File file, HistoryManager historyManager) {
+        return loadFromFile(file, historyManager, Managers.getDefaultScheduler());
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, HistoryManager historyManager,
+                                                     TaskScheduler scheduler) {
+        return loadFromFile(file, historyManager, scheduler, Managers.getDefaultIdGenerator());
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, HistoryManager historyManager,
+                                                     TaskScheduler scheduler, IdGenerator idGenerator) {
+        return loadFromFile(file, historyManager, scheduler, idGenerator, StorageOptions.defaults());
+    }
+
+    // Reads the snapshot, applies the journal left after it and writes a fresh snapshot if there was one
+    // or if the snapshot is laid out differently than the options say. Tasks matching the archive policy
+    // are archived right away, and archived tasks are moved back into the snapshot if there is no policy.
+    public static FileBackedTaskManager loadFromFile(File file, HistoryManager historyManager,
+                                                     TaskScheduler scheduler, IdGenerator idGenerator,
+                                                     StorageOptions options) {
         Objects.requireNonNull(file, "File can't be null");
         if (file.isDirectory()) {
             throw new IllegalArgumentException("File object cannot be directory");
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file, CHARSET))) {
-            FileBackedTaskManager taskManager = new FileBackedTaskManager(historyManager, file.getPath());
-            Map<Long, Subtask> unusedSubtasks = new HashMap<>();
+        long start = System.nanoTime();
+        Path path = file.toPath();
+        List<Path> segmentFiles = TaskStore.getSegmentFiles(path);
+        boolean otherLayout = options.isSegmented() ? Files.exists(path) : !segmentFiles.isEmpty();
+        Map<Long, Task> rows = readSnapshot(path, segmentFiles, options.getCodec());
+        FileBackedTaskManager taskManager = new FileBackedTaskManager(historyManager, scheduler, idGenerator,
+                file.getPath(), options, true);
+        Path journalPath = TaskStore.getJournalPath(path);
+        boolean hasJournal = Files.exists(journalPath);
+        Set<Long> changedIds = new HashSet<>();
+        if (hasJournal) {
+            new TaskJournal(journalPath, SERIALIZER).replay(rows, changedIds);
+        }
 
-            // Skip first line with title.
-            if (reader.ready()) reader.readLine();
-            while (reader.ready()) {
-                Task task = SERIALIZER.fromString(reader.readLine());
+        List<Task> archived = List.of();
+        TaskArchive formerArchive = null;
+        if (taskManager.archive != null) {
+            archived = taskManager.archive.load();
+        } else if (Files.exists(TaskStore.getArchivePath(path))) {
+            // Tasks in memory are newer than their archived rows.
+            formerArchive = new TaskArchive(TaskStore.getArchivePath(path), SERIALIZER, options.getDurability());
+            formerArchive.load().forEach(task -> rows.putIfAbsent(task.getId(), task));
+        }
+        taskManager.restore(rows.values(), archived);
+        boolean saved = false;
+        if (options.isLazy()) {
+            // Compressed snapshots and snapshots of other codecs can't be indexed, so they are written anew first.
+            if (!TaskFileIndex.canIndex(path)) {
+                taskManager.save();
+                changedIds.clear();
+                saved = true;
+            }
+            taskManager.attachSnapshot(path, changedIds);
+        }
+        taskManager.archiveTasks();
 
-                if ((task.getStartTime() == null) || (task.getDuration() == null)
-                        || !taskManager.scheduler.isInRange(task.getStartTime())) {
-                    continue;
-                }
+        if (!saved && (hasJournal || otherLayout || (formerArchive != null))) {
+            taskManager.save();
+        }
+        if (formerArchive != null) {
+            formerArchive.clear();
+        }
+        taskManager.store.recordLoad(System.nanoTime() - start);
+        taskManager.store.start();
+        return taskManager;
+    }
 
-                if (task instanceof Epic epic) {
-                    taskManager.epicMap.put(epic.getId(), epic);
-                    taskManager.scheduler.addSchedule(epic);
-                    taskManager.prioritizedTasks.add(epic);
-                    Subtask subtask = unusedSubtasks.get(epic.getId());
-
-                    if (subtask != null) {
-                        epic.addSubtaskId(subtask.getId());
-                        taskManager.subtaskMap.put(subtask.getId(), subtask);
-                        taskManager.scheduler.addSchedule(subtask);
-                        taskManager.prioritizedTasks.add(subtask);
-                        unusedSubtasks.remove(epic.getId());
-                    }
-                } else if (task instanceof Subtask subtask) {
-                    Epic parentEpic = taskManager.epicMap.get(subtask.getParentEpicId());
-
-                    if (parentEpic != null) {
-                        parentEpic.addSubtaskId(subtask.getId());
-                        taskManager.subtaskMap.put(subtask.getId(), subtask);
-                        taskManager.scheduler.addSchedule(subtask);
-                        taskManager.prioritizedTasks.add(subtask);
-                        unusedSubtasks.remove(parentEpic.getId());
-                    } else {
-                        unusedSubtasks.put(subtask.getParentEpicId(), subtask);
-                    }
-                } else {
-                    taskManager.taskMap.put(task.getId(), task);
-                    taskManager.scheduler.addSchedule(task);
-                    taskManager.prioritizedTasks.add(task);
-                }
+    // The format and the compression are recognized by the content of every file, so a manager may switch
+    // them between runs.
+    // Files are parsed in parallel, later rows of the same id replace earlier ones and rows of segments
+    // replace rows of a whole snapshot left from before the switch to segments.
+    private static Map<Long, Task> readSnapshot(Path file, List<Path> segmentFiles, TaskCodec codec) {
+        List<List<Task>> parts = new ArrayList<>();
+        if (segmentFiles.isEmpty() || Files.exists(file)) {
+            parts.add(readFile(file, codec));
+        }
+        parts.addAll(segmentFiles.parallelStream().map(segmentFile -> readFile(segmentFile, codec)).toList());
+
+        Map<Long, Task> rows = new LinkedHashMap<>((int) (parts.stream().mapToInt(List::size).sum() / 0.75f) + 1);
+        for (List<Task> tasks : parts) {
+            for (Task task : tasks) {
+                rows.put(task.getId(), task);
             }
+        }
+        return rows;
+    }
 
-            return taskManager;
+    private static List<Task> readFile(Path file, TaskCodec codec) {
+        try {
+            if (CompressedSnapshot.isCompressed(file)) {
+                return CompressedSnapshot.read(file, codec);
+            }
+            return TaskCodecs.detect(file, codec).read(file);
         } catch (IOException exception) {
             throw new ManagerLoadException("Cannot load data from file, reason: " + exception.getMessage());
         }
@@ -142,98 +272,261 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
 
     @Override
     public long createTask(Task task) {
-        long id = super.createTask(task);
-        save();
+        long id;
+        synchronized (this) {
+            id = super.createTask(task);
+            store.recordSaved(taskMap.get(id));
+        }
+        store.commit();
         return id;
     }
 
     @Override
     public long createSubtask(Subtask subtask) {
-        long id = super.createSubtask(subtask);
-        save();
+        long id;
+        synchronized (this) {
+            id = super.createSubtask(subtask);
+            store.recordSaved(subtaskMap.get(id));
+        }
+        store.commit();
         return id;
     }
 
     @Override
     public long createEpic(Epic epic) {
-        long id = super.createEpic(epic);
-        save();
+        long id;
+        synchronized (this) {
+            id = super.createEpic(epic);
+            store.recordSaved(epicMap.get(id));
+        }
+        store.commit();
         return id;
     }
 
     @Override
     public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        synchronized (this) {
+            super.updateTask(task);
+            recordSaved(taskMap.get(task.getId()));
+        }
+        store.commit();
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        synchronized (this) {
+            super.updateSubtask(subtask);
+            recordSaved(subtaskMap.get(subtask.getId()));
+        }
+        store.commit();
     }
 
     @Override
     public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+        synchronized (this) {
+            super.updateEpic(epic);
+            recordSaved(epicMap.get(epic.getId()));
+        }
+        store.commit();
     }
 
     @Override
     public void removeTask(long id) {
-        super.removeTask(id);
-        save();
+        synchronized (this) {
+            super.removeTask(id);
+            store.recordRemoved(id);
+        }
+        store.commit();
     }
 
     @Override
     public void removeSubtask(long id) {
-        super.removeSubtask(id);
-        save();
+        synchronized (this) {
+            super.removeSubtask(id);
+            store.recordRemoved(id);
+        }
+        store.commit();
     }
 
     @Override
     public void removeEpic(long id) {
-        super.removeEpic(id);
-        save();
+        synchronized (this) {
+            if (epicMap.containsKey(id)) {
+                getAggregate(id).getSubtaskIds().forEach(store::recordRemoved);
+            }
+            super.removeEpic(id);
+            store.recordRemoved(id);
+        }
+        store.commit();
+    }
+
+    @Override
+    public int archiveTasks() {
+        List<Long> ids;
+        synchronized (this) {
+            ids = moveToArchive();
+            ids.forEach(store::recordRemoved);
+        }
+        store.commit();
+        return ids.size();
     }
 
+    // Bulk removals make most of the journal obsolete, so they are written as a snapshot.
     @Override
     public void removeAllTasks() {
-        super.removeAllTasks();
-        save();
+        synchronized (this) {
+            super.removeAllTasks();
+            store.requestSnapshot();
+        }
+        store.commit();
     }
 
     @Override
     public void removeAllSubtasks() {
-        super.removeAllSubtasks();
-        save();
+        synchronized (this) {
+            super.removeAllSubtasks();
+            store.requestSnapshot();
+        }
+        store.commit();
     }
 
     @Override
     public void removeAllEpics() {
-        super.removeAllEpics();
-        save();
+        synchronized (this) {
+            super.removeAllEpics();
+            store.requestSnapshot();
+        }
+        store.commit();
     }
 
+    // Writes a snapshot of all tasks and drops the journal.
     public void save() {
-        try (FileWriter fileWriter = new FileWriter(path, CHARSET)) {
-            StringBuilder fileContent = new StringBuilder();
+        store.save();
+    }
+
+    // Writes all changes which are still pending in write-behind mode.
+    public void flush() {
+        store.flush();
+    }
+
+    public StorageMetrics getStorageMetrics() {
+        return store.getMetrics();
+    }
 
-            taskMap.forEach((id, t) -> appendContentToStringBuilder(fileContent, t));
-            epicMap.forEach((id, e) -> appendContentToStringBuilder(fileContent, e));
-            subtaskMap.forEach((id, s) -> appendContentToStringBuilder(fileContent, s));
+    @Override
+    public void close() {
+        store.close();
+        if (index != null) {
+            index.close();
+        }
+        if (archive != null) {
+            archive.close();
+        }
+    }
 
-            if (!fileContent.isEmpty()) {
-                fileContent.insert(0, SERIALIZER.getTitle() + System.lineSeparator());
-                fileContent.delete(fileContent.length() - 2, fileContent.length());
-                fileWriter.write(fileContent.toString());
+    private synchronized byte[] renderSnapshot() {
+        List<Task> tasks = new ArrayList<>(taskMap.size() + epicMap.size() + subtaskMap.size());
+        tasks.addAll(taskMap.values());
+        tasks.addAll(epicMap.values());
+        tasks.addAll(subtaskMap.values());
+        return codec.encode(tasks);
+    }
+
+    // Segments are small ranges of ids, so they are looked up one by one.
+    private synchronized byte[] renderSegment(long fromId, long toId) {
+        List<Task> tasks = new ArrayList<>();
+        for (long id = fromId; id < toId; id++) {
+            Task task = taskMap.get(id);
+            if (task == null) {
+                task = epicMap.get(id);
             }
-        } catch (IOException exception) {
-            throw new ManagerSaveException("Cannot save data to file, reason: " + exception.getMessage());
+            if (task == null) {
+                task = subtaskMap.get(id);
+            }
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks.isEmpty() ? null : codec.encode(tasks);
+    }
+
+    private synchronized long[] getAllIds() {
+        return LongStream.concat(LongStream.concat(
+                        taskMap.keySet().stream().mapToLong(Long::longValue),
+                        epicMap.keySet().stream().mapToLong(Long::longValue)),
+                subtaskMap.keySet().stream().mapToLong(Long::longValue)).toArray();
+    }
+
+    // Leaves in memory only the tasks which differ from the loaded snapshot. Epics always stay there.
+    private synchronized void attachSnapshot(Path file, Set<Long> changedIds) {
+        index = TaskFileIndex.open(file, SERIALIZER, store.getMetrics());
+        ((LazyTaskMap<Task>) taskMap).attach(index, changedIds);
+        ((LazyTaskMap<Subtask>) subtaskMap).attach(index, changedIds);
+    }
+
+    private void recordSaved(Task task) {
+        if (task != null) {
+            store.recordSaved(task);
         }
     }
 
-    private static void appendContentToStringBuilder(StringBuilder source, Task task) {
-        source.append(SERIALIZER.toString(task)).append(System.lineSeparator());
+    // Epics are registered first, so that every subtask finds its epic wherever it is in the file, and
+    // subtasks of missing epics are dropped. Then all tasks are linked and scheduled in one pass and
+    // the priority index is built at once. Archived subtasks are counted by their epics only. Fields of
+    // epics derived from subtasks are calculated anew.
+    private void restore(Collection<Task> rows, Collection<Task> archived) {
+        long maxId = 0;
+        for (Task task : archived) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        for (Task task : rows) {
+            maxId = Math.max(maxId, task.getId());
+            if (task instanceof Epic epic) {
+                epicMap.put(epic.getId(), epic);
+            }
+        }
+
+        List<Task> prioritized = new ArrayList<>(rows.size());
+        for (Task task : rows) {
+            if (task instanceof Subtask subtask) {
+                Epic parentEpic = epicMap.get(subtask.getParentEpicId());
+                if (parentEpic == null) {
+                    continue;
+                }
+                parentEpic.addSubtaskId(subtask.getId());
+                getAggregate(parentEpic.getId()).add(subtask);
+                subtaskMap.put(subtask.getId(), subtask);
+            } else if (task instanceof Epic epic) {
+                // Subtasks may follow their epic, so its fields are calculated after this pass.
+                prioritized.add(epic);
+                continue;
+            } else {
+                taskMap.put(task.getId(), task);
+            }
+            // Tasks outside the scheduling horizon are kept and still listed by start time.
+            bookLoaded(task);
+            prioritized.add(task);
+        }
+        for (Task task : archived) {
+            long id = task.getId();
+            Epic parentEpic = (task instanceof Subtask subtask) ? epicMap.get(subtask.getParentEpicId()) : null;
+            if (taskMap.containsKey(id) || subtaskMap.containsKey(id) || epicMap.containsKey(id)) {
+                // The task was moved back to memory, so its archived row is obsolete.
+                archive.remove(id);
+            } else if (parentEpic != null) {
+                parentEpic.addSubtaskId(id);
+                getAggregate(parentEpic.getId()).add((Subtask) task);
+            } else if (task instanceof Subtask) {
+                archive.remove(id);
+            }
+        }
+        // Epics only mirror the time of their subtasks, so they never occupy the scheduler themselves.
+        for (Epic epic : epicMap.values()) {
+            getAggregate(epic.getId()).applyTo(epic);
+        }
+        prioritizedTasks.putAll(prioritized);
+
+        // Ids of loaded tasks must never be handed out again.
+        idGenerator.advanceTo(maxId);
     }
 }
\ No newline at end of file
@@ -73,9 +73,13 @@ public class InMemoryHistoryManager implements HistoryManager {
     private void removeNode(Node node) {
         if (node.prev != null) {
             node.prev.next = node.next;
+        } else {
+            head = node.next;
         }
         if (node.next != null) {
             node.next.prev = node.prev;
+        } else {
+            tail = node.prev;
         }
         node.next = node.prev = null;
     }
@@ -2,52 +2,100 @@ package ru.yandex.practicum.tracker.managers;
 
 import ru.yandex.practicum.tracker.exceptions.TasksIntersectException;
 import ru.yandex.practicum.tracker.models.*;
+import ru.yandex.practicum.tracker.storage.ArchivePolicy;
+import ru.yandex.practicum.tracker.storage.TaskArchive;
+import ru.yandex.practicum.tracker.utils.IdGenerator;
 import ru.yandex.practicum.tracker.utils.TaskScheduler;
 import ru.yandex.practicum.tracker.utils.TaskSerializer;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class InMemoryTaskManager implements TaskManager {
-    private static long nextId = 1;
-
     protected final Map<Long, Task> taskMap;
     protected final Map<Long, Subtask> subtaskMap;
     protected final Map<Long, Epic> epicMap;
 
-    protected final Set<Task> prioritizedTasks;
+    protected final Map<Long, EpicAggregate> epicAggregates;
+    protected final PrioritizedTaskIndex prioritizedTasks;
     protected final TaskScheduler scheduler;
+    private final ScheduleBookings bookings;
+    protected final IdGenerator idGenerator;
+    // Null unless old tasks are moved out of memory.
+    protected final TaskArchive archive;
 
     private final HistoryManager historyManager;
+    private final VersionCounters versions;
+    private final ArchivePolicy archivePolicy;
 
     public InMemoryTaskManager(HistoryManager historyManager) {
+        this(historyManager, Managers.getDefaultScheduler());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager, TaskScheduler scheduler) {
+        this(historyManager, scheduler, Managers.getDefaultIdGenerator());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator) {
+        this(historyManager, scheduler, idGenerator, new HashMap<>(), new HashMap<>(), null, null);
+    }
+
+    // Tasks and subtasks are never changed in place, only replaced, so subclasses may keep them in maps
+    // which don't hold all of them in memory. Epics are changed in place and always stay in memory.
+    // Tasks and subtasks matching the archive policy are moved to the archive by archiveTasks(). Archived tasks
+    // are still returned by the getters and may be changed, but they no longer book their time and aren't
+    // listed by priority. Both are null if nothing is archived.
+    protected InMemoryTaskManager(HistoryManager historyManager, TaskScheduler scheduler, IdGenerator idGenerator,
+                                  Map<Long, Task> taskMap, Map<Long, Subtask> subtaskMap, TaskArchive archive,
+                                  ArchivePolicy archivePolicy) {
         Objects.requireNonNull(historyManager, "History manager can't be null");
+        Objects.requireNonNull(scheduler, "Scheduler can't be null");
+        Objects.requireNonNull(idGenerator, "Id generator can't be null");
         this.historyManager = historyManager;
-        taskMap = new HashMap<>();
-        subtaskMap = new HashMap<>();
+        this.scheduler = scheduler;
+        bookings = new ScheduleBookings(scheduler);
+        this.idGenerator = idGenerator;
+        this.taskMap = Objects.requireNonNull(taskMap, "Task map can't be null");
+        this.subtaskMap = Objects.requireNonNull(subtaskMap, "Subtask map can't be null");
+        if ((archive == null) != (archivePolicy == null)) {
+            throw new IllegalArgumentException("Archive and archive policy must be given together");
+        }
+        if ((archive != null) && (archive.size() > 0)) {
+            throw new IllegalArgumentException("Archive must be empty");
+        }
+        this.archive = archive;
+        this.archivePolicy = archivePolicy;
         epicMap = new HashMap<>();
+        epicAggregates = new HashMap<>();
+        versions = new VersionCounters();
 
-        prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
-        LocalDateTime now = LocalDateTime.now();
-        scheduler = new TaskScheduler(now, now.plusYears(1));
+        prioritizedTasks = new PrioritizedTaskIndex(this::findTask);
+    }
+
+    // Moves all tasks and subtasks matching the archive policy to the archive and returns their number.
+    public int archiveTasks() {
+        return moveToArchive().size();
     }
 
     @Override
     public List<Task> getTaskList() {
-        return taskMap.values().stream().map(Task::new).toList();
+        return Stream.concat(taskMap.values().stream().map(Task::new), getArchived(Task.class).stream()).toList();
     }
 
     @Override
     public List<Subtask> getSubtaskList() {
-        return subtaskMap.values().stream().map(Subtask::new).toList();
+        return Stream.concat(subtaskMap.values().stream().map(Subtask::new), getArchived(Subtask.class).stream())
+                .toList();
     }
 
     @Override
     public List<Subtask> getSubtaskListForEpic(long epicId) {
-        if (!epicMap.containsKey(epicId)) return Collections.emptyList();
-        return subtaskMap.values().stream()
-                .filter(s -> s.getParentEpicId() == epicId)
+        EpicAggregate aggregate = epicAggregates.get(epicId);
+        if ((aggregate == null) || !epicMap.containsKey(epicId)) return Collections.emptyList();
+        return aggregate.getSubtaskIds().stream()
+                .map(this::findSubtask)
                 .map(Subtask::new).toList();
     }
 
@@ -63,15 +111,24 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return prioritizedTasks.stream().map(TaskSerializer::copyTask).toList();
+        return getPrioritizedTasks(null, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return prioritizedTasks.get(from, to, limit).stream().map(TaskSerializer::copyTask).toList();
     }
 
     @Override
     public Optional<Task> getTaskById(long id) {
         Task task = taskMap.get(id);
+        if (task == null) {
+            task = findArchived(id, Task.class);
+        }
         if (task != null) {
             Task copy = new Task(task);
             historyManager.add(copy);
+            versions.increment(VersionScope.HISTORY);
             return Optional.of(copy);
         }
         return Optional.empty();
@@ -79,10 +136,11 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Optional<Subtask> getSubtaskById(long id) {
-        Subtask subtask = subtaskMap.get(id);
+        Subtask subtask = findSubtask(id);
         if (subtask != null) {
             Subtask copy = new Subtask(subtask);
             historyManager.add(copy);
+            versions.increment(VersionScope.HISTORY);
             return Optional.of(copy);
         }
         return Optional.empty();
@@ -94,6 +152,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic != null) {
             Epic copy = new Epic(epic);
             historyManager.add(copy);
+            versions.increment(VersionScope.HISTORY);
             return Optional.of(copy);
         }
         return Optional.empty();
@@ -109,6 +168,12 @@ public class InMemoryTaskManager implements TaskManager {
         }
     }
 
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        return scheduler.findEarliestSlot(duration, notBefore, notAfter);
+    }
+
     @Override
     public long createTask(Task task) {
         Objects.requireNonNull(task, "Task can't be null");
@@ -117,11 +182,12 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         Task copy = new Task(task);
-        copy.setId(getNextId());
+        copy.setId(idGenerator.nextId());
 
-        scheduleTask(copy, taskMap, false);
+        bookings.book(copy);
         taskMap.put(copy.getId(), copy);
         addToPriorityList(copy);
+        versions.increment(VersionScope.TASKS);
 
         return copy.getId();
     }
@@ -135,14 +201,15 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         Subtask copy = new Subtask(subtask);
-        copy.setId(getNextId());
+        copy.setId(idGenerator.nextId());
 
-        scheduleTask(copy, subtaskMap, false);
+        bookings.book(copy);
         subtaskMap.put(copy.getId(), copy);
         parentEpic.addSubtaskId(copy.getId());
-        changeEpicStatus(parentEpic);
-        setStartTimeAndDurationForEpic(parentEpic);
+        getAggregate(parentEpic.getId()).add(copy);
+        refreshEpic(parentEpic);
         addToPriorityList(copy);
+        versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS);
 
         return copy.getId();
     }
@@ -151,13 +218,13 @@ public class InMemoryTaskManager implements TaskManager {
     public long createEpic(Epic epic) {
         Objects.requireNonNull(epic, "Epic can't be null");
         Epic copy = new Epic(epic);
-        copy.setId(getNextId());
+        copy.setId(idGenerator.nextId());
 
         epicMap.put(copy.getId(), copy);
-        removeAllUnusedSubtaskIds(copy);
-        changeEpicStatus(copy);
-        setStartTimeAndDurationForEpic(copy);
+        syncSubtaskIds(copy);
+        refreshEpic(copy);
         addToPriorityList(copy);
+        versions.increment(VersionScope.EPICS);
 
         return copy.getId();
     }
@@ -169,12 +236,14 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Task must be only Task type");
         }
 
-        if (taskMap.containsKey(task.getId())) {
+        if (taskMap.containsKey(task.getId()) || isArchived(task.getId(), Task.class)) {
             Task copy = new Task(task);
 
-            scheduleTask(copy, taskMap, true);
+            bookings.book(copy);
             taskMap.put(copy.getId(), copy);
             addToPriorityList(copy);
+            releaseFromArchive(copy.getId());
+            versions.increment(VersionScope.TASKS);
         }
     }
 
@@ -189,23 +258,27 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Subtask cannot be its own epic");
         }
 
-        Subtask innerSubtask = subtaskMap.get(subtask.getId());
+        Subtask innerSubtask = findSubtask(subtask.getId());
         if (innerSubtask != null) {
-            if (innerSubtask.getParentEpicId() != subtask.getParentEpicId()) {
-                Epic oldParentEpic = epicMap.get(innerSubtask.getParentEpicId());
-                if (oldParentEpic != null) {
-                    oldParentEpic.removeSubtaskId(innerSubtask.getId());
-                }
-            }
-
             Subtask copy = new Subtask(subtask);
 
-            scheduleTask(copy, subtaskMap, true);
+            bookings.book(copy);
             subtaskMap.put(copy.getId(), copy);
+
+            Epic oldParentEpic = epicMap.get(innerSubtask.getParentEpicId());
+            if (oldParentEpic != null) {
+                getAggregate(oldParentEpic.getId()).remove(innerSubtask);
+                if (oldParentEpic != parentEpic) {
+                    oldParentEpic.removeSubtaskId(innerSubtask.getId());
+                    refreshEpic(oldParentEpic);
+                }
+            }
             parentEpic.addSubtaskId(copy.getId());
-            changeEpicStatus(parentEpic);
-            setStartTimeAndDurationForEpic(parentEpic);
+            getAggregate(parentEpic.getId()).add(copy);
+            refreshEpic(parentEpic);
             addToPriorityList(copy);
+            releaseFromArchive(copy.getId());
+            versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS);
         }
     }
 
@@ -216,10 +289,10 @@ public class InMemoryTaskManager implements TaskManager {
             Epic copy = new Epic(epic);
 
             epicMap.put(copy.getId(), copy);
-            removeAllUnusedSubtaskIds(copy);
-            changeEpicStatus(copy);
-            setStartTimeAndDurationForEpic(copy);
+            syncSubtaskIds(copy);
+            refreshEpic(copy);
             addToPriorityList(copy);
+            versions.increment(VersionScope.EPICS);
         }
     }
 
@@ -227,9 +300,15 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeTask(long id) {
         Task removedTask = taskMap.remove(id);
         if (removedTask != null) {
-            scheduler.removeSchedule(removedTask);
+            bookings.release(id);
+            prioritizedTasks.remove(id);
+        } else {
+            removedTask = findArchived(id, Task.class);
+        }
+        if (removedTask != null) {
+            removeFromArchive(id);
             historyManager.remove(id);
-            prioritizedTasks.removeIf(t -> t.getId() == id);
+            versions.increment(VersionScope.TASKS, VersionScope.HISTORY);
         }
     }
 
@@ -237,147 +316,199 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeSubtask(long id) {
         Subtask removedSubtask = subtaskMap.remove(id);
         if (removedSubtask != null) {
-            scheduler.removeSchedule(removedSubtask);
+            bookings.release(id);
+        } else {
+            removedSubtask = findArchived(id, Subtask.class);
+        }
+        if (removedSubtask != null) {
+            removeFromArchive(id);
             Epic parentEpic = epicMap.get(removedSubtask.getParentEpicId());
             if (parentEpic != null) {
                 parentEpic.removeSubtaskId(id);
-                changeEpicStatus(parentEpic);
-                setStartTimeAndDurationForEpic(parentEpic);
+                getAggregate(parentEpic.getId()).remove(removedSubtask);
+                refreshEpic(parentEpic);
             }
+            versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
         }
         historyManager.remove(id);
-        prioritizedTasks.removeIf(t -> t.getId() == id);
+        prioritizedTasks.remove(id);
     }
 
     @Override
     public void removeEpic(long id) {
         Epic removedEpic = epicMap.remove(id);
-        if (removedEpic != null) {
-            removedEpic.getSubtaskIds().forEach(subtaskId -> {
-                Subtask subtask = subtaskMap.get(subtaskId);
+        EpicAggregate aggregate = epicAggregates.remove(id);
+        if ((removedEpic != null) && (aggregate != null)) {
+            aggregate.getSubtaskIds().forEach(subtaskId -> {
+                Subtask subtask = subtaskMap.remove(subtaskId);
                 if (subtask != null) {
-                    scheduler.removeSchedule(subtask);
+                    bookings.release(subtaskId);
                 }
-                subtaskMap.remove(subtaskId);
+                removeFromArchive(subtaskId);
+                prioritizedTasks.remove(subtaskId);
                 historyManager.remove(subtaskId);
             });
         }
         historyManager.remove(id);
-        prioritizedTasks.removeIf(t -> t.getId() == id);
+        prioritizedTasks.remove(id);
+        if (removedEpic != null) {
+            versions.increment(VersionScope.EPICS, VersionScope.SUBTASKS, VersionScope.HISTORY);
+        }
     }
 
     @Override
     public void removeAllTasks() {
         taskMap.forEach((id, task) -> {
             historyManager.remove(id);
-            prioritizedTasks.remove(task);
-            scheduler.removeSchedule(task);
+            prioritizedTasks.remove(id);
+            bookings.release(id);
         });
         taskMap.clear();
+        removeAllFromArchive(Task.class);
+        versions.increment(VersionScope.TASKS, VersionScope.HISTORY);
     }
 
     @Override
     public void removeAllSubtasks() {
         subtaskMap.forEach((id, subtask) -> {
             historyManager.remove(id);
-            prioritizedTasks.remove(subtask);
-            scheduler.removeSchedule(subtask);
+            prioritizedTasks.remove(id);
+            bookings.release(id);
         });
         subtaskMap.clear();
+        removeAllFromArchive(Subtask.class);
+        epicAggregates.clear();
         Collection<Epic> epics = epicMap.values();
         for (Epic epic : epics) {
             epic.removeAllSubtaskIds();
-            epic.setStatus(Status.NEW);
-            epic.setDuration(Duration.ZERO);
-            epic.setStartTime(null);
+            refreshEpic(epic);
         }
+        versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
     }
 
     @Override
     public void removeAllEpics() {
         subtaskMap.forEach((id, subtask) -> {
             historyManager.remove(id);
-            prioritizedTasks.remove(subtask);
-            scheduler.removeSchedule(subtask);
+            prioritizedTasks.remove(id);
+            bookings.release(id);
         });
         epicMap.forEach((id, epic) -> {
             historyManager.remove(id);
-            prioritizedTasks.remove(epic);
-            scheduler.removeSchedule(epic);
+            prioritizedTasks.remove(id);
         });
         epicMap.clear();
         subtaskMap.clear();
+        removeAllFromArchive(Subtask.class);
+        epicAggregates.clear();
+        versions.increment(VersionScope.SUBTASKS, VersionScope.EPICS, VersionScope.HISTORY);
     }
 
-    private static synchronized long getNextId() {
-        return nextId++;
+    // Archived tasks leave the scheduler and the priority index, while subtasks stay in the aggregates
+    // of their epics. Rows are written to the archive first, so a failed write leaves the tasks in memory.
+    protected List<Long> moveToArchive() {
+        if (archive == null) {
+            return List.of();
+        }
+        List<Task> archived = new ArrayList<>();
+        taskMap.values().stream().filter(archivePolicy::shouldArchive).forEach(archived::add);
+        subtaskMap.values().stream().filter(archivePolicy::shouldArchive).forEach(archived::add);
+        archive.add(archived);
+
+        List<Long> ids = new ArrayList<>(archived.size());
+        for (Task task : archived) {
+            if (task instanceof Subtask) {
+                subtaskMap.remove(task.getId());
+            } else {
+                taskMap.remove(task.getId());
+            }
+            bookings.release(task.getId());
+            prioritizedTasks.remove(task.getId());
+            ids.add(task.getId());
+        }
+        // Archived tasks are still listed, but no longer by priority.
+        if (!ids.isEmpty()) {
+            versions.increment(VersionScope.ALL);
+        }
+        return ids;
     }
 
-    private static boolean checkSubtasksStatus(List<Subtask> subtaskList, Status status) {
-        return subtaskList.stream().allMatch(s -> s.getStatus().equals(status));
+    @Override
+    public long getVersion(VersionScope scope) {
+        return versions.get(Objects.requireNonNull(scope, "Scope can't be null"));
     }
 
-    private void changeEpicStatus(Epic epic) {
-        List<Subtask> subtaskList = subtaskMap.values().stream()
-                .filter(s -> s.getParentEpicId() == epic.getId()).toList();
-        if (subtaskList.isEmpty() || checkSubtasksStatus(subtaskList, Status.NEW)) {
-            epic.setStatus(Status.NEW);
-        } else if (checkSubtasksStatus(subtaskList, Status.DONE)) {
-            epic.setStatus(Status.DONE);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
-        }
+    protected EpicAggregate getAggregate(long epicId) {
+        return epicAggregates.computeIfAbsent(epicId, id -> new EpicAggregate());
     }
 
-    private void setStartTimeAndDurationForEpic(Epic epic) {
-        Duration duration = Duration.ZERO;
-        LocalDateTime startTime = null;
+    private void refreshEpic(Epic epic) {
+        getAggregate(epic.getId()).applyTo(epic);
+        // The start time of the epic may have changed in place.
+        addToPriorityList(epic);
+    }
 
-        for (Subtask subtask : getSubtaskListForEpic(epic.getId())) {
-            Duration subtaskDuration = subtask.getDuration();
-            LocalDateTime subtaskStartTime = subtask.getStartTime();
+    // Subtask ids coming from outside can't be trusted, the index is the source of truth.
+    private void syncSubtaskIds(Epic epic) {
+        epic.removeAllSubtaskIds();
+        getAggregate(epic.getId()).getSubtaskIds().forEach(epic::addSubtaskId);
+    }
 
-            if ((subtaskStartTime != null) && (subtaskDuration != null)
-                    && scheduler.isInRange(subtaskStartTime) && scheduler.isInRange(subtask.getEndTime())) {
-                if ((startTime == null) || subtaskStartTime.isBefore(startTime)) {
-                    startTime = subtaskStartTime;
-                }
-                duration = duration.plus(subtaskDuration);
-            }
+    // Tasks of an edited file may overlap, those which don't fit are kept but not booked.
+    protected void bookLoaded(Task task) {
+        try {
+            bookings.book(task);
+        } catch (TasksIntersectException exception) {
+            // The task keeps its time, it just doesn't hold it in the scheduler.
         }
+    }
 
-        epic.setStartTime(startTime);
-        epic.setDuration(duration);
+    private void addToPriorityList(Task task) {
+        prioritizedTasks.put(task);
     }
 
-    private void removeAllUnusedSubtaskIds(Epic epic) {
-        epic.getSubtaskIds().forEach(id -> {
-            if (!subtaskMap.containsKey(id)) {
-                epic.removeSubtaskId(id);
-            }
-        });
+    private Subtask findSubtask(long id) {
+        Subtask subtask = subtaskMap.get(id);
+        return (subtask != null) ? subtask : findArchived(id, Subtask.class);
     }
 
-    private <T extends Task> void scheduleTask(T task, Map<Long, T> map, boolean removeIfExists) {
-        if ((task.getStartTime() == null) || (task.getDuration() == null)) {
-            return;
+    // Archived task of exactly the given type, null if there is none.
+    private <T extends Task> T findArchived(long id, Class<T> type) {
+        return isArchived(id, type) ? type.cast(archive.get(id)) : null;
+    }
+
+    private boolean isArchived(long id, Class<? extends Task> type) {
+        return (archive != null) && archive.contains(id, type);
+    }
+
+    private <T extends Task> List<T> getArchived(Class<T> type) {
+        return (archive != null) ? archive.getAll(type) : List.of();
+    }
+
+    // A task changed after it was archived is kept in memory again.
+    private void releaseFromArchive(long id) {
+        if (archive != null) {
+            archive.release(id);
         }
-        if (scheduler.isInRange(task.getStartTime()) && scheduler.isInRange(task.getEndTime())) {
-            T currentTask = map.get(task.getId());
-            if (removeIfExists && (currentTask != null)) {
-                scheduler.removeSchedule(currentTask);
-            }
-            if (!scheduler.addSchedule(task)) {
-                throw new TasksIntersectException("Can't schedule task because it intersects another one");
-            }
+    }
+
+    private void removeFromArchive(long id) {
+        if (archive != null) {
+            archive.remove(id);
         }
     }
 
-    private void addToPriorityList(Task task) {
-        if ((task.getStartTime() != null) && scheduler.isInRange(task.getStartTime())) {
-            // Remove if already exists.
-            prioritizedTasks.remove(task);
-            prioritizedTasks.add(task);
+    private void removeAllFromArchive(Class<? extends Task> type) {
+        if (archive != null) {
+            archive.removeAll(type).forEach(historyManager::remove);
+        }
+    }
+
+    private Task findTask(long id) {
+        Task task = taskMap.get(id);
+        if (task == null) {
+            task = subtaskMap.get(id);
         }
+        return (task != null) ? task : epicMap.get(id);
     }
 }
\ No newline at end of file
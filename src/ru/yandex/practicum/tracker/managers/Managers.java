@@ -1,5 +1,13 @@
 package ru.yandex.practicum.tracker.managers;
 
+import ru.yandex.practicum.tracker.utils.AtomicIdGenerator;
+import ru.yandex.practicum.tracker.utils.IdGenerator;
+import ru.yandex.practicum.tracker.utils.SegmentedTaskScheduler;
+import ru.yandex.practicum.tracker.utils.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Period;
+
 public final class Managers {
     private Managers() {
     }
@@ -11,4 +19,12 @@ public final class Managers {
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    public static IdGenerator getDefaultIdGenerator() {
+        return new AtomicIdGenerator();
+    }
+
+    public static TaskScheduler getDefaultScheduler() {
+        return new SegmentedTaskScheduler(Clock.systemDefaultZone(), Period.ofYears(1));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongFunction;
+
+// Tasks with a start time ordered by (start time, id). The key is taken when a task is put,
+// so a task changed in place must be put again to move it to its new position. Only keys are
+// kept, tasks are looked up by id when they are listed, so that the index never holds tasks
+// which the manager keeps elsewhere or not in memory at all.
+final class PrioritizedTaskIndex {
+    private record Key(LocalDateTime startTime, long id) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::startTime)
+                .thenComparingLong(Key::id);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final NavigableSet<Key> entries;
+    private final Map<Long, Key> keys;
+    private final LongFunction<Task> lookup;
+
+    PrioritizedTaskIndex(LongFunction<Task> lookup) {
+        this(new TreeSet<>(), new HashMap<>(), lookup);
+    }
+
+    private PrioritizedTaskIndex(NavigableSet<Key> entries, Map<Long, Key> keys, LongFunction<Task> lookup) {
+        this.entries = entries;
+        this.keys = keys;
+        this.lookup = Objects.requireNonNull(lookup, "Lookup can't be null");
+    }
+
+    // Index which can be read while being changed. Changes of the same id must not run concurrently.
+    static PrioritizedTaskIndex concurrent(LongFunction<Task> lookup) {
+        return new PrioritizedTaskIndex(new ConcurrentSkipListSet<>(), new ConcurrentHashMap<>(), lookup);
+    }
+
+    void put(Task task) {
+        remove(task.getId());
+        if (task.getStartTime() != null) {
+            Key key = new Key(task.getStartTime(), task.getId());
+            entries.add(key);
+            keys.put(task.getId(), key);
+        }
+    }
+
+    // Puts many tasks at once. The tasks are sorted up front, so that the tree is filled in ascending
+    // order instead of at random positions.
+    void putAll(Collection<? extends Task> tasks) {
+        Task[] sorted = tasks.stream()
+                .filter(task -> task.getStartTime() != null)
+                .toArray(Task[]::new);
+        Arrays.parallelSort(sorted, Comparator.comparing(Task::getStartTime).thenComparingLong(Task::getId));
+        for (Task task : tasks) {
+            if (task.getStartTime() == null) {
+                remove(task.getId());
+            }
+        }
+        for (Task task : sorted) {
+            put(task);
+        }
+    }
+
+    void remove(long id) {
+        Key key = keys.remove(id);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        keys.clear();
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    // Tasks starting in [from, to) in priority order, at most limit of them. Null bounds are open.
+    List<Task> get(LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit can't be negative");
+        }
+        if ((from != null) && (to != null) && to.isBefore(from)) {
+            throw new IllegalArgumentException("End of the range can't be before its start");
+        }
+
+        NavigableSet<Key> range = entries;
+        if (from != null) {
+            range = range.tailSet(new Key(from, Long.MIN_VALUE), true);
+        }
+        if (to != null) {
+            range = range.headSet(new Key(to, Long.MIN_VALUE), false);
+        }
+
+        List<Task> tasks = new ArrayList<>(Math.min(limit, 64));
+        for (Key key : range) {
+            if (tasks.size() >= limit) {
+                break;
+            }
+            // A task changed or removed concurrently is skipped, its new key is listed instead.
+            Task task = lookup.apply(key.id());
+            if ((task != null) && key.startTime().equals(task.getStartTime())) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
\ No newline at end of file
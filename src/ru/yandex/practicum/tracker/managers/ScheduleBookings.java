@@ -0,0 +1,55 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.exceptions.TasksIntersectException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Time booked by tasks in a scheduler. The booked version of every task is kept, so its time is freed by
+// the task itself and not by the range of the scheduler, which moves with the clock: a task which has
+// already started still gives back the rest of its time. The range only decides whether a task is booked.
+// Not thread-safe.
+final class ScheduleBookings {
+    private final TaskScheduler scheduler;
+    private final Map<Long, Task> booked;
+
+    ScheduleBookings(TaskScheduler scheduler) {
+        this.scheduler = Objects.requireNonNull(scheduler, "Scheduler can't be null");
+        booked = new HashMap<>();
+    }
+
+    // Books the task in place of its current version. If the time is taken, the current version stays booked.
+    void book(Task task) {
+        Task current = booked.remove(task.getId());
+        if (current != null) {
+            scheduler.removeSchedule(current);
+        }
+        if (!isSchedulable(task)) {
+            return;
+        }
+        if (!scheduler.addSchedule(task)) {
+            if (current != null) {
+                scheduler.addSchedule(current);
+                booked.put(current.getId(), current);
+            }
+            throw new TasksIntersectException("Can't schedule task because it intersects another one");
+        }
+        booked.put(task.getId(), task);
+    }
+
+    // Tasks which were never booked must not free the time of the ones that were.
+    void release(long id) {
+        Task task = booked.remove(id);
+        if (task != null) {
+            scheduler.removeSchedule(task);
+        }
+    }
+
+    private boolean isSchedulable(Task task) {
+        return (task.getStartTime() != null) && (task.getDuration() != null)
+                && scheduler.isInRange(task.getStartTime()) && scheduler.isInRange(task.getEndTime());
+    }
+}
\ No newline at end of file
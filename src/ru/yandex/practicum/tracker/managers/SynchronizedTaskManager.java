@@ -0,0 +1,181 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Makes a task manager which isn't thread-safe shareable between threads. Listings only read the maps and
+// run together under the read lock. Everything else is serialized under the write lock, including lookups
+// by id, which add to the history, and scheduler queries, which may move the scheduling horizon.
+public class SynchronizedTaskManager implements TaskManager {
+    private final TaskManager delegate;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public SynchronizedTaskManager(TaskManager delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Task manager can't be null");
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
+    }
+
+    @Override
+    public List<Task> getTaskList() {
+        return read(delegate::getTaskList);
+    }
+
+    @Override
+    public List<Subtask> getSubtaskList() {
+        return read(delegate::getSubtaskList);
+    }
+
+    @Override
+    public List<Subtask> getSubtaskListForEpic(long epicId) {
+        return read(() -> delegate.getSubtaskListForEpic(epicId));
+    }
+
+    @Override
+    public List<Epic> getEpicList() {
+        return read(delegate::getEpicList);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(delegate::getHistory);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(delegate::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return read(() -> delegate.getPrioritizedTasks(from, to, limit));
+    }
+
+    @Override
+    public Optional<Task> getTaskById(long id) {
+        return write(() -> delegate.getTaskById(id));
+    }
+
+    @Override
+    public Optional<Subtask> getSubtaskById(long id) {
+        return write(() -> delegate.getSubtaskById(id));
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(long id) {
+        return write(() -> delegate.getEpicById(id));
+    }
+
+    @Override
+    public boolean checkIntersection(Task task) {
+        return write(() -> delegate.checkIntersection(task));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        return write(() -> delegate.findEarliestSlot(duration, notBefore, notAfter));
+    }
+
+    @Override
+    public long createTask(Task task) {
+        return write(() -> delegate.createTask(task));
+    }
+
+    @Override
+    public long createSubtask(Subtask subtask) {
+        return write(() -> delegate.createSubtask(subtask));
+    }
+
+    @Override
+    public long createEpic(Epic epic) {
+        return write(() -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        modify(() -> delegate.updateTask(task));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        modify(() -> delegate.updateSubtask(subtask));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        modify(() -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public void removeTask(long id) {
+        modify(() -> delegate.removeTask(id));
+    }
+
+    @Override
+    public void removeSubtask(long id) {
+        modify(() -> delegate.removeSubtask(id));
+    }
+
+    @Override
+    public void removeEpic(long id) {
+        modify(() -> delegate.removeEpic(id));
+    }
+
+    @Override
+    public void removeAllTasks() {
+        modify(delegate::removeAllTasks);
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        modify(delegate::removeAllSubtasks);
+    }
+
+    @Override
+    public void removeAllEpics() {
+        modify(delegate::removeAllEpics);
+    }
+
+    @Override
+    public long getVersion(VersionScope scope) {
+        return read(() -> delegate.getVersion(scope));
+    }
+
+    private <R> R read(Supplier<R> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <R> R write(Supplier<R> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void modify(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ import ru.yandex.practicum.tracker.models.Epic;
 import ru.yandex.practicum.tracker.models.Subtask;
 import ru.yandex.practicum.tracker.models.Task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,9 @@ public interface TaskManager {
 
     List<Task> getPrioritizedTasks();
 
+    // Tasks starting in [from, to) in priority order, at most limit of them. Null bounds are open.
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit);
+
     Optional<Task> getTaskById(long id);
 
     Optional<Subtask> getSubtaskById(long id);
@@ -28,6 +33,8 @@ public interface TaskManager {
 
     boolean checkIntersection(Task task);
 
+    Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter);
+
     long createTask(Task task);
 
     long createSubtask(Subtask subtask);
@@ -51,4 +58,8 @@ public interface TaskManager {
     void removeAllSubtasks();
 
     void removeAllEpics();
+
+    // Grows whenever the data of the scope changes, so that clients can tell whether it has changed since they
+    // last read it. Versions start anew with every manager.
+    long getVersion(VersionScope scope);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.tracker.managers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Version counters of the scopes of one task manager. A counter is incremented after its data has been
+// changed, so a version read before the data never claims a newer state than the one which is read.
+final class VersionCounters {
+    private final AtomicLongArray versions = new AtomicLongArray(VersionScope.values().length);
+
+    long get(VersionScope scope) {
+        return versions.get(scope.ordinal());
+    }
+
+    // ALL is incremented as well, unless only the history has changed.
+    void increment(VersionScope... scopes) {
+        boolean dataChanged = false;
+        for (VersionScope scope : scopes) {
+            if (scope != VersionScope.ALL) {
+                versions.incrementAndGet(scope.ordinal());
+            }
+            dataChanged |= (scope != VersionScope.HISTORY);
+        }
+        if (dataChanged) {
+            versions.incrementAndGet(VersionScope.ALL.ordinal());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.tracker.managers;
+
+// Data of a task manager which is versioned separately, see TaskManager.getVersion.
+public enum VersionScope {
+    TASKS,
+    // Changes of subtasks also change the epics, whose status and time are derived from them.
+    SUBTASKS,
+    EPICS,
+    // Lookups by id are recorded in the history, so it changes without any change of the tasks.
+    HISTORY,
+    // Any change of tasks, subtasks or epics, but not of the history.
+    ALL
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.tracker.models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class TimeSlot {
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    public TimeSlot(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = Objects.requireNonNull(startTime, "Start time can't be null");
+        this.endTime = Objects.requireNonNull(endTime, "End time can't be null");
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Decides which tasks and subtasks are moved out of memory into the archive. Epics are never archived.
+@FunctionalInterface
+public interface ArchivePolicy {
+    boolean shouldArchive(Task task);
+
+    // Done tasks which ended longer than the given age ago. Done tasks without time can't age,
+    // so they are archived right away.
+    static ArchivePolicy doneOlderThan(Duration age, Clock clock) {
+        Objects.requireNonNull(age, "Age can't be null");
+        Objects.requireNonNull(clock, "Clock can't be null");
+        if (age.isNegative()) {
+            throw new IllegalArgumentException("Age can't be negative");
+        }
+        return task -> {
+            if (task.getStatus() != Status.DONE) {
+                return false;
+            }
+            LocalDateTime endTime = task.getEndTime();
+            return (endTime == null) || endTime.plus(age).isBefore(LocalDateTime.now(clock));
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// Binary snapshot of tasks. All numbers are big-endian:
+//
+//   magic      4 bytes "TSKB"
+//   version    int
+//   strings    int count, then per string: int length, UTF-8 bytes
+//   tasks      int count, then per task a record of RECORD_SIZE bytes:
+//              byte type, byte status, long id, int name, int description (indexes in the string table),
+//              long start epoch minute, byte second, int nano, long duration minutes, long parent epic id
+//
+// Missing values are stored as NONE (indexes, status) or NO_VALUE (times, duration).
+public final class BinarySnapshot {
+    static final int RECORD_SIZE = 1 + 1 + 8 + 4 + 4 + 8 + 1 + 4 + 8 + 8;
+    static final int HEADER_SIZE = 4 + 4;
+    static final byte TASK = 0;
+    static final byte SUBTASK = 1;
+    static final byte EPIC = 2;
+
+    private static final byte[] MAGIC = {'T', 'S', 'K', 'B'};
+    private static final int VERSION = 1;
+    private static final int NONE = -1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+
+    private BinarySnapshot() {
+    }
+
+    public static boolean isBinary(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+            while (header.hasRemaining() && (channel.read(header) >= 0)) {
+                // Read until the header is full or the file ends.
+            }
+            return isBinary(header.array(), header.position());
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    public static boolean isBinary(byte[] head, int length) {
+        return (length >= MAGIC.length) && Arrays.equals(head, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    public static byte[] write(Collection<? extends Task> tasks) {
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int stringBytes = 0;
+        for (Task task : tasks) {
+            for (String value : new String[]{task.getName(), task.getDescription()}) {
+                if ((value != null) && !stringIndexes.containsKey(value)) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    stringIndexes.put(value, strings.size());
+                    strings.add(bytes);
+                    stringBytes += Integer.BYTES + bytes.length;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 3 * Integer.BYTES + stringBytes
+                + tasks.size() * RECORD_SIZE);
+        buffer.put(MAGIC).putInt(VERSION);
+        buffer.putInt(strings.size());
+        for (byte[] bytes : strings) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+
+        buffer.putInt(tasks.size());
+        for (Task task : tasks) {
+            LocalDateTime startTime = task.getStartTime();
+            long epochSecond = (startTime != null) ? startTime.toEpochSecond(ZoneOffset.UTC) : 0;
+
+            buffer.put(typeOf(task))
+                    .put((task.getStatus() != null) ? (byte) task.getStatus().ordinal() : NONE)
+                    .putLong(task.getId())
+                    .putInt((task.getName() != null) ? stringIndexes.get(task.getName()) : NONE)
+                    .putInt((task.getDescription() != null) ? stringIndexes.get(task.getDescription()) : NONE)
+                    .putLong((startTime != null) ? Math.floorDiv(epochSecond, 60) : NO_VALUE)
+                    .put((byte) Math.floorMod(epochSecond, 60))
+                    .putInt((startTime != null) ? startTime.getNano() : 0)
+                    .putLong((task.getDuration() != null) ? task.getDuration().toMinutes() : NO_VALUE)
+                    .putLong((task instanceof Subtask subtask) ? subtask.getParentEpicId() : 0);
+        }
+        return buffer.array();
+    }
+
+    public static List<Task> read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot load data from file, reason: " + exception.getMessage());
+        }
+    }
+
+    public static List<Task> read(ByteBuffer buffer) {
+        try {
+            checkHeader(buffer);
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int count = buffer.getInt();
+            if ((long) count * RECORD_SIZE > buffer.remaining()) {
+                throw new ManagerLoadException("Binary snapshot is truncated");
+            }
+            // Records have a fixed size, so they are decoded in parallel by their offsets.
+            int recordsStart = buffer.position();
+            return IntStream.range(0, count)
+                    .parallel()
+                    .mapToObj(i -> readTask(buffer, recordsStart + i * RECORD_SIZE, index -> strings[index]))
+                    .toList();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException exception) {
+            throw new ManagerLoadException("Binary snapshot is broken");
+        }
+    }
+
+    // Reads the magic and the version, leaving the buffer at the string table.
+    static void checkHeader(ByteBuffer buffer) {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new ManagerLoadException("File is not a binary snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new ManagerLoadException("Unsupported binary snapshot version " + version);
+        }
+    }
+
+    // Uses absolute reads only, so that records can be decoded concurrently from one buffer.
+    // Strings are looked up by their index in the string table.
+    static Task readTask(ByteBuffer buffer, int offset, IntFunction<String> strings) {
+        byte type = buffer.get(offset);
+        byte status = buffer.get(offset + 1);
+        long id = buffer.getLong(offset + 2);
+        int name = buffer.getInt(offset + 10);
+        int description = buffer.getInt(offset + 14);
+        long startMinute = buffer.getLong(offset + 18);
+        byte second = buffer.get(offset + 26);
+        int nano = buffer.getInt(offset + 27);
+        long durationMinutes = buffer.getLong(offset + 31);
+        long parentEpicId = buffer.getLong(offset + 39);
+
+        String nameValue = (name != NONE) ? strings.apply(name) : null;
+        String descriptionValue = (description != NONE) ? strings.apply(description) : null;
+        LocalDateTime startTime = (startMinute != NO_VALUE)
+                ? LocalDateTime.ofEpochSecond(startMinute * 60 + second, nano, ZoneOffset.UTC) : null;
+        Duration duration = (durationMinutes != NO_VALUE) ? Duration.ofMinutes(durationMinutes) : null;
+
+        Task task = switch (type) {
+            case TASK -> new Task(nameValue, descriptionValue, startTime, duration);
+            case SUBTASK -> new Subtask(nameValue, descriptionValue, startTime, duration, parentEpicId);
+            case EPIC -> {
+                Epic epic = new Epic(nameValue, descriptionValue);
+                epic.setStartTime(startTime);
+                epic.setDuration(duration);
+                yield epic;
+            }
+            default -> throw new ManagerLoadException("Binary snapshot has unknown task type " + type);
+        };
+        task.setId(id);
+        task.setStatus((status != NONE) ? STATUSES[status] : null);
+        return task;
+    }
+
+    static byte typeOf(Task task) {
+        if (task instanceof Subtask) {
+            return SUBTASK;
+        } else if (task instanceof Epic) {
+            return EPIC;
+        }
+        return TASK;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Snapshot of any codec compressed in the GZIP format. Only the compressed side is streamed through a
+// buffer of BUFFER_SIZE: the content is written from the rendered bytes, and the decompressed content
+// is read by the codec, so the binary codec holds it as a whole while the text codecs read it by lines.
+public final class CompressedSnapshot {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] MAGIC = {(byte) 0x1f, (byte) 0x8b};
+
+    private CompressedSnapshot() {
+    }
+
+    public static boolean isCompressed(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] head = in.readNBytes(MAGIC.length);
+            return (head.length == MAGIC.length) && (head[0] == MAGIC[0]) && (head[1] == MAGIC[1]);
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    // Writes the content compressed with the given Deflater level, leaving the output open.
+    public static void write(byte[] content, OutputStream out, int level) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+        gzip.write(content);
+        gzip.finish();
+    }
+
+    // The codec of the compressed content is recognized by its first bytes, like the one of a plain file.
+    public static List<Task> read(Path file, TaskCodec codec) throws IOException {
+        try (InputStream in = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE),
+                BUFFER_SIZE)) {
+            in.mark(TaskCodecs.HEAD_SIZE);
+            byte[] head = in.readNBytes(TaskCodecs.HEAD_SIZE);
+            in.reset();
+            return TaskCodecs.detect(head, head.length, codec).read(in);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Reads a CSV snapshot. Large files are cut into chunks at line boundaries, which are mapped and parsed
+// in parallel on the common fork/join pool. Like CsvTaskCodec reading a stream, the title may be left out
+// and empty lines are skipped.
+public final class CsvSnapshot {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 64 << 20;
+    private static final byte LINE_END = '\n';
+
+    private CsvSnapshot() {
+    }
+
+    // Tasks in the order of the file, including repeated ids.
+    public static List<Task> read(Path file, TaskSerializer serializer) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = split(channel);
+            List<List<Task>> chunks = IntStream.range(0, bounds.length - 1)
+                    .parallel()
+                    .mapToObj(i -> parse(channel, bounds[i], bounds[i + 1], i == 0, serializer))
+                    .toList();
+
+            List<Task> tasks = new ArrayList<>(chunks.stream().mapToInt(List::size).sum());
+            chunks.forEach(tasks::addAll);
+            return tasks;
+        } catch (IOException | UncheckedIOException exception) {
+            throw new ManagerLoadException("Cannot load data from file, reason: " + exception.getMessage());
+        }
+    }
+
+    // Start offsets of all chunks followed by the size of the file. Every chunk but the first
+    // starts right after a line end, so UTF-8 characters are never cut.
+    private static long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size / (4L * parallelism) + 1));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = chunkSize;
+        while (position < size) {
+            long lineStart = nextLineStart(channel, position, size);
+            if (lineStart >= size) {
+                break;
+            }
+            bounds.add(lineStart);
+            position = lineStart + chunkSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_END) {
+                    return position + i + 1;
+                }
+            }
+            position += Math.max(read, 0);
+        }
+        return size;
+    }
+
+    private static List<Task> parse(FileChannel channel, long start, long end, boolean firstChunk,
+                                    TaskSerializer serializer) {
+        String content;
+        try {
+            content = StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start))
+                    .toString();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        String title = serializer.getTitle();
+        int lineStart = 0;
+        boolean firstLine = firstChunk;
+        while (lineStart < content.length()) {
+            int lineEnd = content.indexOf(LINE_END, lineStart);
+            if (lineEnd < 0) {
+                lineEnd = content.length();
+            }
+            int valueEnd = ((lineEnd > lineStart) && (content.charAt(lineEnd - 1) == '\r')) ? lineEnd - 1 : lineEnd;
+            boolean isTitle = firstLine && (valueEnd - lineStart == title.length())
+                    && content.startsWith(title, lineStart);
+            if (!isTitle && (valueEnd > lineStart)) {
+                tasks.add(serializer.fromString(content, lineStart, valueEnd));
+            }
+            firstLine = false;
+            lineStart = lineEnd + 1;
+        }
+        return tasks;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.tracker.storage;
+
+public enum Durability {
+    // Written data may stay in process buffers until the next flush or close.
+    NONE,
+    // Every flush hands written data over to the operating system.
+    FLUSH,
+    // Every flush waits until written data reaches the disk.
+    FSYNC
+}
\ No newline at end of file
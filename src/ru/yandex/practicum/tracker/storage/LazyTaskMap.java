@@ -0,0 +1,212 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.util.*;
+
+// Map of tasks which keeps only changed tasks in memory. The others are read from a snapshot
+// through its index when they are needed, and the recently read ones are cached. Values must
+// never be changed in place, because a cached value may be dropped and read from the file again.
+// Like a HashMap, the map must be guarded by its owner while being iterated and changed.
+public final class LazyTaskMap<T extends Task> extends AbstractMap<Long, T> {
+    private final Class<T> type;
+    private final Map<Long, T> changed;
+    // Ids of the index which are removed or replaced by a changed task.
+    private final Set<Long> hidden;
+    private final Map<Long, T> cache;
+    private TaskFileIndex index;
+    private int storedCount;
+
+    public LazyTaskMap(Class<T> type, int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.type = Objects.requireNonNull(type, "Type can't be null");
+        changed = new HashMap<>();
+        hidden = new HashSet<>();
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Drops all tasks which are the same as in the snapshot of the index from memory. Tasks of the
+    // index which aren't in the map are treated as removed.
+    public synchronized void attach(TaskFileIndex index, Set<Long> changedIds) {
+        Objects.requireNonNull(index, "Index can't be null");
+        Objects.requireNonNull(changedIds, "Changed ids can't be null");
+        this.index = index;
+        hidden.clear();
+        cache.clear();
+        storedCount = 0;
+        for (int position = 0; position < index.size(); position++) {
+            if (!index.hasType(position, type)) {
+                continue;
+            }
+            long id = index.getId(position);
+            if (!changed.containsKey(id) || changedIds.contains(id)) {
+                hidden.add(id);
+            } else {
+                changed.remove(id);
+                storedCount++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized T get(Object key) {
+        if (!(key instanceof Long id)) {
+            return null;
+        }
+        T task = changed.get(id);
+        if ((task != null) || !isStored(id)) {
+            return task;
+        }
+        task = cache.get(id);
+        if (task == null) {
+            task = type.cast(index.read(id));
+            cache.put(id, task);
+        }
+        return task;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return (key instanceof Long id) && (changed.containsKey(id) || isStored(id));
+    }
+
+    @Override
+    public synchronized T put(Long id, T task) {
+        Objects.requireNonNull(id, "Id can't be null");
+        Objects.requireNonNull(task, "Task can't be null");
+        T previous = get(id);
+        if (isStored(id)) {
+            hide(id);
+        }
+        changed.put(id, task);
+        return previous;
+    }
+
+    @Override
+    public synchronized T remove(Object key) {
+        if (!(key instanceof Long id)) {
+            return null;
+        }
+        T previous = get(id);
+        changed.remove(id);
+        if (isStored(id)) {
+            hide(id);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        changed.clear();
+        cache.clear();
+        hidden.clear();
+        // Nothing is left in the snapshot either.
+        index = null;
+        storedCount = 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return changed.size() + storedCount;
+    }
+
+    // Stored tasks are read one by one while iterating and don't replace the cached ones.
+    @Override
+    public Set<Map.Entry<Long, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Long, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return LazyTaskMap.this.size();
+            }
+        };
+    }
+
+    private boolean isStored(long id) {
+        return (index != null) && !hidden.contains(id) && index.contains(id, type);
+    }
+
+    private void hide(long id) {
+        hidden.add(id);
+        cache.remove(id);
+        storedCount--;
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Long, T>> {
+        private final Iterator<Map.Entry<Long, T>> changedEntries;
+        private final TaskFileIndex storedIndex;
+        private int position;
+        private Map.Entry<Long, T> next;
+        private Long lastId;
+
+        EntryIterator() {
+            synchronized (LazyTaskMap.this) {
+                changedEntries = new ArrayList<>(changed.entrySet()).iterator();
+                storedIndex = index;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = findNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Long, T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Long, T> entry = next;
+            next = null;
+            lastId = entry.getKey();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastId == null) {
+                throw new IllegalStateException();
+            }
+            LazyTaskMap.this.remove(lastId);
+            lastId = null;
+        }
+
+        private Map.Entry<Long, T> findNext() {
+            if (changedEntries.hasNext()) {
+                Map.Entry<Long, T> entry = changedEntries.next();
+                return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+            }
+            synchronized (LazyTaskMap.this) {
+                if ((storedIndex == null) || (storedIndex != index)) {
+                    return null;
+                }
+                while (position < storedIndex.size()) {
+                    int current = position++;
+                    long id = storedIndex.getId(current);
+                    if (storedIndex.hasType(current, type) && !hidden.contains(id)) {
+                        T task = cache.get(id);
+                        if (task == null) {
+                            task = type.cast(storedIndex.read(id));
+                        }
+                        return new AbstractMap.SimpleImmutableEntry<>(id, task);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
\ No newline at end of file
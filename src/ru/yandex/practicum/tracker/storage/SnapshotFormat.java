@@ -0,0 +1,24 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+
+// Built-in formats in which a snapshot of all tasks is written. Any format is recognized on load.
+public enum SnapshotFormat {
+    // Human readable CSV with a title line.
+    CSV(TaskCodecs.CSV),
+    // One JSON object per line.
+    JSON_LINES(TaskCodecs.JSON_LINES),
+    // Compact binary records, see BinarySnapshot.
+    BINARY(TaskCodecs.BINARY);
+
+    private final TaskCodec codec;
+
+    SnapshotFormat(TaskCodec codec) {
+        this.codec = codec;
+    }
+
+    public TaskCodec getCodec() {
+        return codec;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.tracker.storage;
+
+// Renders the tasks of the owner of a task store in its snapshot format. Called under the flush
+// lock of the store, so implementations take the owner's lock themselves.
+public interface SnapshotSource {
+    // All tasks.
+    byte[] render();
+
+    // Tasks with ids in [fromId, toId), or null if there are none.
+    byte[] render(long fromId, long toId);
+
+    // Ids of all tasks.
+    long[] getIds();
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package ru.yandex.practicum.tracker.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live counters of a task store. Times are in nanoseconds.
+public final class StorageMetrics {
+    private final AtomicLong queuedChanges = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedChanges = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong snapshotBytes = new AtomicLong();
+    private final AtomicLong rawSnapshotBytes = new AtomicLong();
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private final AtomicLong lastSnapshotNanos = new AtomicLong();
+    private final AtomicLong totalSnapshotNanos = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong segmentWrites = new AtomicLong();
+    private final AtomicLong lazyReads = new AtomicLong();
+
+    StorageMetrics() {
+    }
+
+    // Changes which have been made but not written yet.
+    public long getQueuedChanges() {
+        return queuedChanges.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushedChanges() {
+        return flushedChanges.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushCount.get();
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos.get();
+    }
+
+    public long getMaxFlushNanos() {
+        return maxFlushNanos.get();
+    }
+
+    public long getAverageFlushNanos() {
+        long count = flushCount.get();
+        return (count == 0) ? 0 : totalFlushNanos.get() / count;
+    }
+
+    // Bytes written to snapshot and segment files, journals excluded.
+    public long getSnapshotBytes() {
+        return snapshotBytes.get();
+    }
+
+    // Bytes of snapshot and segment files before compression.
+    public long getRawSnapshotBytes() {
+        return rawSnapshotBytes.get();
+    }
+
+    // Raw bytes per written byte, 1 without compression.
+    public double getCompressionRatio() {
+        long written = snapshotBytes.get();
+        return (written == 0) ? 1 : (double) rawSnapshotBytes.get() / written;
+    }
+
+    // Times of writing whole snapshots, including rendering and compression of the tasks.
+    public long getLastSnapshotNanos() {
+        return lastSnapshotNanos.get();
+    }
+
+    public long getAverageSnapshotNanos() {
+        long count = snapshotCount.get();
+        return (count == 0) ? 0 : totalSnapshotNanos.get() / count;
+    }
+
+    // Time of loading the manager from its files, 0 for a new one.
+    public long getLoadNanos() {
+        return loadNanos.get();
+    }
+
+    // Segment files written or deleted.
+    public long getSegmentWrites() {
+        return segmentWrites.get();
+    }
+
+    // Tasks read from the file on demand because they weren't kept in memory.
+    public long getLazyReads() {
+        return lazyReads.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StorageMetrics{" +
+                "queuedChanges=" + getQueuedChanges() +
+                ", flushCount=" + getFlushCount() +
+                ", flushedChanges=" + getFlushedChanges() +
+                ", failedFlushCount=" + getFailedFlushCount() +
+                ", lastFlushNanos=" + getLastFlushNanos() +
+                ", maxFlushNanos=" + getMaxFlushNanos() +
+                ", averageFlushNanos=" + getAverageFlushNanos() +
+                ", snapshotBytes=" + getSnapshotBytes() +
+                ", rawSnapshotBytes=" + getRawSnapshotBytes() +
+                ", lastSnapshotNanos=" + getLastSnapshotNanos() +
+                ", averageSnapshotNanos=" + getAverageSnapshotNanos() +
+                ", loadNanos=" + getLoadNanos() +
+                ", segmentWrites=" + getSegmentWrites() +
+                ", lazyReads=" + getLazyReads() +
+                '}';
+    }
+
+    void setQueuedChanges(long changes) {
+        queuedChanges.set(changes);
+    }
+
+    void recordFlush(long changes, long nanos) {
+        flushCount.incrementAndGet();
+        flushedChanges.addAndGet(changes);
+        lastFlushNanos.set(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        totalFlushNanos.addAndGet(nanos);
+    }
+
+    void recordFailure() {
+        failedFlushCount.incrementAndGet();
+    }
+
+    void recordSnapshotBytes(long rawBytes, long writtenBytes) {
+        rawSnapshotBytes.addAndGet(rawBytes);
+        snapshotBytes.addAndGet(writtenBytes);
+    }
+
+    void recordSnapshot(long nanos) {
+        snapshotCount.incrementAndGet();
+        lastSnapshotNanos.set(nanos);
+        totalSnapshotNanos.addAndGet(nanos);
+    }
+
+    void recordLoad(long nanos) {
+        loadNanos.set(nanos);
+    }
+
+    void recordSegmentWrite() {
+        segmentWrites.incrementAndGet();
+    }
+
+    void recordLazyRead() {
+        lazyReads.incrementAndGet();
+    }
+}
\ No newline at end of file
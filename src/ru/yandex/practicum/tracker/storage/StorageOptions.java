@@ -0,0 +1,185 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+// Immutable settings of file based persistence. By default every change rewrites the whole file
+// on the caller's thread.
+public final class StorageOptions {
+    private static final StorageOptions DEFAULTS = new StorageOptions(false, 0, Durability.FLUSH, null, 0,
+            TaskCodecs.CSV, 0, 0, null, 0);
+
+    private final boolean journaled;
+    private final int compactionThreshold;
+    private final Durability durability;
+    private final Duration flushInterval;
+    private final int maxPendingChanges;
+    private final TaskCodec codec;
+    private final int idsPerSegment;
+    private final int lazyCacheSize;
+    private final ArchivePolicy archivePolicy;
+    private final int compressionLevel;
+
+    private StorageOptions(boolean journaled, int compactionThreshold, Durability durability,
+                           Duration flushInterval, int maxPendingChanges, TaskCodec codec, int idsPerSegment,
+                           int lazyCacheSize, ArchivePolicy archivePolicy, int compressionLevel) {
+        this.journaled = journaled;
+        this.compactionThreshold = compactionThreshold;
+        this.durability = durability;
+        this.flushInterval = flushInterval;
+        this.maxPendingChanges = maxPendingChanges;
+        this.codec = codec;
+        this.idsPerSegment = idsPerSegment;
+        this.lazyCacheSize = lazyCacheSize;
+        this.archivePolicy = archivePolicy;
+        this.compressionLevel = compressionLevel;
+    }
+
+    public static StorageOptions defaults() {
+        return DEFAULTS;
+    }
+
+    // Changes are appended to a journal next to the file, which is rewritten once the journal
+    // holds the given number of records.
+    public StorageOptions withJournal(int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        return new StorageOptions(true, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    public StorageOptions withDurability(Durability durability) {
+        Objects.requireNonNull(durability, "Durability can't be null");
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    // Changes are written by a background thread once per interval or as soon as the given
+    // number of them is pending, whichever comes first.
+    public StorageOptions withWriteBehind(Duration flushInterval, int maxPendingChanges) {
+        Objects.requireNonNull(flushInterval, "Flush interval can't be null");
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        if (maxPendingChanges <= 0) {
+            throw new IllegalArgumentException("Max pending changes must be positive");
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    public StorageOptions withFormat(SnapshotFormat format) {
+        Objects.requireNonNull(format, "Snapshot format can't be null");
+        return withCodec(format.getCodec());
+    }
+
+    // Snapshots and segments are written by the given codec. Lazy loading needs a CSV or binary snapshot.
+    public StorageOptions withCodec(TaskCodec codec) {
+        Objects.requireNonNull(codec, "Codec can't be null");
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    // The snapshot is split into segment files by ranges of task ids, and only segments with changed
+    // tasks are rewritten.
+    public StorageOptions withSegments(int idsPerSegment) {
+        if (idsPerSegment <= 0) {
+            throw new IllegalArgumentException("Ids per segment must be positive");
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    // Tasks and subtasks of a loaded snapshot stay in the file and are read when they are needed,
+    // keeping the given number of recently read ones in memory. Not supported with segments.
+    public StorageOptions withLazyLoading(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, cacheSize, archivePolicy, compressionLevel);
+    }
+
+    // Tasks and subtasks matching the policy are moved to an archive file next to the file when the
+    // manager is loaded and whenever it archives tasks.
+    public StorageOptions withArchive(ArchivePolicy archivePolicy) {
+        Objects.requireNonNull(archivePolicy, "Archive policy can't be null");
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, compressionLevel);
+    }
+
+    // Snapshots and segments are compressed with the given Deflater level from 1 (fastest) to 9 (smallest).
+    // Journals and archives stay uncompressed. Not supported with lazy loading.
+    public StorageOptions withCompression(int level) {
+        if ((level < Deflater.BEST_SPEED) || (level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Compression level must be from 1 to 9");
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, flushInterval, maxPendingChanges,
+                codec, idsPerSegment, lazyCacheSize, archivePolicy, level);
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public boolean isWriteBehind() {
+        return flushInterval != null;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getMaxPendingChanges() {
+        return maxPendingChanges;
+    }
+
+    public TaskCodec getCodec() {
+        return codec;
+    }
+
+    public boolean isSegmented() {
+        return idsPerSegment > 0;
+    }
+
+    public int getIdsPerSegment() {
+        return idsPerSegment;
+    }
+
+    public boolean isLazy() {
+        return lazyCacheSize > 0;
+    }
+
+    public int getLazyCacheSize() {
+        return lazyCacheSize;
+    }
+
+    public boolean isArchived() {
+        return archivePolicy != null;
+    }
+
+    public ArchivePolicy getArchivePolicy() {
+        return archivePolicy;
+    }
+
+    public boolean isCompressed() {
+        return compressionLevel > 0;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+}
\ No newline at end of file
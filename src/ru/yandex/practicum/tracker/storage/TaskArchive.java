@@ -0,0 +1,347 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Append-only file of archived tasks and subtasks, which are rarely read and so aren't kept in memory.
+// Records look like the ones of the journal: "+<task row>" archives the task, "-<id>" drops it. Only
+// the location of the last row of every archived id is kept, so a task is read with one positional read.
+// Once most records are obsolete the file is rewritten with the live rows only.
+public class TaskArchive implements Closeable {
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+    private static final byte SAVED = '+';
+    private static final byte REMOVED = '-';
+    private static final byte LINE_END = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final Path path;
+    private final TaskSerializer serializer;
+    private final Durability durability;
+    // Archived id -> location of its row.
+    private final Map<Long, Location> locations;
+    // Ids moved back to memory whose rows are still in the file. A record dropping them is written only
+    // when they are removed, so losing the latest change of a task in memory never loses the task itself.
+    private final Map<Long, Location> released;
+    private FileChannel channel;
+    private long fileSize;
+    private int records;
+
+    private record Location(long offset, int length, boolean subtask) {
+    }
+
+    public TaskArchive(Path path, TaskSerializer serializer, Durability durability) {
+        this.path = Objects.requireNonNull(path, "Path can't be null");
+        this.serializer = Objects.requireNonNull(serializer, "Serializer can't be null");
+        this.durability = Objects.requireNonNull(durability, "Durability can't be null");
+        locations = new HashMap<>();
+        released = new HashMap<>();
+    }
+
+    // Reads the archive left from before and returns the archived tasks in the order of the file.
+    // Rows are written together with their line end, so a last line without it is the result of an
+    // interrupted write and is cut off.
+    public synchronized List<Task> load() {
+        locations.clear();
+        released.clear();
+        records = 0;
+        fileSize = 0;
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        try {
+            FileChannel fileChannel = open();
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            long lineStart = 0;
+            while (fileChannel.read(block, position) > 0) {
+                block.flip();
+                for (int i = 0; i < block.limit(); i++, position++) {
+                    byte value = block.get(i);
+                    if (value == LINE_END) {
+                        apply(line.toByteArray(), lineStart, tasks);
+                        line.reset();
+                        lineStart = position + 1;
+                    } else {
+                        line.write(value);
+                    }
+                }
+                block.clear();
+            }
+            if (lineStart < position) {
+                fileChannel.truncate(lineStart);
+            }
+            fileSize = lineStart;
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot read archive, reason: " + exception.getMessage());
+        }
+        return new ArrayList<>(tasks.values());
+    }
+
+    // The rows are written before the tasks are dropped from memory, so a failed write loses nothing.
+    public synchronized void add(Collection<? extends Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        Map<Long, Location> added = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            byte[] row = serializer.toString(task).getBytes(CHARSET);
+            content.write(SAVED);
+            added.put(task.getId(), new Location(fileSize + content.size(), row.length, task instanceof Subtask));
+            content.writeBytes(row);
+            content.write(LINE_END);
+        }
+        append(content.toByteArray());
+        added.forEach((id, location) -> {
+            locations.put(id, location);
+            released.remove(id);
+        });
+        records += tasks.size();
+    }
+
+    public synchronized boolean contains(long id, Class<? extends Task> type) {
+        Location location = locations.get(id);
+        return (location != null) && (location.subtask() == (type == Subtask.class));
+    }
+
+    // Reads the archived task, null if there is none with the id.
+    public synchronized Task get(long id) {
+        Location location = locations.get(id);
+        return (location != null) ? read(location) : null;
+    }
+
+    // Archived tasks of exactly the given type, in the order they were archived.
+    public synchronized <T extends Task> List<T> getAll(Class<T> type) {
+        return locations.values().stream()
+                .filter(location -> location.subtask() == (type == Subtask.class))
+                .sorted(Comparator.comparingLong(Location::offset))
+                .map(location -> type.cast(read(location)))
+                .toList();
+    }
+
+    public synchronized List<Long> getIds(Class<? extends Task> type) {
+        return locations.entrySet().stream()
+                .filter(entry -> entry.getValue().subtask() == (type == Subtask.class))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public synchronized int size() {
+        return locations.size();
+    }
+
+    // Drops the task for good.
+    public synchronized void remove(long id) {
+        if ((locations.remove(id) != null) || (released.remove(id) != null)) {
+            appendRemoved(List.of(id));
+        }
+    }
+
+    // Drops all tasks of exactly the given type, including the released ones, and returns the ids
+    // of the archived ones.
+    public synchronized List<Long> removeAll(Class<? extends Task> type) {
+        List<Long> archivedIds = removeIf(locations, type);
+        List<Long> removedIds = new ArrayList<>(archivedIds);
+        removedIds.addAll(removeIf(released, type));
+        appendRemoved(removedIds);
+        return archivedIds;
+    }
+
+    // The task is moved back to memory and is no longer read from here.
+    public synchronized void release(long id) {
+        Location location = locations.remove(id);
+        if (location != null) {
+            released.put(id, location);
+        }
+    }
+
+    // Drops all tasks together with the file.
+    public synchronized void clear() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot clear archive, reason: " + exception.getMessage());
+        }
+        locations.clear();
+        released.clear();
+        fileSize = 0;
+        records = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                throw new ManagerSaveException("Cannot close archive, reason: " + exception.getMessage());
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private void apply(byte[] line, long offset, Map<Long, Task> tasks) {
+        int length = ((line.length > 0) && (line[line.length - 1] == CARRIAGE_RETURN)) ? line.length - 1 : line.length;
+        try {
+            if (length == 0) {
+                throw new TaskFormatException("Archive record is empty");
+            }
+            CharBuffer value = CHARSET.decode(ByteBuffer.wrap(line, 1, length - 1));
+            switch (line[0]) {
+                case SAVED -> {
+                    Task task = serializer.fromString(value, 0, value.length());
+                    tasks.put(task.getId(), task);
+                    locations.put(task.getId(), new Location(offset + 1, length - 1, task instanceof Subtask));
+                }
+                case REMOVED -> {
+                    long id = Long.parseLong(value, 0, value.length(), 10);
+                    tasks.remove(id);
+                    locations.remove(id);
+                }
+                default -> throw new TaskFormatException("Archive record has unknown type");
+            }
+            records++;
+        } catch (TaskFormatException | DateTimeParseException | IllegalArgumentException exception) {
+            throw new ManagerLoadException("Archive record is broken: " + new String(line, CHARSET));
+        }
+    }
+
+    private static List<Long> removeIf(Map<Long, Location> source, Class<? extends Task> type) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, Location>> iterator = source.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Long, Location> entry = iterator.next();
+            if (entry.getValue().subtask() == (type == Subtask.class)) {
+                ids.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        return ids;
+    }
+
+    private void appendRemoved(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        ids.forEach(id -> content.append((char) REMOVED).append(id).append((char) LINE_END));
+        append(content.toString().getBytes(CHARSET));
+        records += ids.size();
+        if ((records >= MIN_COMPACTION_RECORDS) && (records > 2 * (locations.size() + released.size()))) {
+            compact();
+        }
+    }
+
+    private void append(byte[] content) {
+        try {
+            FileChannel fileChannel = open();
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer, fileSize + buffer.position());
+            }
+            if (durability == Durability.FSYNC) {
+                fileChannel.force(false);
+            }
+            fileSize += content.length;
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot write archive, reason: " + exception.getMessage());
+        }
+    }
+
+    private Task read(Location location) {
+        try {
+            CharBuffer row = CHARSET.decode(ByteBuffer.wrap(readRow(location)));
+            return serializer.fromString(row, 0, row.length());
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot read archive, reason: " + exception.getMessage());
+        }
+    }
+
+    private byte[] readRow(Location location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.length());
+        while (buffer.hasRemaining()) {
+            if (open().read(buffer, location.offset() + buffer.position()) < 0) {
+                throw new ManagerLoadException("Archive ends unexpectedly");
+            }
+        }
+        return buffer.array();
+    }
+
+    // Rewrites the file with the rows of archived and released tasks, which are still needed.
+    private void compact() {
+        Path temporaryFile = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<Long, Location> compacted = new HashMap<>();
+        Map<Long, Location> compactedReleased = new HashMap<>();
+        try (FileChannel target = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = copyRows(target, locations, compacted, 0);
+            size = copyRows(target, released, compactedReleased, size);
+            if (durability == Durability.FSYNC) {
+                target.force(true);
+            }
+            close();
+            try {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            locations.putAll(compacted);
+            released.putAll(compactedReleased);
+            fileSize = size;
+            records = compacted.size() + compactedReleased.size();
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot compact archive, reason: " + exception.getMessage());
+        }
+    }
+
+    // Returns the position after the copied rows.
+    private long copyRows(FileChannel target, Map<Long, Location> source, Map<Long, Location> copied,
+                          long position) throws IOException {
+        for (Map.Entry<Long, Location> entry : source.entrySet()) {
+            Location location = entry.getValue();
+            byte[] row = readRow(location);
+            ByteBuffer line = ByteBuffer.allocate(row.length + 2).put(SAVED).put(row).put(LINE_END).flip();
+            while (line.hasRemaining()) {
+                target.write(line);
+            }
+            copied.put(entry.getKey(), new Location(position + 1, row.length, location.subtask()));
+            position += line.limit();
+        }
+        return position;
+    }
+
+    private FileChannel open() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,343 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Offsets of the tasks in a CSV or binary snapshot, so that single tasks are read from the file
+// when they are needed instead of being kept in memory. The file stays open, so its tasks can
+// still be read after it has been replaced by a newer snapshot.
+public final class TaskFileIndex implements Closeable {
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final byte LINE_END = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    // Separator of CSV snapshots written by FileBackedTaskManager.
+    private static final byte SEPARATOR = ',';
+    private static final byte UNKNOWN = -1;
+
+    private final FileChannel channel;
+    private final TaskSerializer serializer;
+    private final StorageMetrics metrics;
+    private final boolean binary;
+
+    // Sorted ids and the location of the last row of every id in the file.
+    private long[] ids;
+    private long[] offsets;
+    private int[] lengths;
+    private byte[] types;
+    private int size;
+
+    // Strings of a binary snapshot, read together with the tasks using them.
+    private long[] stringOffsets;
+    private int[] stringLengths;
+
+    private TaskFileIndex(FileChannel channel, TaskSerializer serializer, StorageMetrics metrics, boolean binary) {
+        this.channel = channel;
+        this.serializer = serializer;
+        this.metrics = metrics;
+        this.binary = binary;
+    }
+
+    public static TaskFileIndex open(Path file, TaskSerializer serializer, StorageMetrics metrics) {
+        boolean binary = BinarySnapshot.isBinary(file);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            TaskFileIndex index = new TaskFileIndex(channel, serializer, metrics, binary);
+            if (binary) {
+                index.scanBinary();
+            } else {
+                index.scanCsv();
+            }
+            return index;
+        } catch (IOException | RuntimeException exception) {
+            closeQuietly(channel);
+            if (exception instanceof ManagerLoadException loadException) {
+                throw loadException;
+            }
+            throw new ManagerLoadException("Cannot index file, reason: " + exception.getMessage());
+        }
+    }
+
+    // Only snapshots of the built-in CSV and binary codecs can be indexed.
+    public static boolean supports(TaskCodec codec) {
+        return (codec == TaskCodecs.CSV) || (codec == TaskCodecs.BINARY);
+    }
+
+    // Whether the file holds an uncompressed snapshot of a supported codec.
+    public static boolean canIndex(Path file) {
+        return !CompressedSnapshot.isCompressed(file) && supports(TaskCodecs.detect(file, TaskCodecs.CSV));
+    }
+
+    public boolean contains(long id, Class<? extends Task> type) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        return (position >= 0) && (types[position] == typeOf(type));
+    }
+
+    // Number of ids in the index, the ids themselves are listed by position.
+    public int size() {
+        return size;
+    }
+
+    public long getId(int position) {
+        return ids[position];
+    }
+
+    public boolean hasType(int position, Class<? extends Task> type) {
+        return types[position] == typeOf(type);
+    }
+
+    // Reads the task from the file, null if it isn't in the index.
+    public Task read(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return null;
+        }
+        try {
+            metrics.recordLazyRead();
+            ByteBuffer buffer = readFully(offsets[position], lengths[position]);
+            if (binary) {
+                return BinarySnapshot.readTask(buffer, 0, this::readString);
+            }
+            CharBuffer row = StandardCharsets.UTF_8.decode(buffer);
+            return serializer.fromString(row, 0, row.length());
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot read task from file, reason: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(channel);
+    }
+
+    // Lines are scanned for the id and the type only, the first line is the title.
+    private void scanCsv() throws IOException {
+        Rows rows = new Rows();
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        StringBuilder type = new StringBuilder();
+        long position = 0;
+        long lineStart = 0;
+        long id = 0;
+        int field = 0;
+        boolean title = true;
+        boolean lineEndsWithReturn = false;
+
+        while (channel.read(block, position) > 0) {
+            block.flip();
+            for (int i = 0; i < block.limit(); i++, position++) {
+                byte value = block.get(i);
+                if (value == LINE_END) {
+                    int length = (int) (position - lineStart) - (lineEndsWithReturn ? 1 : 0);
+                    if (!title && (length > 0)) {
+                        rows.add(id, lineStart, length, typeOf(type));
+                    }
+                    title = false;
+                    lineStart = position + 1;
+                    id = 0;
+                    field = 0;
+                    type.setLength(0);
+                } else if (value == SEPARATOR) {
+                    field++;
+                } else if ((field == 0) && (value >= '0') && (value <= '9')) {
+                    id = id * 10 + (value - '0');
+                } else if (field == 1) {
+                    type.append((char) value);
+                }
+                lineEndsWithReturn = value == CARRIAGE_RETURN;
+            }
+            block.clear();
+        }
+        int length = (int) (position - lineStart) - (lineEndsWithReturn ? 1 : 0);
+        if (!title && (length > 0)) {
+            rows.add(id, lineStart, length, typeOf(type));
+        }
+        rows.build();
+    }
+
+    private void scanBinary() throws IOException {
+        BinarySnapshot.checkHeader(readFully(0, BinarySnapshot.HEADER_SIZE));
+        BlockReader reader = new BlockReader(BinarySnapshot.HEADER_SIZE);
+
+        int stringCount = reader.getInt();
+        stringOffsets = new long[stringCount];
+        stringLengths = new int[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            stringLengths[i] = reader.getInt();
+            stringOffsets[i] = reader.getPosition();
+            reader.skip(stringLengths[i]);
+        }
+
+        int count = reader.getInt();
+        Rows rows = new Rows();
+        for (int i = 0; i < count; i++) {
+            long offset = reader.getPosition();
+            byte type = reader.getByte();
+            reader.skip(1);
+            long id = reader.getLong();
+            rows.add(id, offset, BinarySnapshot.RECORD_SIZE, type);
+            reader.skip(BinarySnapshot.RECORD_SIZE - 2 - Long.BYTES);
+        }
+        rows.build();
+    }
+
+    private String readString(int index) {
+        try {
+            return StandardCharsets.UTF_8.decode(readFully(stringOffsets[index], stringLengths[index])).toString();
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot read task from file, reason: " + exception.getMessage());
+        }
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ManagerLoadException("File ends unexpectedly");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte typeOf(CharSequence type) {
+        String name = type.toString();
+        if (name.equalsIgnoreCase(Subtask.class.getSimpleName())) {
+            return BinarySnapshot.SUBTASK;
+        } else if (name.equalsIgnoreCase(Epic.class.getSimpleName())) {
+            return BinarySnapshot.EPIC;
+        } else if (name.equalsIgnoreCase(Task.class.getSimpleName())) {
+            return BinarySnapshot.TASK;
+        }
+        return UNKNOWN;
+    }
+
+    private static byte typeOf(Class<? extends Task> type) {
+        return typeOf(type.getSimpleName());
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing is left to read from it.
+            }
+        }
+    }
+
+    // Reads values one after another from blocks of the file, not with a read per value.
+    private final class BlockReader {
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE).limit(0);
+        private long blockStart;
+        private long position;
+
+        BlockReader(long position) {
+            this.position = position;
+            blockStart = position;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        byte getByte() throws IOException {
+            byte value = block.get(prepare(Byte.BYTES));
+            position += Byte.BYTES;
+            return value;
+        }
+
+        int getInt() throws IOException {
+            int value = block.getInt(prepare(Integer.BYTES));
+            position += Integer.BYTES;
+            return value;
+        }
+
+        long getLong() throws IOException {
+            long value = block.getLong(prepare(Long.BYTES));
+            position += Long.BYTES;
+            return value;
+        }
+
+        void skip(int length) {
+            position += length;
+        }
+
+        // Index of the current position in the block, which is read anew if it lacks the given bytes.
+        private int prepare(int length) throws IOException {
+            if ((position < blockStart) || (position + length > blockStart + block.limit())) {
+                block.clear();
+                while (block.hasRemaining() && (channel.read(block, position + block.position()) >= 0)) {
+                    // Read until the block is full or the file ends.
+                }
+                block.flip();
+                blockStart = position;
+                if (block.limit() < length) {
+                    throw new ManagerLoadException("File ends unexpectedly");
+                }
+            }
+            return (int) (position - blockStart);
+        }
+    }
+
+    // Rows in the order of the file, turned into the sorted arrays of the index.
+    private final class Rows {
+        private long[] rowIds = new long[1024];
+        private long[] rowOffsets = new long[1024];
+        private int[] rowLengths = new int[1024];
+        private byte[] rowTypes = new byte[1024];
+        private int count;
+
+        void add(long id, long offset, int length, byte type) {
+            if (count == rowIds.length) {
+                int capacity = count * 2;
+                rowIds = Arrays.copyOf(rowIds, capacity);
+                rowOffsets = Arrays.copyOf(rowOffsets, capacity);
+                rowLengths = Arrays.copyOf(rowLengths, capacity);
+                rowTypes = Arrays.copyOf(rowTypes, capacity);
+            }
+            rowIds[count] = id;
+            rowOffsets[count] = offset;
+            rowLengths[count] = length;
+            rowTypes[count] = type;
+            count++;
+        }
+
+        // A later row of an id replaces the earlier ones, just like on a full load.
+        void build() {
+            long[] sortedIds = Arrays.copyOf(rowIds, count);
+            Arrays.parallelSort(sortedIds);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if ((unique == 0) || (sortedIds[unique - 1] != sortedIds[i])) {
+                    sortedIds[unique++] = sortedIds[i];
+                }
+            }
+
+            ids = Arrays.copyOf(sortedIds, unique);
+            offsets = new long[unique];
+            lengths = new int[unique];
+            types = new byte[unique];
+            size = unique;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(ids, rowIds[i]);
+                offsets[position] = rowOffsets[i];
+                lengths[position] = rowLengths[i];
+                types[position] = rowTypes[i];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Append-only log of changes made since the last snapshot. Every line is one record:
+// "+<task row>" stores the task, "-<id>" removes it. Both are idempotent, so replaying
+// a journal over a snapshot which already contains some of its records is safe.
+public class TaskJournal implements Closeable {
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+    private static final char SAVED = '+';
+    private static final char REMOVED = '-';
+
+    private final Path path;
+    private final TaskSerializer serializer;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private int size;
+
+    public TaskJournal(Path path, TaskSerializer serializer) {
+        this.path = Objects.requireNonNull(path, "Path can't be null");
+        this.serializer = Objects.requireNonNull(serializer, "Serializer can't be null");
+    }
+
+    // Applies the records of the journal to the rows read from the snapshot and returns their number.
+    // A broken last record is the result of an interrupted write and is skipped.
+    public int replay(Map<Long, Task> rows) {
+        return replay(rows, new HashSet<>());
+    }
+
+    // Same as above, collecting the ids of all saved and removed tasks.
+    public int replay(Map<Long, Task> rows, Set<Long> changedIds) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, CHARSET)) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                try {
+                    changedIds.add(apply(line, rows));
+                    count++;
+                } catch (TaskFormatException | DateTimeParseException | IllegalArgumentException exception) {
+                    if (next != null) {
+                        throw new ManagerLoadException("Journal record is broken: " + line);
+                    }
+                }
+                line = next;
+            }
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot read journal, reason: " + exception.getMessage());
+        }
+        size = count;
+        return count;
+    }
+
+    public String toSavedRecord(Task task) {
+        StringBuilder record = new StringBuilder(64).append(SAVED);
+        serializer.write(task, record);
+        return record.toString();
+    }
+
+    public String toRemovedRecord(long id) {
+        return REMOVED + Long.toString(id);
+    }
+
+    public void append(List<String> records, Durability durability) {
+        try {
+            if (writer == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+                writer = new BufferedWriter(Channels.newWriter(channel, CHARSET));
+            }
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+            if (durability != Durability.NONE) {
+                writer.flush();
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+            size += records.size();
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot write journal, reason: " + exception.getMessage());
+        }
+    }
+
+    // Number of records which a snapshot would make obsolete.
+    public int size() {
+        return size;
+    }
+
+    // Drops all records after they have been written to a snapshot.
+    public void truncate() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot truncate journal, reason: " + exception.getMessage());
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException exception) {
+                throw new ManagerSaveException("Cannot close journal, reason: " + exception.getMessage());
+            } finally {
+                writer = null;
+                channel = null;
+            }
+        }
+    }
+
+    // Returns the id of the saved or removed task.
+    private long apply(String line, Map<Long, Task> rows) {
+        if (line.isEmpty()) {
+            throw new TaskFormatException("Journal record is empty");
+        }
+
+        switch (line.charAt(0)) {
+            case SAVED -> {
+                Task task = serializer.fromString(line, 1, line.length());
+                rows.put(task.getId(), task);
+                return task.getId();
+            }
+            case REMOVED -> {
+                long id = Long.parseLong(line, 1, line.length(), 10);
+                rows.remove(id);
+                return id;
+            }
+            default -> throw new TaskFormatException("Journal record has unknown type");
+        }
+    }
+}
\ No newline at end of file
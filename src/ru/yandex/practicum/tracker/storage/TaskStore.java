@@ -0,0 +1,368 @@
+package ru.yandex.practicum.tracker.storage;
+
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Writes changes of a task manager to a file, either on the caller's thread after every change
+// or in the background (write-behind), coalescing all changes made since the previous write.
+// A segmented snapshot is a directory of files with fixed ranges of ids instead of one file, and
+// only segments with changes made since they were last written are rewritten.
+//
+// Changes are recorded while the owner holds its own lock and committed after that. The snapshot
+// source is called under the flush lock and must take the owner's lock, so in write-behind mode
+// the owner must never flush while holding its lock.
+public class TaskStore implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private final Path file;
+    private final StorageOptions options;
+    private final SnapshotSource snapshotSource;
+    // Null when every flush rewrites the whole file.
+    private final TaskJournal journal;
+    private final StorageMetrics metrics;
+
+    private final ReentrantLock flushLock;
+    private final Object pendingLock;
+    private List<String> pendingRecords;
+    private int pendingChanges;
+    private boolean snapshotRequested;
+    private final Set<Long> dirtySegments;
+    // Segments changed since the last snapshot, guarded by the flush lock. Initially unknown,
+    // so the first snapshot writes all segments.
+    private final Set<Long> unsavedSegments;
+    private boolean allSegmentsUnsaved;
+
+    // Null when changes are written on the caller's thread.
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled;
+    private final AtomicBoolean started;
+    private volatile boolean closed;
+
+    public TaskStore(Path file, TaskSerializer serializer, StorageOptions options, SnapshotSource snapshotSource) {
+        this.file = Objects.requireNonNull(file, "File can't be null");
+        this.options = Objects.requireNonNull(options, "Storage options can't be null");
+        this.snapshotSource = Objects.requireNonNull(snapshotSource, "Snapshot source can't be null");
+        Objects.requireNonNull(serializer, "Serializer can't be null");
+
+        journal = options.isJournaled() ? new TaskJournal(getJournalPath(file), serializer) : null;
+        metrics = new StorageMetrics();
+        flushLock = new ReentrantLock();
+        pendingLock = new Object();
+        pendingRecords = new ArrayList<>();
+        dirtySegments = new HashSet<>();
+        unsavedSegments = new HashSet<>();
+        allSegmentsUnsaved = true;
+        flushScheduled = new AtomicBoolean();
+        started = new AtomicBoolean();
+
+        flusher = options.isWriteBehind() ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-store-flusher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    // Starts the periodic background flush in write-behind mode. The flusher calls the snapshot source, so
+    // it must not run before the owner is fully built; the first commit starts it if the owner hasn't.
+    public void start() {
+        if ((flusher != null) && !closed && started.compareAndSet(false, true)) {
+            long interval = options.getFlushInterval().toNanos();
+            flusher.scheduleWithFixedDelay(this::flushInBackground, interval, interval, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static Path getJournalPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".journal");
+    }
+
+    public static Path getArchivePath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".archive");
+    }
+
+    public static Path getSegmentsPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".segments");
+    }
+
+    // Segment files of a segmented snapshot, empty if there are none.
+    public static List<Path> getSegmentFiles(Path file) {
+        try {
+            return listSegmentFiles(file);
+        } catch (IOException exception) {
+            throw new ManagerLoadException("Cannot list segments, reason: " + exception.getMessage());
+        }
+    }
+
+    public void recordSaved(Task task) {
+        record((journal != null) ? journal.toSavedRecord(task) : null, task.getId());
+    }
+
+    public void recordRemoved(long id) {
+        record((journal != null) ? journal.toRemovedRecord(id) : null, id);
+    }
+
+    // Changes which make most of the journal obsolete are written as a whole snapshot.
+    public void requestSnapshot() {
+        synchronized (pendingLock) {
+            snapshotRequested = true;
+            pendingChanges++;
+            metrics.setQueuedChanges(pendingChanges);
+        }
+    }
+
+    // Called after all changes of one operation are recorded, without holding the owner's lock.
+    public void commit() {
+        if (flusher == null) {
+            flush();
+            return;
+        }
+
+        start();
+        boolean full;
+        synchronized (pendingLock) {
+            full = pendingChanges >= options.getMaxPendingChanges();
+        }
+        if (full && !closed && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushInBackground);
+        }
+    }
+
+    // Writes all recorded changes. A failed flush keeps them pending as a snapshot request.
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<String> records;
+            int changes;
+            boolean snapshot;
+            synchronized (pendingLock) {
+                records = pendingRecords;
+                changes = pendingChanges;
+                snapshot = snapshotRequested || (journal == null);
+                allSegmentsUnsaved |= snapshotRequested;
+                unsavedSegments.addAll(dirtySegments);
+                pendingRecords = new ArrayList<>();
+                pendingChanges = 0;
+                snapshotRequested = false;
+                dirtySegments.clear();
+                metrics.setQueuedChanges(0);
+            }
+            if (changes == 0) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (!snapshot) {
+                    journal.append(records, options.getDurability());
+                    snapshot = journal.size() >= options.getCompactionThreshold();
+                }
+                if (snapshot) {
+                    writeSnapshot();
+                }
+            } catch (RuntimeException exception) {
+                metrics.recordFailure();
+                synchronized (pendingLock) {
+                    // The snapshot will contain everything the lost records described. Segments which
+                    // are not written yet stay unsaved.
+                    snapshotRequested = true;
+                    pendingChanges += changes;
+                    metrics.setQueuedChanges(pendingChanges);
+                }
+                throw exception;
+            }
+            metrics.recordFlush(changes, System.nanoTime() - start);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Writes a snapshot right away, regardless of pending changes.
+    public void save() {
+        requestSnapshot();
+        flush();
+    }
+
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Called by the owner once it has loaded the files of the store.
+    public void recordLoad(long nanos) {
+        metrics.recordLoad(nanos);
+    }
+
+    // Stops the background flusher and writes everything which is still pending.
+    @Override
+    public void close() {
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void record(String journalRecord, long id) {
+        synchronized (pendingLock) {
+            if (journalRecord != null) {
+                pendingRecords.add(journalRecord);
+            }
+            if (options.isSegmented()) {
+                dirtySegments.add(id / options.getIdsPerSegment());
+            }
+            pendingChanges++;
+            metrics.setQueuedChanges(pendingChanges);
+        }
+    }
+
+    private void flushInBackground() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            // Counted in the metrics, the changes are retried on the next flush. Any exception
+            // would cancel the periodic flush, not only a failed write.
+        }
+    }
+
+    // The journal is dropped only after the snapshot has replaced the file, so a crash between
+    // both steps leaves records which are simply applied once more.
+    private void writeSnapshot() {
+        long start = System.nanoTime();
+        try {
+            if (options.isSegmented()) {
+                writeSegments();
+                Files.deleteIfExists(file);
+            } else {
+                writeFile(file, snapshotSource.render());
+                deleteSegments();
+            }
+
+            if (journal != null) {
+                journal.truncate();
+            } else {
+                Files.deleteIfExists(getJournalPath(file));
+            }
+            metrics.recordSnapshot(System.nanoTime() - start);
+        } catch (IOException exception) {
+            throw new ManagerSaveException("Cannot save data to file, reason: " + exception.getMessage());
+        }
+    }
+
+    // Rewrites unsaved segments and deletes the ones which became empty. Segments stay unsaved
+    // until they are written, so a failed write is repeated by the next snapshot.
+    private void writeSegments() throws IOException {
+        Path directory = getSegmentsPath(file);
+        Files.createDirectories(directory);
+        if (allSegmentsUnsaved) {
+            for (long id : snapshotSource.getIds()) {
+                unsavedSegments.add(id / options.getIdsPerSegment());
+            }
+            for (Path segmentFile : listSegmentFiles(file)) {
+                unsavedSegments.add(parseSegment(segmentFile));
+            }
+            allSegmentsUnsaved = false;
+        }
+
+        for (Iterator<Long> iterator = unsavedSegments.iterator(); iterator.hasNext(); ) {
+            long segment = iterator.next();
+            long fromId = segment * options.getIdsPerSegment();
+            byte[] content = snapshotSource.render(fromId, fromId + options.getIdsPerSegment());
+            Path segmentFile = directory.resolve(SEGMENT_PREFIX + segment);
+            if (content != null) {
+                writeFile(segmentFile, content);
+            } else {
+                Files.deleteIfExists(segmentFile);
+            }
+            metrics.recordSegmentWrite();
+            iterator.remove();
+        }
+    }
+
+    private void deleteSegments() throws IOException {
+        for (Path segmentFile : listSegmentFiles(file)) {
+            Files.delete(segmentFile);
+        }
+        Files.deleteIfExists(getSegmentsPath(file));
+    }
+
+    // Replaces the file with the content written to a temporary file next to it. Compressed content is
+    // streamed into the file, never held as a whole.
+    private void writeFile(Path target, byte[] content) throws IOException {
+        Path temporaryFile = target.resolveSibling(target.getFileName() + ".tmp");
+        long writtenBytes;
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (options.isCompressed()) {
+                CompressedSnapshot.write(content, Channels.newOutputStream(channel), options.getCompressionLevel());
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (options.getDurability() == Durability.FSYNC) {
+                channel.force(true);
+            }
+            writtenBytes = channel.position();
+        }
+        replaceFile(temporaryFile, target);
+        metrics.recordSnapshotBytes(content.length, writtenBytes);
+    }
+
+    private static List<Path> listSegmentFiles(Path file) throws IOException {
+        Path directory = getSegmentsPath(file);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> parseSegment(path) >= 0).toList();
+        }
+    }
+
+    private static long parseSegment(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length()));
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    private static void replaceFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.tracker.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AtomicIdGenerator implements IdGenerator {
+    private final AtomicLong nextId;
+
+    public AtomicIdGenerator() {
+        nextId = new AtomicLong(1);
+    }
+
+    @Override
+    public long nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    @Override
+    public void advanceTo(long id) {
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+}
\ No newline at end of file
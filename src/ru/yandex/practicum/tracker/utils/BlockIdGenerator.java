@@ -0,0 +1,46 @@
+package ru.yandex.practicum.tracker.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Leases blocks of ids to threads, so that the shared counter is touched once per block.
+// Ids are unique but are not ordered by creation time across threads.
+public class BlockIdGenerator implements IdGenerator {
+    private static class Block {
+        long next;
+        long end;
+    }
+
+    private final int blockSize;
+    private final AtomicLong nextBlockStart;
+    // Ids up to this one are taken. A block leased below it is dropped on the next request of its thread.
+    private volatile long floor;
+    private final ThreadLocal<Block> blocks;
+
+    public BlockIdGenerator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+
+        this.blockSize = blockSize;
+        nextBlockStart = new AtomicLong(1);
+        blocks = ThreadLocal.withInitial(Block::new);
+    }
+
+    @Override
+    public long nextId() {
+        Block block = blocks.get();
+        if ((block.next >= block.end) || (block.next <= floor)) {
+            block.next = nextBlockStart.getAndAdd(blockSize);
+            block.end = block.next + blockSize;
+        }
+        return block.next++;
+    }
+
+    @Override
+    public synchronized void advanceTo(long id) {
+        if (id > floor) {
+            nextBlockStart.accumulateAndGet(id + 1, Math::max);
+            floor = id;
+        }
+    }
+}
\ No newline at end of file
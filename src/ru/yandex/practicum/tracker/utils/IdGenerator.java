@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tracker.utils;
+
+public interface IdGenerator {
+    long nextId();
+
+    // Guarantees that all ids generated afterwards are greater than the given one.
+    void advanceTo(long id);
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.tracker.utils;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+public class IntervalTaskScheduler implements TaskScheduler {
+    private final long rangeStart;
+    private final long rangeEnd;
+    // Booked intervals never overlap, so the map is ordered by both start and end minute.
+    private final NavigableMap<Long, Long> intervals;
+
+    public IntervalTaskScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+        Objects.requireNonNull(initDateTime, "Initial date time can't be null");
+        Objects.requireNonNull(endDateTime, "End date time can't be null");
+        if (!initDateTime.isBefore(endDateTime)) {
+            throw new IllegalArgumentException("Initial date time must be lower than end date time");
+        }
+
+        rangeStart = toEpochMinute(initDateTime);
+        rangeEnd = toEpochMinute(endDateTime);
+        intervals = new TreeMap<>();
+    }
+
+    @Override
+    public boolean addSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        if (isAvailable(startTime, endTime)) {
+            long start = toEpochMinute(startTime);
+            long end = toEpochMinute(endTime);
+            if (start < end) {
+                intervals.put(start, end);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        long start = toEpochMinute(startTime);
+        Long end = intervals.get(start);
+        if ((end != null) && (end == toEpochMinute(endTime))) {
+            intervals.remove(start);
+        }
+    }
+
+    @Override
+    public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+        Objects.requireNonNull(startTime, "Start time can't be null");
+        Objects.requireNonNull(endTime, "End time can't be null");
+
+        long start = toEpochMinute(startTime);
+        long end = toEpochMinute(endTime);
+        if (start >= end) {
+            return true;
+        }
+        if ((start < rangeStart) || (end > rangeEnd)) {
+            throw new IllegalArgumentException("Start time is out of range");
+        }
+
+        // Only the last interval starting before the end can overlap [start, end).
+        Map.Entry<Long, Long> previous = intervals.lowerEntry(end);
+        return (previous == null) || (previous.getValue() <= start);
+    }
+
+    @Override
+    public boolean isInRange(LocalDateTime dateTime) {
+        Objects.requireNonNull(dateTime, "Date time can't be null");
+        long minute = toEpochMinute(dateTime);
+        return (minute >= rangeStart) && (minute <= rangeEnd);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        SlotTaskScheduler.checkSlotRequest(duration, notBefore, notAfter);
+        long minutes = duration.toMinutes();
+        long start = toEpochMinute(notBefore);
+        if ((notBefore.getSecond() != 0) || (notBefore.getNano() != 0)) {
+            start++;
+        }
+        start = Math.max(start, rangeStart);
+        long limit = Math.min(toEpochMinute(notAfter), rangeEnd);
+
+        Map.Entry<Long, Long> previous = intervals.floorEntry(start);
+        if ((previous != null) && (previous.getValue() > start)) {
+            start = previous.getValue();
+        }
+        // Jump over booked intervals until the gap in front of the next one is wide enough.
+        for (Map.Entry<Long, Long> next : intervals.tailMap(start, true).entrySet()) {
+            if ((next.getKey() >= start + minutes) || (start + minutes > limit)) {
+                break;
+            }
+            start = next.getValue();
+        }
+
+        if (start + minutes > limit) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalDateTime.ofEpochSecond(start * 60, 0, ZoneOffset.UTC));
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
\ No newline at end of file
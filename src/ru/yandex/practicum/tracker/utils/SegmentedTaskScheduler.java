@@ -0,0 +1,187 @@
+package ru.yandex.practicum.tracker.utils;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.*;
+
+public class SegmentedTaskScheduler implements TaskScheduler {
+    private static final int SLOTS_PER_SEGMENT = 7 * 24 * 60 / SlotTaskScheduler.INTERVAL_MINUTES;
+
+    private final Clock clock;
+    private final Period horizon;
+    // Week-sized bitmaps keyed by segment number. A missing segment means all its slots are free.
+    private final NavigableMap<Long, SlotBitmap> segments;
+
+    public SegmentedTaskScheduler(Clock clock, Period horizon) {
+        Objects.requireNonNull(clock, "Clock can't be null");
+        Objects.requireNonNull(horizon, "Horizon can't be null");
+        if (horizon.isNegative() || horizon.isZero()) {
+            throw new IllegalArgumentException("Horizon must be positive");
+        }
+
+        this.clock = clock;
+        this.horizon = horizon;
+        segments = new TreeMap<>();
+    }
+
+    @Override
+    public boolean addSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        // Time which has passed isn't booked, so a task which has already started can be booked back.
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (startTime.isBefore(now)) {
+            startTime = now;
+        }
+        if (isAvailable(startTime, endTime)) {
+            long startSlot = SlotTaskScheduler.toSlot(startTime);
+            long endSlot = SlotTaskScheduler.toSlot(endTime);
+
+            // A task which has already ended has nothing left to book.
+            if (startSlot > endSlot) {
+                return true;
+            }
+
+            for (long segment = toSegment(startSlot); segment <= toSegment(endSlot); segment++) {
+                SlotBitmap bitmap = segments.computeIfAbsent(segment, s -> new SlotBitmap(SLOTS_PER_SEGMENT));
+                bitmap.set(fromIndex(segment, startSlot), toIndex(segment, endSlot));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        retirePastSegments();
+        long startSlot = SlotTaskScheduler.toSlot(startTime);
+        long endSlot = SlotTaskScheduler.toSlot(endTime);
+        if (startSlot > endSlot) {
+            return;
+        }
+
+        Iterator<Map.Entry<Long, SlotBitmap>> iterator = segments
+                .subMap(toSegment(startSlot), true, toSegment(endSlot), true)
+                .entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, SlotBitmap> entry = iterator.next();
+            long segment = entry.getKey();
+            SlotBitmap bitmap = entry.getValue();
+
+            bitmap.clear(fromIndex(segment, startSlot), toIndex(segment, endSlot));
+            if (bitmap.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+        Objects.requireNonNull(startTime, "Start time can't be null");
+        Objects.requireNonNull(endTime, "End time can't be null");
+
+        long startSlot = SlotTaskScheduler.toSlot(startTime);
+        long endSlot = SlotTaskScheduler.toSlot(endTime);
+        if (startSlot > endSlot) {
+            return true;
+        }
+
+        LocalDateTime now = retirePastSegments();
+        if ((startSlot < SlotTaskScheduler.toSlot(now)) || (endSlot > SlotTaskScheduler.toSlot(now.plus(horizon)))) {
+            throw new IllegalArgumentException("Start time is out of range");
+        }
+
+        for (Map.Entry<Long, SlotBitmap> entry
+                : segments.subMap(toSegment(startSlot), true, toSegment(endSlot), true).entrySet()) {
+            long segment = entry.getKey();
+            if (!entry.getValue().isClear(fromIndex(segment, startSlot), toIndex(segment, endSlot))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isInRange(LocalDateTime dateTime) {
+        Objects.requireNonNull(dateTime, "Date time can't be null");
+        LocalDateTime now = LocalDateTime.now(clock);
+        long slot = SlotTaskScheduler.toSlot(dateTime);
+        return (slot >= SlotTaskScheduler.toSlot(now)) && (slot <= SlotTaskScheduler.toSlot(now.plus(horizon)));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        SlotTaskScheduler.checkSlotRequest(duration, notBefore, notAfter);
+        LocalDateTime now = retirePastSegments();
+        long lastSlot = SlotTaskScheduler.toSlot(now.plus(horizon));
+
+        return SlotTaskScheduler.findEarliestSlot(duration, notBefore.isBefore(now) ? now : notBefore, notAfter,
+                lastSlot, slot -> nextFreeSlot(slot, lastSlot), slot -> nextBusySlot(slot, lastSlot));
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    private LocalDateTime retirePastSegments() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long currentSegment = toSegment(SlotTaskScheduler.toSlot(now));
+        if (!segments.isEmpty() && (segments.firstKey() < currentSegment)) {
+            segments.headMap(currentSegment, false).clear();
+        }
+        return now;
+    }
+
+    private long nextFreeSlot(long slot, long lastSlot) {
+        while (slot <= lastSlot) {
+            long segment = toSegment(slot);
+            SlotBitmap bitmap = segments.get(segment);
+            if (bitmap == null) {
+                return slot;
+            }
+
+            int index = bitmap.nextClearBit(fromIndex(segment, slot));
+            if (index < SLOTS_PER_SEGMENT) {
+                return segment * SLOTS_PER_SEGMENT + index;
+            }
+            slot = (segment + 1) * SLOTS_PER_SEGMENT;
+        }
+        return lastSlot + 1;
+    }
+
+    private long nextBusySlot(long slot, long lastSlot) {
+        for (Map.Entry<Long, SlotBitmap> entry : segments.tailMap(toSegment(slot), true).entrySet()) {
+            long segment = entry.getKey();
+            int index = entry.getValue().nextSetBit(fromIndex(segment, slot));
+            if (index < SLOTS_PER_SEGMENT) {
+                return Math.min(segment * SLOTS_PER_SEGMENT + index, lastSlot + 1);
+            }
+        }
+        return lastSlot + 1;
+    }
+
+    private static long toSegment(long slot) {
+        return Math.floorDiv(slot, SLOTS_PER_SEGMENT);
+    }
+
+    // Inclusive start of the [startSlot, endSlot] range clipped to the segment.
+    private static int fromIndex(long segment, long startSlot) {
+        return (int) Math.max(0, startSlot - segment * SLOTS_PER_SEGMENT);
+    }
+
+    // Exclusive end of the [startSlot, endSlot] range clipped to the segment.
+    private static int toIndex(long segment, long endSlot) {
+        return (int) Math.min(SLOTS_PER_SEGMENT, endSlot - segment * SLOTS_PER_SEGMENT + 1);
+    }
+}
\ No newline at end of file
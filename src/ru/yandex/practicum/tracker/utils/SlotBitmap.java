@@ -0,0 +1,133 @@
+package ru.yandex.practicum.tracker.utils;
+
+final class SlotBitmap {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+    private static final long WORD_MASK = 0xffffffffffffffffL;
+
+    private final long[] words;
+    private final int size;
+
+    SlotBitmap(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Bitmap size must be positive");
+        }
+        this.size = size;
+        words = new long[wordIndex(size - 1) + 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    // All bounds are half-open: [from, to).
+    boolean isClear(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return true;
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK << from;
+        long lastMask = WORD_MASK >>> -to;
+
+        if (startWord == endWord) {
+            return (words[startWord] & firstMask & lastMask) == 0;
+        }
+        if ((words[startWord] & firstMask) != 0) return false;
+        for (int i = startWord + 1; i < endWord; i++) {
+            if (words[i] != 0) return false;
+        }
+        return (words[endWord] & lastMask) == 0;
+    }
+
+    void set(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return;
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK << from;
+        long lastMask = WORD_MASK >>> -to;
+
+        if (startWord == endWord) {
+            words[startWord] |= firstMask & lastMask;
+        } else {
+            words[startWord] |= firstMask;
+            for (int i = startWord + 1; i < endWord; i++) {
+                words[i] = WORD_MASK;
+            }
+            words[endWord] |= lastMask;
+        }
+    }
+
+    void clear(int from, int to) {
+        checkRange(from, to);
+        if (from == to) return;
+
+        int startWord = wordIndex(from);
+        int endWord = wordIndex(to - 1);
+        long firstMask = WORD_MASK << from;
+        long lastMask = WORD_MASK >>> -to;
+
+        if (startWord == endWord) {
+            words[startWord] &= ~(firstMask & lastMask);
+        } else {
+            words[startWord] &= ~firstMask;
+            for (int i = startWord + 1; i < endWord; i++) {
+                words[i] = 0;
+            }
+            words[endWord] &= ~lastMask;
+        }
+    }
+
+    // Returns size() when there is no set bit at or after the index.
+    int nextSetBit(int from) {
+        if (from >= size) return size;
+
+        int index = wordIndex(from);
+        long word = words[index] & (WORD_MASK << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min(size, index * BITS_PER_WORD + Long.numberOfTrailingZeros(word));
+            }
+            if (++index == words.length) return size;
+            word = words[index];
+        }
+    }
+
+    // Returns size() when there is no clear bit at or after the index.
+    int nextClearBit(int from) {
+        if (from >= size) return size;
+
+        int index = wordIndex(from);
+        long word = ~words[index] & (WORD_MASK << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min(size, index * BITS_PER_WORD + Long.numberOfTrailingZeros(word));
+            }
+            if (++index == words.length) return size;
+            word = ~words[index];
+        }
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void checkRange(int from, int to) {
+        if ((from < 0) || (to > size) || (from > to)) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bitmap bounds");
+        }
+    }
+}
\ No newline at end of file
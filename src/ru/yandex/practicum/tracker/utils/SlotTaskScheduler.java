@@ -0,0 +1,154 @@
+package ru.yandex.practicum.tracker.utils;
+
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongUnaryOperator;
+
+public class SlotTaskScheduler implements TaskScheduler {
+    static final int INTERVAL_MINUTES = 15;
+
+    // Slots are addressed by their absolute number since the epoch, so slot boundaries
+    // always fall on :00, :15, :30 and :45 regardless of the initial date time.
+    private final long firstSlot;
+    private final long lastSlot;
+    private final SlotBitmap busySlots;
+
+    public SlotTaskScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+        Objects.requireNonNull(initDateTime, "Initial date time can't be null");
+        Objects.requireNonNull(endDateTime, "End date time can't be null");
+        if (!initDateTime.isBefore(endDateTime)) {
+            throw new IllegalArgumentException("Initial date time must be lower than end date time");
+        }
+
+        firstSlot = toSlot(initDateTime);
+        lastSlot = toSlot(endDateTime);
+        long slotCount = lastSlot - firstSlot + 1;
+        if (slotCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Scheduling range is too wide");
+        }
+        busySlots = new SlotBitmap((int) slotCount);
+    }
+
+    @Override
+    public boolean addSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        if (isAvailable(startTime, endTime)) {
+            long startSlot = toSlot(startTime);
+            long endSlot = toSlot(endTime);
+            if (startSlot <= endSlot) {
+                busySlots.set(toIndex(startSlot), toIndex(endSlot) + 1);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeSchedule(Task task) {
+        Objects.requireNonNull(task, "Task can't be null");
+        LocalDateTime startTime = Objects.requireNonNull(task.getStartTime(), "Start time can't be null");
+        LocalDateTime endTime = Objects.requireNonNull(task.getEndTime(), "End time can't be null");
+
+        long startSlot = Math.max(toSlot(startTime), firstSlot);
+        long endSlot = Math.min(toSlot(endTime), lastSlot);
+        if (startSlot <= endSlot) {
+            busySlots.clear(toIndex(startSlot), toIndex(endSlot) + 1);
+        }
+    }
+
+    @Override
+    public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+        Objects.requireNonNull(startTime, "Start time can't be null");
+        Objects.requireNonNull(endTime, "End time can't be null");
+
+        long startSlot = toSlot(startTime);
+        long endSlot = toSlot(endTime);
+        if (startSlot > endSlot) {
+            return true;
+        }
+        if ((startSlot < firstSlot) || (endSlot > lastSlot)) {
+            throw new IllegalArgumentException("Start time is out of range");
+        }
+        return busySlots.isClear(toIndex(startSlot), toIndex(endSlot) + 1);
+    }
+
+    @Override
+    public boolean isInRange(LocalDateTime dateTime) {
+        Objects.requireNonNull(dateTime, "Date time can't be null");
+        long slot = toSlot(dateTime);
+        return (slot >= firstSlot) && (slot <= lastSlot);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter) {
+        checkSlotRequest(duration, notBefore, notAfter);
+        LocalDateTime firstSlotTime = toDateTime(firstSlot);
+        return findEarliestSlot(duration, notBefore.isBefore(firstSlotTime) ? firstSlotTime : notBefore, notAfter,
+                lastSlot,
+                slot -> firstSlot + busySlots.nextClearBit(toIndex(slot)),
+                slot -> firstSlot + busySlots.nextSetBit(toIndex(slot)));
+    }
+
+    static void checkSlotRequest(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        Objects.requireNonNull(duration, "Duration can't be null");
+        Objects.requireNonNull(notBefore, "Lower bound can't be null");
+        Objects.requireNonNull(notAfter, "Upper bound can't be null");
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Duration can't be negative");
+        }
+    }
+
+    // Walks free runs of slots instead of probing every start time. The operators return the first
+    // free (busy) slot at or after the given one, or lastSlot + 1 when there is none.
+    static Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                    LocalDateTime notAfter, long lastSlot,
+                                                    LongUnaryOperator nextFreeSlot,
+                                                    LongUnaryOperator nextBusySlot) {
+        long minutes = duration.toMinutes();
+        long limitSlot = Math.min(toSlot(notAfter), lastSlot);
+        long slot = toSlot(notBefore);
+
+        while (slot <= limitSlot) {
+            slot = nextFreeSlot.applyAsLong(slot);
+            if (slot > limitSlot) {
+                break;
+            }
+
+            LocalDateTime slotTime = toDateTime(slot);
+            LocalDateTime startTime = notBefore.isAfter(slotTime) ? notBefore : slotTime;
+            LocalDateTime endTime = startTime.plusMinutes(minutes);
+            if (endTime.isAfter(notAfter)) {
+                break;
+            }
+
+            long runEnd = nextBusySlot.applyAsLong(slot);
+            if (toSlot(endTime) < runEnd) {
+                return Optional.of(startTime);
+            }
+            slot = runEnd;
+        }
+        return Optional.empty();
+    }
+
+    static LocalDateTime toDateTime(long slot) {
+        return LocalDateTime.ofEpochSecond(slot * INTERVAL_MINUTES * 60, 0, ZoneOffset.UTC);
+    }
+
+    static long toSlot(LocalDateTime dateTime) {
+        long epochMinute = Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        return Math.floorDiv(epochMinute, INTERVAL_MINUTES);
+    }
+
+    private int toIndex(long slot) {
+        return (int) (slot - firstSlot);
+    }
+}
\ No newline at end of file
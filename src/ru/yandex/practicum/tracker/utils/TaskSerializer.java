@@ -6,31 +6,41 @@ import ru.yandex.practicum.tracker.models.Status;
 import ru.yandex.practicum.tracker.models.Subtask;
 import ru.yandex.practicum.tracker.models.Task;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
+// Converts tasks to rows of separated values and back. Fields containing the separator, a quote or a line
+// break are quoted with quotes doubled inside, and line breaks and backslashes inside quotes are escaped by
+// a backslash, so that every row stays on one line. Rows are written field by field into any Appendable
+// and read from any range of characters without splitting it into intermediate strings.
 public class TaskSerializer {
     private static final int WORD_COUNT = 8;
-    private static final int ID_INDEX = 0;
-    private static final int TYPE_INDEX = 1;
-    private static final int NAME_INDEX = 2;
-    private static final int STATUS_INDEX = 3;
-    private static final int DESCRIPTION_INDEX = 4;
-    private static final int START_TIME_INDEX = 5;
-    private static final int DURATION_INDEX = 6;
-    private static final int EPIC_INDEX = 7;
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+    private static final Status[] STATUSES = Status.values();
+    private static final String BAD_FORMAT = "String value has bad format and can't be converted to Task";
 
     private final String wordSeparator;
     private final DateTimeFormatter formatter;
+    // Dates in the ISO format are written and read without the formatter.
+    private final boolean isoFormat;
     private final String title;
 
     public TaskSerializer(String wordSeparator, DateTimeFormatter formatter) {
         Objects.requireNonNull(wordSeparator, "Word separator can't be null");
         Objects.requireNonNull(formatter, "Formatter can't be null");
+        if (wordSeparator.isEmpty() || (wordSeparator.indexOf(QUOTE) >= 0) || (wordSeparator.indexOf('\n') >= 0)
+                || (wordSeparator.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("Word separator can't be empty or contain quotes and line breaks");
+        }
         this.wordSeparator = wordSeparator;
         this.formatter = formatter;
+        isoFormat = formatter == DateTimeFormatter.ISO_LOCAL_DATE_TIME;
         title = String.join(wordSeparator,
                 "id", "type", "name", "status", "description", "startTime", "duration", "epic");
     }
@@ -47,46 +57,91 @@ public class TaskSerializer {
     }
 
     public String toString(Task task) {
+        StringBuilder builder = new StringBuilder(64);
+        write(task, builder);
+        return builder.toString();
+    }
+
+    // Writes the row without a line end.
+    public void write(Task task, Appendable out) throws IOException {
         Objects.requireNonNull(task, "Task can't be null");
-        String id = Long.toString(task.getId());
-        String type = task.getClass().getSimpleName();
-        String name = task.getName() != null ? task.getName() : "";
-        String status = task.getStatus() != null ? task.getStatus().name() : "";
-        String description = task.getDescription() != null ? task.getDescription() : "";
-        String startTime = task.getStartTime() != null ? formatter.format(task.getStartTime()) : "";
-        String duration = task.getDuration() != null ? Long.toString(task.getDuration().toMinutes()) : "";
-        String epic = task instanceof Subtask subtask ? Long.toString(subtask.getParentEpicId()) : "";
-
-        return String.join(wordSeparator, id, type, name, status, description, startTime, duration, epic);
+        Objects.requireNonNull(out, "Output can't be null");
+        appendLong(out, task.getId());
+        out.append(wordSeparator).append(task.getClass().getSimpleName());
+        out.append(wordSeparator);
+        appendText(out, task.getName());
+        out.append(wordSeparator);
+        if (task.getStatus() != null) {
+            out.append(task.getStatus().name());
+        }
+        out.append(wordSeparator);
+        appendText(out, task.getDescription());
+        out.append(wordSeparator);
+        if (task.getStartTime() != null) {
+            appendDateTime(out, task.getStartTime());
+        }
+        out.append(wordSeparator);
+        if (task.getDuration() != null) {
+            appendLong(out, task.getDuration().toMinutes());
+        }
+        out.append(wordSeparator);
+        if (task instanceof Subtask subtask) {
+            appendLong(out, subtask.getParentEpicId());
+        }
+    }
+
+    public void write(Task task, StringBuilder out) {
+        try {
+            write(task, (Appendable) out);
+        } catch (IOException exception) {
+            // StringBuilder never throws it.
+            throw new UncheckedIOException(exception);
+        }
     }
 
     public Task fromString(String value) {
         Objects.requireNonNull(value, "Value can't be null");
-        String[] words = value.split(wordSeparator, WORD_COUNT);
-        if (words.length != WORD_COUNT) {
-            throw new TaskFormatException("String value has bad format and can't be converted to Task");
+        return fromString(value, 0, value.length());
+    }
+
+    // Reads the row in [start, end) of the characters, which may be a reused buffer.
+    public Task fromString(CharSequence chars, int start, int end) {
+        Objects.requireNonNull(chars, "Value can't be null");
+        Objects.checkFromToIndex(start, end, chars.length());
+        RowReader reader = new RowReader(chars, start, end);
+
+        reader.next();
+        long id = reader.toLong();
+        reader.next();
+        boolean epic = reader.matches(Epic.class.getSimpleName(), true);
+        boolean subtask = reader.matches(Subtask.class.getSimpleName(), true);
+        if (!epic && !subtask && !reader.matches(Task.class.getSimpleName(), true)) {
+            throw new TaskFormatException("String value has unknown Task type");
         }
+        String name = reader.nextText();
+        reader.next();
+        Status status = reader.toStatus();
+        String description = reader.nextText();
+        reader.next();
+        LocalDateTime startTime = reader.isEmpty() ? null : reader.toDateTime();
+        reader.next();
+        Duration duration = reader.isEmpty() ? null : Duration.ofMinutes(reader.toLong());
+        reader.next();
+        long parentEpicId = subtask ? reader.toLong() : 0;
+        reader.finish();
 
-        String type = words[TYPE_INDEX];
-        String name = words[NAME_INDEX];
-        String description = words[DESCRIPTION_INDEX];
-        LocalDateTime startTime = LocalDateTime.from(formatter.parse(words[START_TIME_INDEX]));
-        Duration duration = Duration.ofMinutes(Long.parseLong(words[DURATION_INDEX]));
         Task task;
-
-        if (checkTaskType(type, Epic.class)) {
+        if (epic) {
             task = new Epic(name, description);
             task.setStartTime(startTime);
             task.setDuration(duration);
-        } else if (checkTaskType(type, Subtask.class)) {
-            task = new Subtask(name, description, startTime, duration, Long.parseLong(words[EPIC_INDEX]));
-        } else if (checkTaskType(type, Task.class)) {
-            task = new Task(name, description, startTime, duration);
+        } else if (subtask) {
+            task = new Subtask(name, description, startTime, duration, parentEpicId);
         } else {
-            throw new TaskFormatException("String value has unknown Task type");
+            task = new Task(name, description, startTime, duration);
         }
-        task.setId(Long.parseLong(words[ID_INDEX]));
-        task.setStatus(Enum.valueOf(Status.class, words[STATUS_INDEX]));
+        task.setId(id);
+        task.setStatus(status);
 
         return task;
     }
@@ -95,7 +150,291 @@ public class TaskSerializer {
         return title;
     }
 
-    private static <T extends Task> boolean checkTaskType(String type, Class<T> taskClass) {
-        return type.equalsIgnoreCase(taskClass.getSimpleName());
+    private void appendText(Appendable out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.append(value);
+            return;
+        }
+
+        out.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case QUOTE -> out.append(QUOTE).append(QUOTE);
+                case ESCAPE -> out.append(ESCAPE).append(ESCAPE);
+                case '\n' -> out.append(ESCAPE).append('n');
+                case '\r' -> out.append(ESCAPE).append('r');
+                default -> out.append(c);
+            }
+        }
+        out.append(QUOTE);
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c == QUOTE) || (c == '\n') || (c == '\r')) {
+                return true;
+            }
+        }
+        return value.contains(wordSeparator);
+    }
+
+    private void appendDateTime(Appendable out, LocalDateTime dateTime) throws IOException {
+        if (!isoFormat || (dateTime.getYear() < 0) || (dateTime.getYear() > 9999)) {
+            formatter.formatTo(dateTime, out);
+            return;
+        }
+
+        appendDigits(out, dateTime.getYear(), 4);
+        out.append('-');
+        appendDigits(out, dateTime.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, dateTime.getDayOfMonth(), 2);
+        out.append('T');
+        appendDigits(out, dateTime.getHour(), 2);
+        out.append(':');
+        appendDigits(out, dateTime.getMinute(), 2);
+        out.append(':');
+        appendDigits(out, dateTime.getSecond(), 2);
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            // The ISO format drops trailing zeros of the fraction.
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            out.append('.');
+            appendDigits(out, nano, digits);
+        }
+    }
+
+    // Writes the non-negative value padded by zeros to the given number of digits.
+    private static void appendDigits(Appendable out, long value, int digits) throws IOException {
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static void appendLong(Appendable out, long value) throws IOException {
+        if (out instanceof StringBuilder builder) {
+            builder.append(value);
+        } else if (value == Long.MIN_VALUE) {
+            out.append(Long.toString(value));
+        } else {
+            if (value < 0) {
+                out.append('-');
+            }
+            appendDigits(out, Math.abs(value), 1);
+        }
+    }
+
+    // Reads the fields of one row in order.
+    private final class RowReader {
+        private final CharSequence chars;
+        private final int end;
+        private int position;
+        private int fieldCount;
+        private int fieldStart;
+        private int fieldEnd;
+
+        RowReader(CharSequence chars, int start, int end) {
+            this.chars = chars;
+            this.end = end;
+            position = start;
+        }
+
+        // Moves to the next field which isn't quoted.
+        void next() {
+            if ((fieldCount == WORD_COUNT) || (position > end)) {
+                throw new TaskFormatException(BAD_FORMAT);
+            }
+            fieldStart = position;
+            fieldEnd = indexOfSeparator(position);
+            position = fieldEnd + wordSeparator.length();
+            fieldCount++;
+        }
+
+        // Reads the next field, which may be quoted.
+        String nextText() {
+            if ((position >= end) || (chars.charAt(position) != QUOTE)) {
+                next();
+                return chars.subSequence(fieldStart, fieldEnd).toString();
+            }
+            if (fieldCount == WORD_COUNT) {
+                throw new TaskFormatException(BAD_FORMAT);
+            }
+
+            StringBuilder value = new StringBuilder();
+            int i = position + 1;
+            while (true) {
+                if (i >= end) {
+                    throw new TaskFormatException("Quoted field isn't closed");
+                }
+                char c = chars.charAt(i);
+                if ((c == QUOTE) && (i + 1 < end) && (chars.charAt(i + 1) == QUOTE)) {
+                    value.append(QUOTE);
+                    i += 2;
+                } else if (c == QUOTE) {
+                    i++;
+                    break;
+                } else if ((c == ESCAPE) && (i + 1 < end)) {
+                    value.append(unescape(chars.charAt(i + 1)));
+                    i += 2;
+                } else if (c == ESCAPE) {
+                    throw new TaskFormatException("Escape sequence isn't finished");
+                } else {
+                    value.append(c);
+                    i++;
+                }
+            }
+            if ((i < end) && (indexOfSeparator(i) != i)) {
+                throw new TaskFormatException("Quoted field is followed by other characters");
+            }
+            position = i + wordSeparator.length();
+            fieldCount++;
+            return value.toString();
+        }
+
+        // Fails if there are more fields.
+        void finish() {
+            if ((fieldCount != WORD_COUNT) || (position <= end)) {
+                throw new TaskFormatException(BAD_FORMAT);
+            }
+        }
+
+        boolean isEmpty() {
+            return fieldStart == fieldEnd;
+        }
+
+        boolean matches(String value, boolean ignoreCase) {
+            if (fieldEnd - fieldStart != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = chars.charAt(fieldStart + i);
+                char expected = value.charAt(i);
+                if ((c != expected) && (!ignoreCase || (Character.toLowerCase(c) != Character.toLowerCase(expected)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long toLong() {
+            int i = fieldStart;
+            boolean negative = (i < fieldEnd) && (chars.charAt(i) == '-');
+            if (negative) {
+                i++;
+            }
+            // Longer values may overflow and are left to the library.
+            if ((i == fieldEnd) || (fieldEnd - i > 18)) {
+                return Long.parseLong(chars.subSequence(fieldStart, fieldEnd).toString());
+            }
+            long value = 0;
+            for (; i < fieldEnd; i++) {
+                char c = chars.charAt(i);
+                if ((c < '0') || (c > '9')) {
+                    throw new NumberFormatException("For input string: \"" + chars.subSequence(fieldStart, fieldEnd)
+                            + "\"");
+                }
+                value = value * 10 + (c - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        Status toStatus() {
+            for (Status status : STATUSES) {
+                if (matches(status.name(), false)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown status " + chars.subSequence(fieldStart, fieldEnd));
+        }
+
+        // Dates of other shapes or with invalid values are left to the formatter, which reports the error.
+        LocalDateTime toDateTime() {
+            int length = fieldEnd - fieldStart;
+            if (isoFormat && ((length == 19) || ((length >= 21) && (length <= 29) && (charAt(19) == '.')))
+                    && (charAt(4) == '-') && (charAt(7) == '-') && (charAt(10) == 'T') && (charAt(13) == ':')
+                    && (charAt(16) == ':')) {
+                int nano = (length > 19) ? digits(20, length) : 0;
+                for (int i = length; i < 29; i++) {
+                    nano *= 10;
+                }
+                int year = digits(0, 4);
+                int month = digits(5, 7);
+                int day = digits(8, 10);
+                int hour = digits(11, 13);
+                int minute = digits(14, 16);
+                int second = digits(17, 19);
+                // Negative if any of them isn't made of digits.
+                if ((year | month | day | hour | minute | second | nano) >= 0) {
+                    try {
+                        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                    } catch (DateTimeException exception) {
+                        // Reported by the formatter below.
+                    }
+                }
+            }
+            return LocalDateTime.from(formatter.parse(chars.subSequence(fieldStart, fieldEnd)));
+        }
+
+        private char charAt(int index) {
+            return chars.charAt(fieldStart + index);
+        }
+
+        // Value of the digits in [from, to) of the field, negative if there is something else.
+        private int digits(int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                char c = charAt(i);
+                if ((c < '0') || (c > '9')) {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private int indexOfSeparator(int from) {
+            int last = end - wordSeparator.length();
+            char first = wordSeparator.charAt(0);
+            for (int i = from; i <= last; i++) {
+                if ((chars.charAt(i) == first) && regionMatches(i)) {
+                    return i;
+                }
+            }
+            return end;
+        }
+
+        private boolean regionMatches(int from) {
+            for (int i = 1; i < wordSeparator.length(); i++) {
+                if (chars.charAt(from + i) != wordSeparator.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private char unescape(char c) {
+            return switch (c) {
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case ESCAPE -> ESCAPE;
+                default -> throw new TaskFormatException("Unknown escape sequence \\" + c);
+            };
+        }
     }
 }
\ No newline at end of file
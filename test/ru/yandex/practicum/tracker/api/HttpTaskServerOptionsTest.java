@@ -0,0 +1,252 @@
+package ru.yandex.practicum.tracker.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.api.adapters.DurationAdapter;
+import ru.yandex.practicum.tracker.api.adapters.LocalDateTimeAdapter;
+import ru.yandex.practicum.tracker.api.handlers.ResponseCache;
+import ru.yandex.practicum.tracker.managers.InMemoryHistoryManager;
+import ru.yandex.practicum.tracker.managers.InMemoryTaskManager;
+import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskServerOptionsTest {
+    private static final int REQUESTS = 200;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(Duration.class, new DurationAdapter())
+            .create();
+
+    @Test
+    public void shouldListenOnPortPickedBySystem() throws IOException {
+        HttpTaskServer server = new HttpTaskServer(createManager(), ServerOptions.defaults().withPort(0));
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertNotEquals(0, server.getPort(), "Порт не выбран");
+            assertEquals(200, client.send(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "Неверный статус");
+        } catch (InterruptedException exception) {
+            fail("Запрос прерван");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldHandleConcurrentRequestsOnFixedPool() throws IOException {
+        assertConcurrentPostsCreateTasks(ServerOptions.defaults().withFixedPool(4));
+    }
+
+    @Test
+    public void shouldHandleConcurrentRequestsOnVirtualThreads() throws IOException {
+        assertConcurrentPostsCreateTasks(ServerOptions.defaults().withVirtualThreads());
+    }
+
+    @Test
+    public void shouldHandleConcurrentRequestsWithBoundedQueue() throws IOException {
+        assertConcurrentPostsCreateTasks(ServerOptions.defaults().withBoundedQueue(4, REQUESTS));
+    }
+
+    @Test
+    public void shouldNotStallOtherClientsWhileRequestIsHandled() throws Exception {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskManager manager = new InMemoryTaskManager(new InMemoryHistoryManager()) {
+            @Override
+            public List<Task> getTaskList() {
+                listing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getTaskList();
+            }
+        };
+        HttpTaskServer server = new HttpTaskServer(manager, ServerOptions.defaults()
+                .withPort(0)
+                .withVirtualThreads());
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            CompletableFuture<HttpResponse<String>> slow = client.sendAsync(get(server, "/tasks"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(listing.await(10, TimeUnit.SECONDS), "Медленный запрос не начат");
+
+            HttpResponse<String> history = client.send(get(server, "/history"), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, history.statusCode(), "Запрос истории не обработан во время медленного запроса");
+            assertFalse(slow.isDone(), "Медленный запрос завершился раньше времени");
+
+            release.countDown();
+            assertEquals(200, slow.get(10, TimeUnit.SECONDS).statusCode(), "Неверный статус медленного запроса");
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldServeListsFromCacheUntilTheyChange() throws Exception {
+        HttpTaskServer server = new HttpTaskServer(createManager(), ServerOptions.defaults()
+                .withPort(0)
+                .withResponseCache(1 << 20));
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            ResponseCache cache = server.getResponseCache().orElseThrow();
+            String first = client.send(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString()).body();
+            String second = client.send(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString()).body();
+            assertEquals(first, second, "Тело из кеша отличается");
+            assertEquals(1, cache.getHits(), "Повторный список не взят из кеша");
+
+            HttpRequest post = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/tasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(new Task("Task", "",
+                            LocalDateTime.now(), Duration.ofMinutes(30)))))
+                    .build();
+            assertEquals(200, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "Неверный статус");
+
+            HttpResponse<String> changed = client.send(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString());
+            assertEquals(1, gson.fromJson(changed.body(), Task[].class).length, "Из кеша отдан устаревший список");
+            assertEquals(1, cache.getHits(), "Устаревший список взят из кеша");
+            assertEquals(2, cache.getMisses(), "Неверное число промахов");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldCacheCompressedListSeparatelyFromPlainOne() throws Exception {
+        TaskManager manager = createManager();
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task("Task " + i, "", start.plusHours(i), Duration.ofMinutes(30)));
+        }
+        HttpTaskServer server = new HttpTaskServer(manager, ServerOptions.defaults()
+                .withPort(0)
+                .withResponseCache(1 << 20));
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest gzipRequest = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/tasks"))
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> first = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<byte[]> second = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<String> plain = client.send(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals("gzip", second.headers().firstValue("Content-Encoding").orElse(null), "Ответ не сжат");
+            assertArrayEquals(first.body(), second.body(), "Сжатое тело из кеша отличается");
+            assertEquals(Optional.empty(), plain.headers().firstValue("Content-Encoding"), "Сжат обычный ответ");
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(second.body()))) {
+                assertEquals(plain.body(), new String(gzip.readAllBytes(), StandardCharsets.UTF_8),
+                        "Распакованный ответ отличается");
+            }
+            ResponseCache cache = server.getResponseCache().orElseThrow();
+            assertEquals(1, cache.getHits(), "Неверное число попаданий");
+            assertEquals(2, cache.getEntryCount(), "Сжатое и обычное тело не разделены");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidPrioritizedQueryWithCache() throws Exception {
+        HttpTaskServer server = new HttpTaskServer(createManager(), ServerOptions.defaults()
+                .withPort(0)
+                .withResponseCache(1 << 20));
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertEquals(400, client.send(get(server, "/prioritized?limit=-1"),
+                    HttpResponse.BodyHandlers.ofString()).statusCode(), "Неверный лимит не отклонён");
+            assertEquals(400, client.send(get(server, "/prioritized?from=2030-01-02T00:00&to=2030-01-01T00:00"),
+                    HttpResponse.BodyHandlers.ofString()).statusCode(), "Неверный интервал не отклонён");
+            assertEquals(0, server.getResponseCache().orElseThrow().getEntryCount(), "Ошибка попала в кеш");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidOptions() {
+        ServerOptions options = ServerOptions.defaults();
+
+        assertThrows(IllegalArgumentException.class, () -> options.withPort(-1), "Принят отрицательный порт");
+        assertThrows(IllegalArgumentException.class, () -> options.withPort(65536), "Принят слишком большой порт");
+        assertThrows(IllegalArgumentException.class, () -> options.withBacklog(-1), "Принята отрицательная очередь");
+        assertThrows(IllegalArgumentException.class, () -> options.withFixedPool(0), "Принят пул без потоков");
+        assertThrows(IllegalArgumentException.class, () -> options.withBoundedQueue(1, 0),
+                "Принята очередь нулевой ёмкости");
+        assertThrows(IllegalArgumentException.class, () -> options.withResponseCache(0),
+                "Принят кеш нулевого размера");
+        assertEquals(ExecutionMode.DISPATCHER, options.getExecutionMode(), "Неверный режим по умолчанию");
+        assertEquals(HttpTaskServer.PORT, options.getPort(), "Неверный порт по умолчанию");
+        assertEquals(0, options.getResponseCacheBytes(), "Кеш включён по умолчанию");
+    }
+
+    // Every request creates a task in a manager which isn't thread-safe by itself.
+    private void assertConcurrentPostsCreateTasks(ServerOptions options) throws IOException {
+        TaskManager manager = createManager();
+        HttpTaskServer server = new HttpTaskServer(manager, options.withPort(0).withManagerLock());
+        server.start();
+        LocalDateTime start = LocalDateTime.now();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String json = gson.toJson(new Task("Task " + i, "", start.plusHours(i),
+                        Duration.ofMinutes(30)));
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + server.getPort() + "/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                HttpResponse<String> completed = response.join();
+                assertEquals(200, completed.statusCode(), "Неверный статус");
+                ids.add(gson.fromJson(completed.body(), Task.class).getId());
+            }
+
+            assertEquals(REQUESTS, ids.size(), "Идентификаторы задач повторяются");
+            assertEquals(REQUESTS, manager.getTaskList().size(), "Часть задач не создана");
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static TaskManager createManager() {
+        return new InMemoryTaskManager(new InMemoryHistoryManager());
+    }
+
+    private static HttpRequest get(HttpTaskServer server, String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getPort() + path))
+                .GET()
+                .build();
+    }
+}
\ No newline at end of file
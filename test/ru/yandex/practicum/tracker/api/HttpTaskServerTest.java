@@ -6,24 +6,33 @@ import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.api.adapters.Adapters;
 import ru.yandex.practicum.tracker.api.adapters.DurationAdapter;
 import ru.yandex.practicum.tracker.api.adapters.LocalDateTimeAdapter;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
 import ru.yandex.practicum.tracker.managers.InMemoryHistoryManager;
 import ru.yandex.practicum.tracker.managers.InMemoryTaskManager;
 import ru.yandex.practicum.tracker.managers.TaskManager;
 import ru.yandex.practicum.tracker.models.Epic;
 import ru.yandex.practicum.tracker.models.Subtask;
 import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.models.TimeSlot;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -290,6 +299,35 @@ class HttpTaskServerTest {
         }
     }
 
+    @Test
+    public void shouldReturnHistoryWithTypesOfTasks() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            long epicId = manager.createEpic(new Epic("Epic", ""));
+            long subtaskId = manager.createSubtask(new Subtask("Subtask", "", LocalDateTime.now(),
+                    Duration.ofMinutes(5), epicId));
+            manager.getEpicById(epicId);
+            manager.getSubtaskById(subtaskId);
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/history");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+
+            List<Task> history = Adapters.getGson().fromJson(response.body(), new TypeToken<List<Task>>() {
+            }.getType());
+
+            assertEquals(manager.getHistory(), history, "История в ответе не совпадает");
+            assertEquals(List.of(Epic.class, Subtask.class), history.stream().map(Object::getClass).toList(),
+                    "Типы задач истории не сохранены");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
     // DELETE requests.
 
     @Test
@@ -333,4 +371,419 @@ class HttpTaskServerTest {
             fail(exception.getMessage());
         }
     }
+
+    @Test
+    public void shouldReturnStatus200WithEarliestFreeSlot() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+            Task task = new Task("Task", "", from, Duration.ofMinutes(60));
+            manager.createTask(task);
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/slots?duration=30&from=" + from);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+
+            TimeSlot slot = gson.fromJson(response.body(), TimeSlot.class);
+
+            assertFalse(slot.getStartTime().isBefore(task.getEndTime()), "Найденное время пересекается с задачей");
+            assertEquals(slot.getStartTime().plusMinutes(30), slot.getEndTime(), "Неверная продолжительность");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldReturnStatus400WhenSlotDurationIsMissing() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/slots?from=qwerty");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(400, response.statusCode(), "Неверный статус");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldReturnStatus200WithLimitedPrioritizedTasksInRange() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            for (int i = 1; i <= 5; i++) {
+                manager.createTask(new Task("Task " + i, "", now.plusDays(i), Duration.ofMinutes(30)));
+            }
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/prioritized?from="
+                    + now.plusDays(2) + "&limit=2");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+
+            List<Task> tasks = gson.fromJson(response.body(), new TypeToken<List<Task>>() {
+            }.getType());
+
+            assertEquals(2, tasks.size(), "Некорректное количество задач");
+            assertEquals("Task 2", tasks.get(0).getName(), "Неверная первая задача");
+            assertEquals("Task 3", tasks.get(1).getName(), "Неверная вторая задача");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldReturnStatus400WhenPrioritizedLimitIsInvalid() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/prioritized?limit=-1");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(400, response.statusCode(), "Неверный статус");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    // Codecs.
+
+    @Test
+    public void shouldReturnTasksInFormatOfAcceptedCodec() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            manager.createTask(new Task("Task 1", "Описание, с запятой", null, null));
+            manager.createTask(new Task("Task 2", "", LocalDateTime.now(), Duration.ofMinutes(5)));
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Accept", "text/html, text/csv;q=0.9")
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+            assertEquals("text/csv", response.headers().firstValue("Content-Type").orElse(null),
+                    "Неверный тип содержимого");
+
+            List<Task> tasks = TaskCodecs.CSV.read(new ByteArrayInputStream(response.body()));
+
+            assertEquals(manager.getTaskList(), tasks, "Задачи в ответе не совпадают");
+            assertEquals("Описание, с запятой", tasks.getFirst().getDescription(), "Неверное описание задачи");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldCreateSubtaskFromBodyOfCodecAndRejectOtherType() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            long epicId = manager.createEpic(new Epic("Epic", ""));
+            Subtask subtask = new Subtask("Subtask", "", LocalDateTime.now(), Duration.ofMinutes(5), epicId);
+            byte[] body = TaskCodecs.JSON_LINES.encode(List.of(subtask));
+            byte[] taskBody = TaskCodecs.JSON_LINES.encode(List.of(new Task("Task", "", null, null)));
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/subtasks");
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Content-Type", "application/x-ndjson")
+                    .header("Accept", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<byte[]> taskResponse = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(taskBody))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+            assertEquals(manager.getSubtaskList(), TaskCodecs.JSON_LINES.read(new ByteArrayInputStream(response.body())),
+                    "Подзадача в ответе не совпадает");
+            assertEquals(epicId, manager.getSubtaskList().getFirst().getParentEpicId(), "Неверный эпик подзадачи");
+            assertEquals(400, taskResponse.statusCode(), "Задача другого типа принята");
+            assertEquals(1, manager.getSubtaskList().size(), "Некорректное количество подзадач");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRejectJsonTaskOfOtherType() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            long epicId = manager.createEpic(new Epic("Epic", ""));
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            String subtaskBody = "{\"type\":\"Subtask\",\"name\":\"Subtask\",\"parentEpicId\":" + epicId + "}";
+            String epicBody = "{\"type\":\"Epic\",\"name\":\"Epic\"}";
+
+            HttpResponse<String> subtaskResponse = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString(subtaskBody))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> epicResponse = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString(epicBody))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(400, subtaskResponse.statusCode(), "Подзадача принята как задача");
+            assertEquals(400, epicResponse.statusCode(), "Эпик принят как задача");
+            assertTrue(manager.getTaskList().isEmpty(), "Создана задача другого типа");
+            assertTrue(manager.getSubtaskList().isEmpty(), "Создана подзадача");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    // Streaming.
+
+    @Test
+    public void shouldStreamLongTaskListInChunks() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 10_000; i++) {
+                manager.createTask(new Task("Task " + i, "Описание", now.plusHours(i), Duration.ofMinutes(30)));
+            }
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+            assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null),
+                    "Ответ отправлен не частями");
+
+            List<Task> fromResponse = gson.fromJson(response.body(), new TypeToken<List<Task>>() {
+            }.getType());
+
+            assertEquals(manager.getTaskList(), fromResponse, "Задачи в ответе не совпадают");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldReturnStatus400WhenJsonBodyIsEmptyOrHasTrailingData() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            Task task = new Task("Task", "Some description", LocalDateTime.now(), Duration.ofMinutes(60));
+            String json = gson.toJson(task);
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            for (String body : List.of("", json + json, json + " ]")) {
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+                assertEquals(400, response.statusCode(), "Неверный статус для тела: " + body);
+            }
+            assertTrue(manager.getTaskList().isEmpty(), "Задача создана из некорректного тела");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    // Conditional requests.
+
+    @Test
+    public void shouldReturnStatus304WhenListIsNotModified() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            manager.createTask(new Task("Task", "", LocalDateTime.now(), Duration.ofMinutes(5)));
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            String eTag = response.headers().firstValue("ETag").orElse(null);
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+            assertNotNull(eTag, "ETag не отправлен");
+
+            HttpRequest conditional = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("If-None-Match", "\"other\", W/" + eTag)
+                    .GET()
+                    .build();
+            HttpResponse<String> notModified = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(304, notModified.statusCode(), "Неверный статус неизменённого списка");
+            assertTrue(notModified.body().isEmpty(), "Тело ответа не пустое");
+            assertEquals(eTag, notModified.headers().firstValue("ETag").orElse(null), "Неверный ETag");
+
+            manager.getTaskList().forEach(task -> manager.getTaskById(task.getId()));
+            assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "Просмотр задачи изменил версию списка");
+
+            manager.createTask(new Task("Task 2", "", null, null));
+            HttpResponse<String> modified = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, modified.statusCode(), "Изменённый список не отправлен");
+            assertNotEquals(eTag, modified.headers().firstValue("ETag").orElse(null), "ETag не изменился");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldTagHistoryAndRepresentationsSeparately() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            long taskId = manager.createTask(new Task("Task", "", LocalDateTime.now(), Duration.ofMinutes(5)));
+
+            URI historyUri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/history");
+            String historyTag = client.send(HttpRequest.newBuilder().uri(historyUri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).headers().firstValue("ETag").orElseThrow();
+            manager.getTaskById(taskId);
+            HttpResponse<String> history = client.send(HttpRequest.newBuilder()
+                    .uri(historyUri)
+                    .header("If-None-Match", historyTag)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, history.statusCode(), "Изменённая история не отправлена");
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/prioritized");
+            String jsonTag = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).headers().firstValue("ETag").orElseThrow();
+            HttpResponse<String> csv = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Accept", "text/csv")
+                    .header("If-None-Match", jsonTag)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, csv.statusCode(), "Ответ CSV отправлен с тегом JSON");
+            assertNotEquals(jsonTag, csv.headers().firstValue("ETag").orElse(null), "Теги представлений совпадают");
+            assertEquals("Accept, Accept-Encoding", csv.headers().firstValue("Vary").orElse(null),
+                    "Ответ не зависит от заголовков согласования");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    // Compression.
+
+    @Test
+    public void shouldCompressLongListForClientAcceptingGzip() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 1_000; i++) {
+                manager.createTask(new Task("Task " + i, "Описание", now.plusHours(i), Duration.ofMinutes(30)));
+            }
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder()
+                    .uri(uri)
+                    .header("Accept-Encoding", "deflate, gzip;q=0.8")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<String> plain = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Неверный статус");
+            assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null),
+                    "Ответ не сжат");
+            assertEquals(Optional.empty(), plain.headers().firstValue("Content-Encoding"),
+                    "Сжат ответ клиенту без поддержки gzip");
+            assertTrue(response.body().length < plain.body().length() / 4, "Ответ сжат слишком слабо");
+            assertEquals(plain.body(), new String(gunzip(response.body()), StandardCharsets.UTF_8),
+                    "Распакованный ответ отличается");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldNotCompressShortBodyOrRefusedGzip() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 100; i++) {
+                manager.createTask(new Task("Task " + i, "Описание", now.plusHours(i), Duration.ofMinutes(30)));
+            }
+            long taskId = manager.getTaskList().getFirst().getId();
+
+            HttpResponse<String> single = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks/" + taskId))
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> refused = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks"))
+                    .header("Accept-Encoding", "*, gzip;q=0")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, single.statusCode(), "Неверный статус");
+            assertEquals(Optional.empty(), single.headers().firstValue("Content-Encoding"), "Сжато короткое тело");
+            assertEquals(String.valueOf(single.body().getBytes(StandardCharsets.UTF_8).length),
+                    single.headers().firstValue("Content-Length").orElse(null), "Короткое тело отправлено частями");
+            assertEquals(manager.getTaskById(taskId).get(), gson.fromJson(single.body(), Task.class),
+                    "Задача в ответе не совпадает");
+            assertEquals(Optional.empty(), refused.headers().firstValue("Content-Encoding"),
+                    "Сжат ответ при отказе от gzip");
+            assertEquals(100, gson.fromJson(refused.body(), Task[].class).length, "Некорректное количество задач");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldAcceptGzipBodyAndRejectUnknownOrBrokenEncoding() {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            Task task = new Task("Task", "Some description", LocalDateTime.now(), Duration.ofMinutes(60));
+            byte[] json = gson.toJson(task).getBytes(StandardCharsets.UTF_8);
+            byte[] compressed = gzip(json);
+
+            URI uri = URI.create("http://localhost:" + HttpTaskServer.PORT + "/tasks");
+            HttpResponse<String> response = client.send(post(uri, "gzip", compressed),
+                    HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> unknown = client.send(post(uri, "br", json), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> broken = client.send(post(uri, "gzip", json), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> truncated = client.send(post(uri, "gzip",
+                    Arrays.copyOf(compressed, compressed.length / 2)), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), "Сжатое тело не принято");
+            assertEquals("Task", gson.fromJson(response.body(), Task.class).getName(), "Неверное имя задачи");
+            assertEquals(415, unknown.statusCode(), "Принято тело в неизвестной кодировке");
+            assertEquals(400, broken.statusCode(), "Принято тело с неверным сжатием");
+            assertEquals(400, truncated.statusCode(), "Принято обрезанное сжатое тело");
+            assertEquals(1, manager.getTaskList().size(), "Некорректное количество задач");
+        } catch (Throwable exception) {
+            fail(exception.getMessage());
+        }
+    }
+
+    private static HttpRequest post(URI uri, String contentEncoding, byte[] body) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .header("Content-Encoding", contentEncoding)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.tracker.api.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskAdapterTest {
+    private final Gson gson = Adapters.getGson();
+
+    @Test
+    public void shouldWriteTypeAndReadMixedListBack() {
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Task task = new Task("Task", "Описание \"в кавычках\"", startTime, Duration.ofMinutes(30));
+        task.setId(1);
+        Epic epic = new Epic("Epic", "");
+        epic.setId(2);
+        epic.addSubtaskId(3);
+        Subtask subtask = new Subtask("Subtask", "", startTime.plusHours(1), Duration.ofMinutes(15), 2);
+        subtask.setId(3);
+        subtask.setStatus(Status.DONE);
+
+        String json = gson.toJson(List.of(task, epic, subtask));
+        List<Task> tasks = gson.fromJson(json, new TypeToken<List<Task>>() {
+        }.getType());
+
+        assertEquals(List.of(task, epic, subtask), tasks, "Задачи отличаются после чтения");
+        assertEquals(Epic.class, tasks.get(1).getClass(), "Эпик прочитан как задача другого типа");
+        assertEquals(List.of(3L), ((Epic) tasks.get(1)).getSubtaskIds(), "Неверные подзадачи эпика");
+        assertEquals(Subtask.class, tasks.get(2).getClass(), "Подзадача прочитана как задача другого типа");
+        assertEquals(2, ((Subtask) tasks.get(2)).getParentEpicId(), "Неверный эпик подзадачи");
+        assertEquals(Status.DONE, tasks.get(2).getStatus(), "Неверный статус подзадачи");
+        assertEquals(startTime, tasks.get(0).getStartTime(), "Неверное время начала");
+        assertEquals(Duration.ofMinutes(30), tasks.get(0).getDuration(), "Неверная продолжительность");
+        assertEquals(task.getDescription(), tasks.get(0).getDescription(), "Неверное описание");
+    }
+
+    @Test
+    public void shouldOmitNullFields() {
+        Task task = new Task("Task", null, null, null);
+
+        JsonObject object = JsonParser.parseString(gson.toJson(task)).getAsJsonObject();
+
+        assertEquals("Task", object.get("type").getAsString(), "Неверный тип задачи");
+        assertFalse(object.has("description"), "Записано пустое описание");
+        assertFalse(object.has("startTime"), "Записано пустое время начала");
+        assertFalse(object.has("duration"), "Записана пустая продолжительность");
+    }
+
+    @Test
+    public void shouldReadBodyWithoutTypeAsAdaptedType() {
+        String json = "{\"name\":\"Subtask\",\"duration\":\"15\",\"startTime\":null,\"parentEpicId\":7,\"unknown\":[1]}";
+
+        Subtask subtask = gson.fromJson(json, Subtask.class);
+
+        assertEquals(7, subtask.getParentEpicId(), "Неверный эпик подзадачи");
+        assertEquals(Duration.ofMinutes(15), subtask.getDuration(), "Продолжительность строкой не прочитана");
+        assertNull(subtask.getStartTime(), "Неверное время начала");
+        assertEquals(Status.NEW, subtask.getStatus(), "Неверный статус по умолчанию");
+    }
+
+    @Test
+    public void shouldThrowWhenTypeDoesNotMatchOrFieldIsInvalid() {
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"type\":\"Epic\"}", Subtask.class),
+                "Эпик прочитан как подзадача");
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"type\":\"Story\"}", Task.class),
+                "Прочитана задача неизвестного типа");
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"status\":\"LATER\"}", Task.class),
+                "Прочитан неизвестный статус");
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"startTime\":\"today\"}", Task.class),
+                "Прочитано неверное время начала");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.tracker.api.handlers;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseHttpHandlerTest {
+    private HttpServer server;
+    private int listSize;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/tasks", new FailingHandler());
+        server.start();
+    }
+
+    @AfterEach
+    public void shutDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReturnStatus500WhenShortBodyFailsToSerialize() throws Exception {
+        listSize = 10;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(get(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(500, response.statusCode(), "Неверный статус");
+            assertEquals("", response.body(), "Отправлена часть тела");
+        }
+    }
+
+    @Test
+    public void shouldAbortStreamedBodyWhichFailsToSerialize() {
+        listSize = 10_000;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertThrows(IOException.class, () -> client.send(get(), HttpResponse.BodyHandlers.ofString()),
+                    "Обрезанное тело получено как полное");
+        }
+    }
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + "/tasks"))
+                .GET()
+                .build();
+    }
+
+    // Tasks the last of which can't be read. Gson skips anonymous classes, so the list is a named one.
+    private static class FailingList extends AbstractList<Task> {
+        private final int size;
+
+        FailingList(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index == size - 1) {
+                throw new IllegalStateException("Task can't be read");
+            }
+            return new Task("Task " + index, "Описание", null, null);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class FailingHandler extends BaseHttpHandler<Task> {
+        @Override
+        protected List<Task> list() {
+            return new FailingList(listSize);
+        }
+
+        @Override
+        protected Optional<Task> getById(long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        protected long create(Task value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void update(Task value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void delete(long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected Class<Task> getType() {
+            return Task.class;
+        }
+
+        @Override
+        protected boolean checkIntersection(Task value) {
+            return true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.tracker.api.handlers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+    private static final String JSON = "application/json";
+
+    @Test
+    public void shouldReturnBodyOfSameVersion() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("/tasks", entry(1, 10));
+
+        assertNotNull(cache.get("/tasks", 1), "Тело не найдено");
+        assertNull(cache.get("/epics", 1), "Найдено тело другого ключа");
+        assertEquals(1, cache.getHits(), "Неверное число попаданий");
+        assertEquals(1, cache.getMisses(), "Неверное число промахов");
+        assertEquals(0.5, cache.getHitRatio(), "Неверная доля попаданий");
+    }
+
+    @Test
+    public void shouldDropBodyOfOtherVersion() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("/tasks", entry(1, 10));
+
+        assertNull(cache.get("/tasks", 2), "Найдено устаревшее тело");
+        assertEquals(0, cache.getEntryCount(), "Устаревшее тело не удалено");
+        assertEquals(0, cache.getBytes(), "Размер устаревшего тела не вычтен");
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedBodies() {
+        ResponseCache cache = new ResponseCache(30);
+        cache.put("/tasks", entry(1, 10));
+        cache.put("/subtasks", entry(1, 10));
+        cache.put("/epics", entry(1, 10));
+        cache.get("/tasks", 1);
+
+        cache.put("/history", entry(1, 10));
+
+        assertNotNull(cache.get("/tasks", 1), "Вытеснено недавно использованное тело");
+        assertNull(cache.get("/subtasks", 1), "Не вытеснено самое старое тело");
+        assertEquals(1, cache.getEvictions(), "Неверное число вытеснений");
+        assertEquals(30, cache.getBytes(), "Превышен размер кеша");
+    }
+
+    @Test
+    public void shouldNotStoreBodyLargerThanCache() {
+        ResponseCache cache = new ResponseCache(30);
+        cache.put("/tasks", entry(1, 10));
+
+        cache.put("/tasks", entry(2, 31));
+
+        assertNull(cache.get("/tasks", 2), "Сохранено слишком большое тело");
+        assertEquals(0, cache.getBytes(), "Старое тело ключа не удалено");
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(0), "Принят кеш нулевого размера");
+    }
+
+    private static ResponseCache.Entry entry(long version, int size) {
+        return new ResponseCache.Entry(version, JSON, null, new byte[size]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.managers.FileBackedTaskManager;
+import ru.yandex.practicum.tracker.managers.Managers;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Save and load times, file size and compression ratio of every snapshot format, plain and compressed
+// with the fastest and the default Deflater levels, as reported by the storage metrics.
+// Run with: java -Xmx2g -cp <classpath> ru.yandex.practicum.tracker.benchmarks.CompressedSnapshotBenchmark
+public class CompressedSnapshotBenchmark {
+    private static final int TASK_COUNT = 200_000;
+    private static final int SUBTASKS_PER_EPIC = 9;
+    private static final int[] LEVELS = {0, 1, 6};
+
+    public static void main(String[] args) throws IOException {
+        List<Task> tasks = createTasks();
+        File file = File.createTempFile("tasks-benchmark-", ".snapshot");
+        try {
+            for (int round = 0; round < 3; round++) {
+                for (SnapshotFormat format : SnapshotFormat.values()) {
+                    for (int level : LEVELS) {
+                        measure(file, tasks, format, level);
+                    }
+                }
+                System.out.println();
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    // Every tenth task is an epic followed by its subtasks, every subtask takes its own time slot.
+    private static List<Task> createTasks() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withSecond(0).withNano(0);
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        long epicId = 0;
+        for (long id = 1; id <= TASK_COUNT; id++) {
+            Task task;
+            if (id % (SUBTASKS_PER_EPIC + 1) == 1) {
+                task = new Epic("Epic " + id, "Release " + id / 1000);
+                epicId = id;
+            } else {
+                task = new Subtask("Subtask " + id, "Description", start.plusMinutes(id * 10),
+                        Duration.ofMinutes(5), epicId);
+                task.setStatus((id % 3 == 0) ? Status.DONE : Status.NEW);
+            }
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // The plain file is loaded with the measured options and saved in their format, then loaded again.
+    private static void measure(File file, List<Task> tasks, SnapshotFormat format, int level) throws IOException {
+        StorageOptions options = StorageOptions.defaults().withFormat(format);
+        if (level > 0) {
+            options = options.withCompression(level);
+        }
+        Files.write(file.toPath(), format.getCodec().encode(tasks));
+
+        StorageMetrics saveMetrics;
+        try (FileBackedTaskManager manager = load(file, options)) {
+            manager.save();
+            saveMetrics = manager.getStorageMetrics();
+        }
+        StorageMetrics loadMetrics;
+        try (FileBackedTaskManager manager = load(file, options)) {
+            loadMetrics = manager.getStorageMetrics();
+        }
+
+        System.out.printf("%-10s level %d: %,12d bytes, ratio %5.2f, save %5d ms, load %5d ms%n", format, level,
+                file.length(), saveMetrics.getCompressionRatio(), saveMetrics.getLastSnapshotNanos() / 1_000_000,
+                loadMetrics.getLoadNanos() / 1_000_000);
+    }
+
+    private static FileBackedTaskManager load(File file, StorageOptions options) {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), options);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.managers.InMemoryHistoryManager;
+import ru.yandex.practicum.tracker.managers.InMemoryTaskManager;
+import ru.yandex.practicum.tracker.managers.TaskManager;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+
+import java.util.List;
+import java.util.Random;
+
+// Compares the epic -> subtask index with a scan over all subtasks while the number of epics
+// and subtasks grows. The lookup time of the index should depend only on the number of children.
+// Run with: java -cp <classpath> ru.yandex.practicum.tracker.benchmarks.EpicSubtaskIndexBenchmark
+public class EpicSubtaskIndexBenchmark {
+    private static final int[] EPIC_COUNTS = {10, 100, 1_000};
+    private static final int[] SUBTASKS_PER_EPIC = {10, 100};
+    private static final int LOOKUPS = 20_000;
+
+    public static void main(String[] args) {
+        for (int epicCount : EPIC_COUNTS) {
+            for (int subtasksPerEpic : SUBTASKS_PER_EPIC) {
+                run(epicCount, subtasksPerEpic);
+            }
+        }
+    }
+
+    private static void run(int epicCount, int subtasksPerEpic) {
+        TaskManager manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        long[] epicIds = new long[epicCount];
+        for (int i = 0; i < epicCount; i++) {
+            epicIds[i] = manager.createEpic(new Epic("Epic " + i, ""));
+            for (int j = 0; j < subtasksPerEpic; j++) {
+                // Subtasks without time so that the scheduler doesn't take part in the measurement.
+                manager.createSubtask(new Subtask("Subtask " + j, "", null, null, epicIds[i]));
+            }
+        }
+        List<Subtask> allSubtasks = manager.getSubtaskList();
+
+        Random random = new Random(42);
+        long[] lookups = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = epicIds[random.nextInt(epicCount)];
+        }
+
+        // Warm-up pass.
+        lookupWithIndex(manager, lookups);
+        lookupWithScan(allSubtasks, lookups);
+
+        long start = System.nanoTime();
+        long indexFound = lookupWithIndex(manager, lookups);
+        long indexTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long scanFound = lookupWithScan(allSubtasks, lookups);
+        long scanTime = System.nanoTime() - start;
+
+        System.out.printf("%5d epics x %3d subtasks: index %9.1f ns/lookup, scan %11.1f ns/lookup (%d/%d found)%n",
+                epicCount, subtasksPerEpic, (double) indexTime / LOOKUPS, (double) scanTime / LOOKUPS,
+                indexFound, scanFound);
+    }
+
+    private static long lookupWithIndex(TaskManager manager, long[] lookups) {
+        long found = 0;
+        for (long epicId : lookups) {
+            found += manager.getSubtaskListForEpic(epicId).size();
+        }
+        return found;
+    }
+
+    // The former implementation of getSubtaskListForEpic.
+    private static long lookupWithScan(List<Subtask> subtasks, long[] lookups) {
+        long found = 0;
+        for (long epicId : lookups) {
+            found += subtasks.stream()
+                    .filter(s -> s.getParentEpicId() == epicId)
+                    .map(Subtask::new).toList().size();
+        }
+        return found;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.managers.FileBackedTaskManager;
+import ru.yandex.practicum.tracker.managers.Managers;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.BinarySnapshot;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cold start of a board with a million tasks from a CSV and from a binary snapshot. The files are
+// written directly, the load goes through FileBackedTaskManager.loadFromFile.
+// Run with: java -Xmx4g -cp <classpath> ru.yandex.practicum.tracker.benchmarks.SnapshotLoadBenchmark
+public class SnapshotLoadBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int SUBTASKS_PER_EPIC = 9;
+
+    public static void main(String[] args) throws IOException {
+        List<Task> tasks = createTasks();
+
+        File csvFile = File.createTempFile("tasks-benchmark-", ".csv");
+        TaskSerializer serializer = new TaskSerializer(",", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        StringBuilder content = new StringBuilder(serializer.getTitle());
+        for (Task task : tasks) {
+            content.append(System.lineSeparator()).append(serializer.toString(task));
+        }
+        Files.writeString(csvFile.toPath(), content, StandardCharsets.UTF_8);
+
+        File binaryFile = File.createTempFile("tasks-benchmark-", ".bin");
+        Files.write(binaryFile.toPath(), BinarySnapshot.write(tasks));
+
+        for (int round = 0; round < 3; round++) {
+            measure("csv", csvFile, SnapshotFormat.CSV);
+            measure("binary", binaryFile, SnapshotFormat.BINARY);
+        }
+        csvFile.deleteOnExit();
+        binaryFile.deleteOnExit();
+    }
+
+    // Every tenth task is an epic followed by its subtasks, every subtask takes its own time slot.
+    private static List<Task> createTasks() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withSecond(0).withNano(0);
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        long epicId = 0;
+        for (long id = 1; id <= TASK_COUNT; id++) {
+            Task task;
+            if (id % (SUBTASKS_PER_EPIC + 1) == 1) {
+                task = new Epic("Epic " + id, "");
+                epicId = id;
+            } else {
+                task = new Subtask("Subtask " + id, "", start.plusMinutes(id * 10), Duration.ofMinutes(5), epicId);
+            }
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void measure(String name, File file, SnapshotFormat format) {
+        StorageOptions options = StorageOptions.defaults().withFormat(format);
+        long start = System.nanoTime();
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), options);
+        long time = System.nanoTime() - start;
+
+        System.out.printf("%-6s %,d bytes: loaded %d subtasks in %d ms%n", name, file.length(),
+                manager.getSubtaskList().size(), time / 1_000_000);
+    }
+}
\ No newline at end of file
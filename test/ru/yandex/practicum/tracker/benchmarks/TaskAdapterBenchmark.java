@@ -0,0 +1,80 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import ru.yandex.practicum.tracker.api.adapters.Adapters;
+import ru.yandex.practicum.tracker.api.adapters.DurationAdapter;
+import ru.yandex.practicum.tracker.api.adapters.LocalDateTimeAdapter;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// JSON throughput of the task adapters against the reflective Gson the handlers used before. The reflective
+// path reads every value as a plain Task, the adapters restore epics and subtasks from the "type" field.
+// Run with: java -Xmx2g -cp <classpath> ru.yandex.practicum.tracker.benchmarks.TaskAdapterBenchmark
+public class TaskAdapterBenchmark {
+    private static final int TASK_COUNT = 200_000;
+    private static final int SUBTASKS_PER_EPIC = 9;
+    private static final Type LIST_TYPE = new TypeToken<List<Task>>() {
+    }.getType();
+
+    public static void main(String[] args) {
+        List<Task> tasks = createTasks();
+        Gson reflective = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+                .registerTypeAdapter(Duration.class, new DurationAdapter().nullSafe())
+                .create();
+
+        for (int round = 0; round < 5; round++) {
+            measure("reflective", reflective, tasks);
+            measure("adapters", Adapters.getGson(), tasks);
+            System.out.println();
+        }
+    }
+
+    // Every tenth task is an epic followed by its subtasks.
+    private static List<Task> createTasks() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withSecond(0).withNano(0);
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        Epic epic = null;
+        for (long id = 1; id <= TASK_COUNT; id++) {
+            Task task;
+            if (id % (SUBTASKS_PER_EPIC + 1) == 1) {
+                epic = new Epic("Epic " + id, "Release " + id / 1000);
+                task = epic;
+            } else {
+                task = new Subtask("Subtask " + id, "Description", start.plusMinutes(id * 10), Duration.ofMinutes(5),
+                        epic.getId());
+                task.setStatus((id % 3 == 0) ? Status.DONE : Status.NEW);
+                epic.addSubtaskId(id);
+            }
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void measure(String name, Gson gson, List<Task> tasks) {
+        long start = System.nanoTime();
+        String json = gson.toJson(tasks, LIST_TYPE);
+        long writeTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Task> read = gson.fromJson(json, LIST_TYPE);
+        long readTime = System.nanoTime() - start;
+        if (read.size() != tasks.size()) {
+            throw new IllegalStateException(name + " read " + read.size() + " of " + tasks.size() + " tasks");
+        }
+
+        System.out.printf("%-10s %,12d chars, write %,10d tasks/s, read %,10d tasks/s%n", name, json.length(),
+                tasks.size() * 1_000_000_000L / writeTime, tasks.size() * 1_000_000_000L / readTime);
+    }
+}
\ No newline at end of file
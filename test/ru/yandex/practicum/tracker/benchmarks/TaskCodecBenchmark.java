@@ -0,0 +1,75 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.codecs.TaskCodec;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Size and throughput of every built-in codec on the same board, so that a format can be picked per
+// deployment. Encoding goes into one array, decoding reads from a stream, like HTTP bodies do.
+// Run with: java -Xmx2g -cp <classpath> ru.yandex.practicum.tracker.benchmarks.TaskCodecBenchmark
+public class TaskCodecBenchmark {
+    private static final int TASK_COUNT = 200_000;
+    private static final int SUBTASKS_PER_EPIC = 9;
+
+    public static void main(String[] args) throws IOException {
+        List<Task> tasks = createTasks();
+
+        for (int round = 0; round < 3; round++) {
+            for (TaskCodec codec : TaskCodecs.getBuiltIn()) {
+                measure(codec, tasks);
+            }
+            System.out.println();
+        }
+    }
+
+    // Every tenth task is an epic followed by its subtasks, a few of them with text which needs escaping.
+    private static List<Task> createTasks() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withSecond(0).withNano(0);
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        long epicId = 0;
+        for (long id = 1; id <= TASK_COUNT; id++) {
+            Task task;
+            if (id % (SUBTASKS_PER_EPIC + 1) == 1) {
+                task = new Epic("Epic " + id, "Release " + id / 1000);
+                epicId = id;
+            } else {
+                String description = (id % 7 == 0) ? "Fix \"login\", then deploy" : "Description";
+                task = new Subtask("Subtask " + id, description, start.plusMinutes(id * 10), Duration.ofMinutes(5),
+                        epicId);
+                task.setStatus((id % 3 == 0) ? Status.DONE : Status.NEW);
+            }
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void measure(TaskCodec codec, List<Task> tasks) throws IOException {
+        long start = System.nanoTime();
+        byte[] content = codec.encode(tasks);
+        long encodeTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int read = codec.read(new ByteArrayInputStream(content)).size();
+        long decodeTime = System.nanoTime() - start;
+        if (read != tasks.size()) {
+            throw new IllegalStateException(codec.getName() + " read " + read + " of " + tasks.size() + " tasks");
+        }
+
+        System.out.printf("%-6s %,12d bytes, %5.1f bytes/task, encode %,10d tasks/s %6.1f MB/s, "
+                        + "decode %,10d tasks/s %6.1f MB/s%n", codec.getName(), content.length,
+                (double) content.length / tasks.size(),
+                tasks.size() * 1_000_000_000L / encodeTime, content.length * 1000.0 / encodeTime,
+                tasks.size() * 1_000_000_000L / decodeTime, content.length * 1000.0 / decodeTime);
+    }
+}
\ No newline at end of file
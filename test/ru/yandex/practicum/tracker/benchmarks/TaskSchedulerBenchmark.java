@@ -0,0 +1,160 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.IntervalTaskScheduler;
+import ru.yandex.practicum.tracker.utils.SlotTaskScheduler;
+import ru.yandex.practicum.tracker.utils.TaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Compares the scheduler engines with the former HashMap-based one on a one year range.
+// Run with: java -cp <classpath> ru.yandex.practicum.tracker.benchmarks.TaskSchedulerBenchmark
+public class TaskSchedulerBenchmark {
+    private static final int INSTANCES = 20;
+    private static final int OPERATIONS = 200_000;
+
+    public static void main(String[] args) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> shortTasks = randomTasks(now, OPERATIONS, Duration.ofMinutes(15), Duration.ofHours(8));
+        List<Task> longTasks = randomTasks(now, OPERATIONS / 10, Duration.ofDays(7), Duration.ofDays(90));
+
+        System.out.println("Short tasks (15 minutes - 8 hours):");
+        run("HashMap", () -> new LegacyTaskScheduler(now, now.plusYears(1)), shortTasks);
+        run("Bitmap", () -> new SlotTaskScheduler(now, now.plusYears(1)), shortTasks);
+        run("Interval", () -> new IntervalTaskScheduler(now, now.plusYears(1)), shortTasks);
+
+        System.out.println("Long tasks (1 week - 3 months):");
+        run("HashMap", () -> new LegacyTaskScheduler(now, now.plusYears(1)), longTasks);
+        run("Bitmap", () -> new SlotTaskScheduler(now, now.plusYears(1)), longTasks);
+        run("Interval", () -> new IntervalTaskScheduler(now, now.plusYears(1)), longTasks);
+    }
+
+    private static void run(String name, Supplier<TaskScheduler> factory, List<Task> tasks) {
+        long before = usedMemory();
+        long constructionStart = System.nanoTime();
+        TaskScheduler[] schedulers = new TaskScheduler[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            schedulers[i] = factory.get();
+        }
+        long constructionTime = System.nanoTime() - constructionStart;
+        long memoryPerInstance = Math.max(0, usedMemory() - before) / INSTANCES;
+
+        TaskScheduler scheduler = schedulers[0];
+        // Warm-up pass.
+        exercise(scheduler, tasks);
+
+        long start = System.nanoTime();
+        int booked = exercise(scheduler, tasks);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-8s construction: %6.2f ms/instance, memory: %8d KiB/instance, "
+                        + "check+add+remove: %6.1f ns/op (%d booked)%n",
+                name, constructionTime / 1e6 / INSTANCES, memoryPerInstance / 1024,
+                (double) elapsed / (tasks.size() * 3L), booked);
+    }
+
+    private static int exercise(TaskScheduler scheduler, List<Task> tasks) {
+        int booked = 0;
+        for (Task task : tasks) {
+            if (scheduler.isAvailable(task.getStartTime(), task.getEndTime()) && scheduler.addSchedule(task)) {
+                booked++;
+            }
+        }
+        for (Task task : tasks) {
+            scheduler.removeSchedule(task);
+        }
+        return booked;
+    }
+
+    private static List<Task> randomTasks(LocalDateTime now, int count, Duration minDuration, Duration maxDuration) {
+        Random random = new Random(42);
+        LocalDateTime from = now.plusDays(1);
+        long maxStart = Duration.ofDays(360).minus(maxDuration).toMinutes();
+        long spread = maxDuration.minus(minDuration).toMinutes();
+        return random.longs(count, 0, maxStart).mapToObj(minute -> new Task("Task", "", from.plusMinutes(minute),
+                minDuration.plusMinutes((long) (random.nextDouble() * spread)))).toList();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Copy of the former implementation which kept one boxed entry per 15-minute slot.
+    private static class LegacyTaskScheduler implements TaskScheduler {
+        private static final int INTERVAL_MINUTES = 15;
+        private static final boolean INTERVAL_FREE = true;
+        private static final boolean INTERVAL_BUSY = false;
+
+        private final Map<LocalDateTime, Boolean> intervals;
+
+        LegacyTaskScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+            intervals = new HashMap<>();
+            changeIntervalStatus(initDateTime, endDateTime, INTERVAL_FREE);
+        }
+
+        @Override
+        public boolean addSchedule(Task task) {
+            if (isAvailable(task.getStartTime(), task.getEndTime())) {
+                changeIntervalStatus(task.getStartTime(), task.getEndTime(), INTERVAL_BUSY);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void removeSchedule(Task task) {
+            changeIntervalStatus(task.getStartTime(), task.getEndTime(), INTERVAL_FREE);
+        }
+
+        @Override
+        public boolean isAvailable(LocalDateTime startTime, LocalDateTime endTime) {
+            LocalDateTime current = roundToNearestInterval(startTime);
+            while (current.isBefore(endTime) || current.isEqual(endTime)) {
+                Boolean available = intervals.get(current);
+                if (available == null) {
+                    throw new IllegalArgumentException("Start time is out of range");
+                } else if (available == INTERVAL_BUSY) {
+                    return false;
+                }
+                current = current.plusMinutes(INTERVAL_MINUTES);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isInRange(LocalDateTime dateTime) {
+            return intervals.containsKey(roundToNearestInterval(dateTime));
+        }
+
+        @Override
+        public Optional<LocalDateTime> findEarliestSlot(Duration duration, LocalDateTime notBefore,
+                                                        LocalDateTime notAfter) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static LocalDateTime roundToNearestInterval(LocalDateTime dateTime) {
+            dateTime = dateTime.truncatedTo(ChronoUnit.MINUTES);
+            return dateTime.withMinute(INTERVAL_MINUTES * (dateTime.getMinute() / INTERVAL_MINUTES));
+        }
+
+        private void changeIntervalStatus(LocalDateTime startTime, LocalDateTime endTime, boolean status) {
+            LocalDateTime current = roundToNearestInterval(startTime);
+            while (current.isBefore(endTime) || current.isEqual(endTime)) {
+                intervals.put(current, status);
+                current = current.plusMinutes(INTERVAL_MINUTES);
+            }
+        }
+    }
+}
\ No newline at end of file
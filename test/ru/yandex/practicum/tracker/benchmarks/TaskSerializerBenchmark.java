@@ -0,0 +1,71 @@
+package ru.yandex.practicum.tracker.benchmarks;
+
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.TaskSerializer;
+
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Throughput and allocation of writing rows into one buffer and reading them back from it, the way
+// snapshots are written and read.
+// Run with: java -cp <classpath> ru.yandex.practicum.tracker.benchmarks.TaskSerializerBenchmark
+public class TaskSerializerBenchmark {
+    private static final int TASK_COUNT = 500_000;
+
+    public static void main(String[] args) {
+        TaskSerializer serializer = new TaskSerializer(",", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        List<Task> tasks = createTasks();
+        StringBuilder content = new StringBuilder(TASK_COUNT * 96);
+
+        for (int round = 0; round < 5; round++) {
+            content.setLength(0);
+            long allocated = getAllocatedBytes();
+            long start = System.nanoTime();
+            for (Task task : tasks) {
+                serializer.write(task, content);
+                content.append('\n');
+            }
+            report("write", System.nanoTime() - start, getAllocatedBytes() - allocated);
+
+            CharBuffer buffer = CharBuffer.wrap(content);
+            allocated = getAllocatedBytes();
+            start = System.nanoTime();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.length(); i++) {
+                if (buffer.charAt(i) == '\n') {
+                    serializer.fromString(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            report("read", System.nanoTime() - start, getAllocatedBytes() - allocated);
+        }
+    }
+
+    // Half of the names need quotes, every subtask has its own time.
+    private static List<Task> createTasks() {
+        LocalDateTime start = LocalDateTime.now().withSecond(0).withNano(0);
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        for (long id = 1; id <= TASK_COUNT; id++) {
+            String name = (id % 2 == 0) ? "Subtask " + id : "Subtask, \"quoted\" " + id;
+            Task task = new Subtask(name, "Description", start.plusMinutes(id * 10), Duration.ofMinutes(5), 1);
+            task.setId(id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static void report(String name, long time, long allocated) {
+        System.out.printf("%-5s %,d rows in %d ms, %,d rows/s, %d bytes allocated per row%n", name, TASK_COUNT,
+                time / 1_000_000, TASK_COUNT * 1_000_000_000L / time, allocated / TASK_COUNT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tracker.codecs;
+
+class BinaryTaskCodecTest extends TaskCodecTest {
+    @Override
+    protected TaskCodec getCodec() {
+        return TaskCodecs.BINARY;
+    }
+}
\ No newline at end of file
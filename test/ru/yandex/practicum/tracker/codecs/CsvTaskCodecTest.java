@@ -0,0 +1,44 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTaskCodecTest extends TaskCodecTest {
+    @Override
+    protected TaskCodec getCodec() {
+        return TaskCodecs.CSV;
+    }
+
+    @Test
+    public void shouldReadFileWithoutTitleAndWithEmptyLinesLikeStream() throws IOException {
+        Task task = new Task("Task", "", null, null);
+        task.setId(1);
+        Epic epic = new Epic("Epic", "");
+        epic.setId(2);
+        String encoded = new String(getCodec().encode(List.of(task, epic)), StandardCharsets.UTF_8);
+        String[] lines = encoded.split(System.lineSeparator());
+        byte[] content = (lines[1] + "\n\n" + lines[2] + "\r\n\n").getBytes(StandardCharsets.UTF_8);
+
+        Path file = Files.createTempFile("tasks-csv-", ".csv");
+        try {
+            Files.write(file, content);
+
+            List<Task> fromFile = getCodec().read(file);
+            assertEquals(List.of(task, epic), fromFile, "Задачи файла без заголовка прочитаны неверно");
+            assertEquals(getCodec().read(new ByteArrayInputStream(content)), fromFile,
+                    "Файл и поток прочитаны по-разному");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tracker.codecs;
+
+class JsonLinesTaskCodecTest extends TaskCodecTest {
+    @Override
+    protected TaskCodec getCodec() {
+        return TaskCodecs.JSON_LINES;
+    }
+}
\ No newline at end of file
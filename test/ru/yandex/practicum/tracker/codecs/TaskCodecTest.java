@@ -0,0 +1,113 @@
+package ru.yandex.practicum.tracker.codecs;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+abstract class TaskCodecTest {
+    protected abstract TaskCodec getCodec();
+
+    @Test
+    public void shouldReadAllFieldsAndTypesOfWrittenTasks() throws IOException {
+        List<Task> tasks = createTasks();
+
+        List<Task> read = getCodec().read(new ByteArrayInputStream(getCodec().encode(tasks)));
+
+        assertEquals(tasks.size(), read.size(), "Неверное количество прочитанных задач");
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTaskEquals(tasks.get(i), read.get(i));
+        }
+        assertEquals(((Subtask) tasks.get(2)).getParentEpicId(), ((Subtask) read.get(2)).getParentEpicId(),
+                "Эпик подзадачи отличается после чтения");
+    }
+
+    @Test
+    public void shouldWriteSameBytesToStreamAsEncode() throws IOException {
+        List<Task> tasks = createTasks();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        getCodec().write(tasks, out);
+
+        assertArrayEquals(getCodec().encode(tasks), out.toByteArray(), "Запись в поток отличается от кодирования");
+    }
+
+    @Test
+    public void shouldReadNoTasksFromEncodedEmptyList() throws IOException {
+        byte[] content = getCodec().encode(List.of());
+
+        assertTrue(getCodec().read(new ByteArrayInputStream(content)).isEmpty(), "Прочитаны лишние задачи");
+    }
+
+    @Test
+    public void shouldBeDetectedByContentOfFile() throws IOException {
+        Path file = Files.createTempFile("tasks-codec-", ".tmp");
+        try {
+            Files.write(file, getCodec().encode(createTasks()));
+
+            assertSame(getCodec(), TaskCodecs.detect(file, TaskCodecs.CSV), "Формат файла не распознан");
+            assertEquals(createTasks().size(), getCodec().read(file).size(), "Неверное количество задач в файле");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void shouldBeFoundByContentTypeWithParameters() {
+        String contentType = getCodec().getContentType().toUpperCase() + "; charset=UTF-8";
+
+        assertSame(getCodec(), TaskCodecs.forContentType(contentType).orElseThrow(), "Кодек не найден по типу");
+    }
+
+    @Test
+    public void shouldThrowTaskFormatExceptionWhenInputIsBroken() {
+        byte[] content = getCodec().encode(createTasks());
+        byte[] broken = Arrays.copyOf(content, content.length / 2 + 1);
+        broken[broken.length - 1] = '"';
+        byte[] garbage = "1,Unknown,x\n".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(TaskFormatException.class, () -> getCodec().read(new ByteArrayInputStream(broken)),
+                "Обрезанные данные прочитаны без ошибки");
+        assertThrows(TaskFormatException.class, () -> getCodec().read(new ByteArrayInputStream(garbage)),
+                "Неизвестные данные прочитаны без ошибки");
+    }
+
+    // A task without time, an epic and a subtask with text which needs escaping in every format.
+    private static List<Task> createTasks() {
+        Task task = new Task("Задача", "Описание, с \"кавычками\"\nи переносом", null, null);
+        task.setId(1);
+        Epic epic = new Epic("Epic", "");
+        epic.setId(2);
+        epic.setStatus(Status.IN_PROGRESS);
+        Subtask subtask = new Subtask("Subtask", "{\"type\":\"Task\"}",
+                LocalDateTime.of(2024, 5, 1, 10, 30, 15), Duration.ofMinutes(45), 2);
+        subtask.setId(3);
+        subtask.setStatus(Status.DONE);
+        return List.of(task, epic, subtask);
+    }
+
+    private static void assertTaskEquals(Task expected, Task actual) {
+        assertEquals(expected.getClass(), actual.getClass(), "Тип задачи отличается после чтения");
+        assertEquals(expected.getId(), actual.getId(), "Идентификатор отличается после чтения");
+        assertEquals(expected.getName(), actual.getName(), "Название отличается после чтения");
+        assertEquals(expected.getDescription(), actual.getDescription(), "Описание отличается после чтения");
+        assertEquals(expected.getStatus(), actual.getStatus(), "Статус отличается после чтения");
+        assertEquals(expected.getStartTime(), actual.getStartTime(), "Время начала отличается после чтения");
+        assertEquals(expected.getDuration(), actual.getDuration(), "Длительность отличается после чтения");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.ArchivePolicy;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+import ru.yandex.practicum.tracker.storage.TaskStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    // Tasks of the next days are already old for the policy, so that they still book their time.
+    private static final ArchivePolicy POLICY = ArchivePolicy.doneOlderThan(Duration.ofDays(1),
+            Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(10)));
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withJournal(100).withArchive(POLICY);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-archive-", ".csv");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldMoveDoneTasksToArchiveAndStillReturnThem() {
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = createDone(new Subtask("Subtask", "Subtask", startTime, Duration.ofMinutes(30), epicId));
+        long taskId = createDone(new Task("Task", "Task", startTime.plusHours(1), Duration.ofMinutes(30)));
+        long activeId = taskManager.createTask(new Task("Active", "Active", startTime.plusHours(2),
+                Duration.ofMinutes(30)));
+
+        assertEquals(2, taskManager.archiveTasks(), "Неверное количество архивированных задач");
+
+        assertEquals(Status.DONE, taskManager.getTaskById(taskId).orElseThrow().getStatus(),
+                "Задача не прочитана из архива");
+        assertEquals(subtaskId, taskManager.getSubtaskById(subtaskId).orElseThrow().getId(),
+                "Подзадача не прочитана из архива");
+        assertEquals(2, taskManager.getTaskList().size(), "Список задач неполный");
+        assertEquals(1, taskManager.getSubtaskListForEpic(epicId).size(), "Подзадачи эпика неполные");
+        assertEquals(Status.DONE, taskManager.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика изменён архивированием");
+        assertEquals(activeId, taskManager.getPrioritizedTasks().getLast().getId(),
+                "Архивированные задачи остались в списке приоритетов");
+        assertTrue(taskManager.checkIntersection(new Task("New", "New", startTime.plusHours(1),
+                Duration.ofMinutes(30))), "Время архивированной задачи не освобождено");
+        assertEquals(0, taskManager.archiveTasks(), "Задачи архивированы повторно");
+    }
+
+    @Test
+    public void shouldKeepArchivedTasksAfterLoad() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = createDone(new Subtask("Subtask", "Subtask", null, null, epicId));
+        long taskId = createDone(new Task("Task", "Task", null, null));
+        taskManager.archiveTasks();
+
+        FileBackedTaskManager loaded = load(OPTIONS);
+
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Архивированная задача потеряна");
+        assertEquals(subtaskId, loaded.getSubtaskListForEpic(epicId).getFirst().getId(),
+                "Архивированная подзадача не привязана к эпику");
+        assertEquals(Status.DONE, loaded.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика не учитывает архивированные подзадачи");
+        long newId = loaded.createTask(new Task("New", "New", null, null));
+        assertTrue(newId > Math.max(taskId, subtaskId), "Идентификатор архивированной задачи выдан повторно");
+
+        FileBackedTaskManager withoutArchive = load(StorageOptions.defaults());
+
+        assertEquals(3, withoutArchive.getTaskList().size() + withoutArchive.getSubtaskList().size(),
+                "Задачи не возвращены из архива");
+        assertFalse(Files.exists(getArchivePath()), "Файл архива не удалён");
+    }
+
+    @Test
+    public void shouldReturnArchivedTaskToMemoryWhenItIsChanged() {
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long firstId = createDone(new Subtask("First", "First", null, null, epicId));
+        long secondId = createDone(new Subtask("Second", "Second", null, null, epicId));
+        long taskId = createDone(new Task("Task", "Task", startTime, Duration.ofMinutes(30)));
+        taskManager.archiveTasks();
+
+        Task task = taskManager.getTaskById(taskId).orElseThrow();
+        task.setStatus(Status.IN_PROGRESS);
+        taskManager.updateTask(task);
+        Subtask first = taskManager.getSubtaskById(firstId).orElseThrow();
+        first.setStatus(Status.NEW);
+        taskManager.updateSubtask(first);
+        taskManager.removeSubtask(secondId);
+
+        assertEquals(taskId, taskManager.getPrioritizedTasks().getFirst().getId(),
+                "Изменённая задача не возвращена в список приоритетов");
+        assertEquals(Status.NEW, taskManager.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика не пересчитан");
+        assertEquals(0, taskManager.archiveTasks(), "Изменённые задачи архивированы снова");
+
+        FileBackedTaskManager loaded = load(OPTIONS);
+
+        assertEquals(Status.IN_PROGRESS, loaded.getTaskById(taskId).orElseThrow().getStatus(),
+                "Изменение архивированной задачи потеряно");
+        assertTrue(loaded.getSubtaskById(secondId).isEmpty(), "Удалённая подзадача осталась в архиве");
+        assertEquals(1, loaded.getSubtaskList().size(), "Неверное количество подзадач");
+    }
+
+    @Test
+    public void shouldCutInterruptedLastArchiveRecord() throws IOException {
+        long taskId = createDone(new Task("Task", "Task", null, null));
+        taskManager.archiveTasks();
+        Files.writeString(getArchivePath(), "+42,Task,Bro", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = load(OPTIONS);
+        Task done = new Task("Done", "Done", null, null);
+        done.setStatus(Status.DONE);
+        loaded.createTask(done);
+        loaded.archiveTasks();
+
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Архивированная задача потеряна");
+        assertEquals(2, load(OPTIONS).getTaskList().size(), "Архив повреждён после оборванной записи");
+    }
+
+    private long createDone(Task task) {
+        task.setStatus(Status.DONE);
+        return (task instanceof Subtask subtask) ? taskManager.createSubtask(subtask) : taskManager.createTask(task);
+    }
+
+    private Path getArchivePath() {
+        return TaskStore.getArchivePath(file.toPath());
+    }
+
+    private FileBackedTaskManager load(StorageOptions options) {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), options);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.BinarySnapshot;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withFormat(SnapshotFormat.BINARY);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-binary-", ".bin");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldSaveAndLoadAllFieldsOfTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        long epicId = taskManager.createEpic(new Epic("Эпик", "Описание, с запятой"));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "", now.plusHours(1),
+                Duration.ofMinutes(15), epicId));
+        long taskId = taskManager.createTask(new Task("Task", "Task", now.plusDays(1), Duration.ofMinutes(90)));
+        long emptyTaskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        Subtask subtask = taskManager.getSubtaskById(subtaskId).orElseThrow();
+        subtask.setStatus(Status.IN_PROGRESS);
+        taskManager.updateSubtask(subtask);
+
+        FileBackedTaskManager loaded = load();
+
+        assertTaskEquals(taskManager.getTaskById(taskId).orElseThrow(), loaded.getTaskById(taskId).orElseThrow());
+        assertTaskEquals(taskManager.getTaskById(emptyTaskId).orElseThrow(),
+                loaded.getTaskById(emptyTaskId).orElseThrow());
+        assertTaskEquals(taskManager.getSubtaskById(subtaskId).orElseThrow(),
+                loaded.getSubtaskById(subtaskId).orElseThrow());
+        assertTaskEquals(taskManager.getEpicById(epicId).orElseThrow(), loaded.getEpicById(epicId).orElseThrow());
+        assertEquals(epicId, loaded.getSubtaskById(subtaskId).orElseThrow().getParentEpicId(),
+                "Эпик подзадачи не загружен");
+        assertEquals(taskManager.getPrioritizedTasks(), loaded.getPrioritizedTasks(),
+                "Список приоритетов отличается после загрузки");
+    }
+
+    @Test
+    public void shouldLoadCsvFileWithBinaryOptionsAndSaveItAsBinary() {
+        FileBackedTaskManager csvManager = new FileBackedTaskManager(Managers.getDefaultHistory(), file.getPath());
+        long taskId = csvManager.createTask(new Task("Task", "Task", null, null));
+
+        FileBackedTaskManager loaded = load();
+        loaded.save();
+
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Задача из CSV файла не загружена");
+        assertTrue(load().getTaskById(taskId).isPresent(), "Задача не загружена из бинарного снимка");
+        assertTrue(BinarySnapshot.isBinary(file.toPath()), "Снимок записан не в бинарном формате");
+    }
+
+    @Test
+    public void shouldThrowWhenBinarySnapshotIsTruncated() throws IOException {
+        taskManager.createTask(new Task("Task", "Task", null, null));
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 1));
+
+        assertThrows(ManagerLoadException.class, this::load, "Обрезанный снимок загружен без ошибки");
+    }
+
+    private FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), OPTIONS);
+    }
+
+    private static void assertTaskEquals(Task expected, Task actual) {
+        assertEquals(expected.getClass(), actual.getClass(), "Тип задачи отличается после загрузки");
+        assertEquals(expected.getName(), actual.getName(), "Название отличается после загрузки");
+        assertEquals(expected.getDescription(), actual.getDescription(), "Описание отличается после загрузки");
+        assertEquals(expected.getStatus(), actual.getStatus(), "Статус отличается после загрузки");
+        assertEquals(expected.getStartTime(), actual.getStartTime(), "Время начала отличается после загрузки");
+        assertEquals(expected.getDuration(), actual.getDuration(), "Длительность отличается после загрузки");
+    }
+}
\ No newline at end of file
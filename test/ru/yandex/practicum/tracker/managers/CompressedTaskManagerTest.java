@@ -0,0 +1,133 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.CompressedSnapshot;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+import ru.yandex.practicum.tracker.storage.TaskStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withCompression(6);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-compressed-", ".csv.gz");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldSaveCompressedSnapshotAndLoadIt() {
+        LocalDateTime now = LocalDateTime.now();
+        long epicId = taskManager.createEpic(new Epic("Эпик", "Описание, с запятой"));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "", now.plusHours(1),
+                Duration.ofMinutes(15), epicId));
+        for (int i = 0; i < 50; i++) {
+            taskManager.createTask(new Task("Task " + i, "Task", now.plusDays(i + 1), Duration.ofMinutes(30)));
+        }
+        Subtask subtask = taskManager.getSubtaskById(subtaskId).orElseThrow();
+        subtask.setStatus(Status.DONE);
+        taskManager.updateSubtask(subtask);
+
+        FileBackedTaskManager loaded = load(OPTIONS);
+
+        assertTrue(CompressedSnapshot.isCompressed(file.toPath()), "Снимок записан без сжатия");
+        assertEquals(taskManager.getTaskList(), loaded.getTaskList(), "Задачи отличаются после загрузки");
+        assertEquals(Status.DONE, loaded.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика не рассчитан после загрузки");
+        assertEquals(taskManager.getPrioritizedTasks(), loaded.getPrioritizedTasks(),
+                "Список приоритетов отличается после загрузки");
+    }
+
+    @Test
+    public void shouldReportCompressionRatioAndTimes() {
+        for (int i = 0; i < 100; i++) {
+            taskManager.createTask(new Task("Task " + i, "Description", null, null));
+        }
+        StorageMetrics metrics = taskManager.getStorageMetrics();
+
+        assertTrue(metrics.getCompressionRatio() > 1, "Сжатие не уменьшило снимки");
+        assertTrue(metrics.getRawSnapshotBytes() > metrics.getSnapshotBytes(), "Неверный размер несжатых снимков");
+        assertTrue(metrics.getLastSnapshotNanos() > 0, "Время записи снимка не учтено");
+        assertTrue(load(OPTIONS).getStorageMetrics().getLoadNanos() > 0, "Время загрузки не учтено");
+    }
+
+    @Test
+    public void shouldLoadCompressedSnapshotOfAnyCodecWithPlainOptions() {
+        StorageOptions options = OPTIONS.withFormat(SnapshotFormat.JSON_LINES);
+        FileBackedTaskManager jsonManager = new FileBackedTaskManager(Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), file.getPath(), options);
+        long taskId = jsonManager.createTask(new Task("Task", "Task", null, null));
+
+        FileBackedTaskManager loaded = load(StorageOptions.defaults());
+        loaded.save();
+
+        assertEquals("Task", loaded.getTaskById(taskId).orElseThrow().getName(), "Задача не загружена");
+        assertFalse(CompressedSnapshot.isCompressed(file.toPath()), "Снимок сжат без настройки сжатия");
+        assertTrue(load(OPTIONS).getTaskById(taskId).isPresent(), "Задача не загружена из несжатого снимка");
+    }
+
+    @Test
+    public void shouldCompressSegments() throws IOException {
+        StorageOptions options = OPTIONS.withSegments(10);
+        FileBackedTaskManager segmented = new FileBackedTaskManager(Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), file.getPath(), options);
+        for (int i = 0; i < 25; i++) {
+            segmented.createTask(new Task("Task " + i, "", null, null));
+        }
+
+        List<Path> segmentFiles = TaskStore.getSegmentFiles(file.toPath());
+
+        assertEquals(3, segmentFiles.size(), "Неверное количество сегментов");
+        assertTrue(segmentFiles.stream().allMatch(CompressedSnapshot::isCompressed), "Сегменты записаны без сжатия");
+        assertEquals(25, load(options).getTaskList().size(), "Задачи сегментов не загружены");
+        for (Path segmentFile : segmentFiles) {
+            Files.delete(segmentFile);
+        }
+        Files.delete(TaskStore.getSegmentsPath(file.toPath()));
+    }
+
+    @Test
+    public void shouldThrowWhenCompressedSnapshotIsTruncated() throws IOException {
+        taskManager.createTask(new Task("Task", "Task", null, null));
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 10));
+
+        assertThrows(ManagerLoadException.class, () -> load(OPTIONS), "Обрезанный снимок загружен без ошибки");
+    }
+
+    @Test
+    public void shouldRejectLazyLoadingWithCompression() {
+        assertThrows(IllegalArgumentException.class, () -> new FileBackedTaskManager(Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), file.getPath(),
+                OPTIONS.withLazyLoading(10)), "Ленивая загрузка включена для сжатого снимка");
+    }
+
+    private FileBackedTaskManager load(StorageOptions options) {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), options);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,229 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.TasksIntersectException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.MutableClock;
+import ru.yandex.practicum.tracker.utils.SegmentedTaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2_000;
+    private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Override
+    protected ConcurrentTaskManager getTaskManager() {
+        return new ConcurrentTaskManager(Managers.getDefaultHistory());
+    }
+
+    @Test
+    public void shouldFreeRestOfStartedTaskWhenItIsRemoved() {
+        MutableClock clock = new MutableClock(MORNING);
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory(),
+                new SegmentedTaskScheduler(clock, Period.ofYears(1)));
+        long id = manager.createTask(new Task("Long", "", MORNING.plusHours(1), Duration.ofHours(4)));
+
+        clock.set(MORNING.plusHours(3));
+        manager.removeTask(id);
+
+        assertDoesNotThrow(() -> manager.createTask(new Task("Next", "", MORNING.plusHours(4),
+                Duration.ofMinutes(30))), "Время начатой задачи не освобождено");
+    }
+
+    @Test
+    public void shouldFreeOldTimeOfStartedTaskWhenItIsMoved() {
+        MutableClock clock = new MutableClock(MORNING);
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(Managers.getDefaultHistory(),
+                new SegmentedTaskScheduler(clock, Period.ofYears(1)));
+        long id = manager.createTask(new Task("Long", "", MORNING.plusHours(1), Duration.ofHours(4)));
+
+        clock.set(MORNING.plusHours(3));
+        Task moved = manager.getTaskById(id).orElseThrow();
+        moved.setStartTime(MORNING.plusHours(6));
+        manager.updateTask(moved);
+
+        assertDoesNotThrow(() -> manager.createTask(new Task("Next", "", MORNING.plusHours(4),
+                Duration.ofMinutes(30))), "Старое время начатой задачи не освобождено");
+        assertThrows(TasksIntersectException.class, () -> manager.createTask(new Task("Overlap", "",
+                MORNING.plusHours(7), Duration.ofMinutes(30))), "Новое время задачи не занято");
+    }
+
+    @Test
+    public void shouldNeverBookOverlappingTasksFromConcurrentThreads() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+
+        runConcurrently(random -> {
+            // Few possible start times, so that most of the attempts collide.
+            LocalDateTime startTime = base.plusMinutes(15L * random.nextInt(200));
+            Task task = new Task("Task", "", startTime, Duration.ofMinutes(15 + 15 * random.nextInt(4)));
+            try {
+                taskManager.createTask(task);
+                created.incrementAndGet();
+            } catch (TasksIntersectException exception) {
+                // Expected for colliding attempts.
+            }
+        });
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        assertEquals(created.get(), taskManager.getTaskList().size(), "Потеряны созданные задачи");
+        assertEquals(created.get(), prioritized.size(), "Список приоритетов не совпадает со списком задач");
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertFalse(prioritized.get(i).getStartTime().isBefore(prioritized.get(i - 1).getEndTime()),
+                    "Запланированы пересекающиеся задачи");
+        }
+    }
+
+    @Test
+    public void shouldKeepEpicsConsistentUnderConcurrentSubtaskChanges() throws Exception {
+        List<Long> epicIds = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            epicIds.add(taskManager.createEpic(new Epic("Epic " + i, "")));
+        }
+
+        runConcurrently(random -> {
+            long epicId = epicIds.get(random.nextInt(epicIds.size()));
+            List<Subtask> subtasks = taskManager.getSubtaskListForEpic(epicId);
+            int action = random.nextInt(4);
+            if ((action == 0) || subtasks.isEmpty()) {
+                Subtask subtask = new Subtask("Subtask", "", null, null, epicId);
+                subtask.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                taskManager.createSubtask(subtask);
+            } else if (action == 1) {
+                Subtask moved = subtasks.get(random.nextInt(subtasks.size()));
+                moved.setParentEpicId(epicIds.get(random.nextInt(epicIds.size())));
+                taskManager.updateSubtask(moved);
+            } else if (action == 2) {
+                Subtask changed = subtasks.get(random.nextInt(subtasks.size()));
+                changed.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                taskManager.updateSubtask(changed);
+            } else {
+                taskManager.removeSubtask(subtasks.get(random.nextInt(subtasks.size())).getId());
+            }
+        });
+
+        List<Subtask> allSubtasks = taskManager.getSubtaskList();
+        int indexed = 0;
+        for (long epicId : epicIds) {
+            Epic epic = taskManager.getEpicById(epicId).orElseThrow();
+            List<Subtask> expected = allSubtasks.stream().filter(s -> s.getParentEpicId() == epicId).toList();
+            List<Subtask> actual = taskManager.getSubtaskListForEpic(epicId);
+            indexed += actual.size();
+
+            assertEquals(idsOf(expected), idsOf(actual), "Подзадачи эпика не совпадают с их родителями");
+            assertEquals(idsOf(expected), new HashSet<>(epic.getSubtaskIds()), "Список подзадач эпика неверный");
+            assertEquals(expectedStatus(expected), epic.getStatus(), "Статус эпика не соответствует подзадачам");
+        }
+        assertEquals(allSubtasks.size(), indexed, "Подзадача принадлежит нескольким эпикам или ни одному");
+    }
+
+    @Test
+    public void shouldNotKeepRemovedTasksInHistoryUnderConcurrentReads() throws Exception {
+        long parentId = taskManager.createEpic(new Epic("Parent", ""));
+        // Slots of tasks, subtasks and epics by the remainder of the slot index.
+        AtomicLongArray slots = new AtomicLongArray(48);
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, createByKind(i % 3, parentId));
+        }
+
+        runConcurrently(random -> {
+            int slot = random.nextInt(slots.length());
+            int kind = slot % 3;
+            long id = slots.get(slot);
+            int action = random.nextInt(3);
+            if (action == 0) {
+                slots.set(slot, createByKind(kind, parentId));
+            } else if (action == 1) {
+                if (kind == 0) {
+                    taskManager.removeTask(id);
+                } else if (kind == 1) {
+                    taskManager.removeSubtask(id);
+                } else {
+                    taskManager.removeEpic(id);
+                }
+            } else if (kind == 0) {
+                taskManager.getTaskById(id);
+            } else if (kind == 1) {
+                taskManager.getSubtaskById(id);
+            } else {
+                taskManager.getEpicById(id);
+            }
+        });
+
+        Set<Long> existing = new HashSet<>();
+        taskManager.getTaskList().forEach(task -> existing.add(task.getId()));
+        taskManager.getSubtaskList().forEach(subtask -> existing.add(subtask.getId()));
+        taskManager.getEpicList().forEach(epic -> existing.add(epic.getId()));
+        for (Task task : taskManager.getHistory()) {
+            assertTrue(existing.contains(task.getId()), "В истории осталась удалённая задача " + task.getId());
+        }
+    }
+
+    private long createByKind(int kind, long parentId) {
+        if (kind == 0) {
+            return taskManager.createTask(new Task("Task", "", null, null));
+        } else if (kind == 1) {
+            return taskManager.createSubtask(new Subtask("Subtask", "", null, null, parentId));
+        }
+        return taskManager.createEpic(new Epic("Epic", ""));
+    }
+
+    private void runConcurrently(ThreadAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int j = 0; j < OPERATIONS; j++) {
+                    action.run(random);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Set<Long> idsOf(List<Subtask> subtasks) {
+        Set<Long> ids = new HashSet<>();
+        subtasks.forEach(s -> ids.add(s.getId()));
+        return ids;
+    }
+
+    private static Status expectedStatus(List<Subtask> subtasks) {
+        if (subtasks.stream().allMatch(s -> s.getStatus() == Status.NEW)) {
+            return Status.NEW;
+        } else if (subtasks.stream().allMatch(s -> s.getStatus() == Status.DONE)) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+
+    @FunctionalInterface
+    private interface ThreadAction {
+        void run(Random random);
+    }
+}
\ No newline at end of file
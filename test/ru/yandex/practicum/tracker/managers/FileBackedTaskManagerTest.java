@@ -73,4 +73,60 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertTrue(firstManager.getSubtaskList().containsAll(secondManager.getSubtaskList()));
         assertTrue(firstManager.getEpicList().containsAll(secondManager.getEpicList()));
     }
+
+    @Test
+    public void shouldKeepEpicWithoutSubtasksAndTaskOutsideOfHorizonAfterLoad() {
+        Epic epic = new Epic("Epic", "Epic");
+        Task farTask = new Task("Far", "Far", LocalDateTime.now().plusYears(3), Duration.ofMinutes(30));
+        long epicId = taskManager.createEpic(epic);
+        long taskId = taskManager.createTask(farTask);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory());
+
+        assertTrue(loaded.getEpicById(epicId).isPresent(), "Эпик без подзадач не загружен");
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Задача за горизонтом планирования не загружена");
+        assertEquals(taskId, loaded.getPrioritizedTasks().getFirst().getId(),
+                "Задача за горизонтом планирования отсутствует в списке приоритетов");
+    }
+
+    @Test
+    public void shouldNotReuseLoadedIdsAfterLoad() {
+        FileBackedTaskManager firstManager = new FileBackedTaskManager(Managers.getDefaultHistory(), file.getPath());
+        long epicId = firstManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = firstManager.createSubtask(new Subtask("Subtask", "Subtask", null, null, epicId));
+        long taskId = firstManager.createTask(new Task("Task", "Task", null, null));
+
+        FileBackedTaskManager secondManager = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory());
+        long newId = secondManager.createTask(new Task("New task", "New task", null, null));
+
+        assertTrue(newId > Math.max(epicId, Math.max(subtaskId, taskId)), "Выдан идентификатор загруженной задачи");
+        assertEquals(2, secondManager.getTaskList().size(), "Загруженная задача перезаписана");
+    }
+
+    @Test
+    public void shouldLoadFileWhichIsParsedInSeveralChunks() throws IOException {
+        TaskSerializer serializer = new TaskSerializer(",", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        LocalDateTime now = LocalDateTime.now();
+        String description = "Описание задачи ".repeat(20);
+        StringBuilder content = new StringBuilder(serializer.getTitle());
+        int taskCount = 20_000;
+        for (long id = 1; id <= taskCount; id++) {
+            Task task = (id % 2 == 1)
+                    ? new Task("Задача " + id, description, now.plusDays(1).plusMinutes(id * 15), Duration.ofMinutes(10))
+                    : new Subtask("Подзадача " + id, description, null, null, Long.MIN_VALUE);
+            task.setId(id);
+            content.append("\r\n").append(serializer.toString(task));
+        }
+        Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+        assertTrue(file.length() > 4 << 20, "Файл слишком мал для разбиения на части");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory());
+
+        assertEquals(taskCount / 2, loaded.getTaskList().size(), "Загружены не все задачи");
+        assertTrue(loaded.getSubtaskList().isEmpty(), "Загружены подзадачи без эпика");
+        Task last = loaded.getTaskById(taskCount - 1).orElseThrow();
+        assertEquals("Задача " + (taskCount - 1), last.getName(), "Название задачи повреждено");
+        assertEquals(description, last.getDescription(), "Описание задачи повреждено");
+        assertEquals(taskCount / 2, loaded.getPrioritizedTasks().size(), "Список приоритетов неполный");
+    }
 }
\ No newline at end of file
@@ -47,6 +47,30 @@ class InMemoryHistoryManagerTest {
         }
     }
 
+    @Test
+    public void shouldRemoveFirstAndLastTasks() {
+        Task first = new Task("First", "", null, null);
+        first.setId(1);
+        Task middle = new Task("Middle", "", null, null);
+        middle.setId(2);
+        Task last = new Task("Last", "", null, null);
+        last.setId(3);
+        historyManager.add(first);
+        historyManager.add(middle);
+        historyManager.add(last);
+
+        historyManager.remove(first.getId());
+        historyManager.remove(last.getId());
+        assertEquals(List.of(middle), historyManager.getHistory(), "Удалённые задачи остались в истории");
+
+        historyManager.add(first);
+        assertEquals(List.of(middle, first), historyManager.getHistory(), "Задача не добавлена в конец истории");
+
+        historyManager.remove(middle.getId());
+        historyManager.remove(first.getId());
+        assertTrue(historyManager.getHistory().isEmpty(), "История не пуста после удаления всех задач");
+    }
+
     @Test
     public void shouldReturnEmptyListWhenNoOneTaskAdded() {
         assertTrue(historyManager.getHistory().isEmpty());
@@ -1,8 +1,54 @@
 package ru.yandex.practicum.tracker.managers;
 
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.TasksIntersectException;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.utils.MutableClock;
+import ru.yandex.practicum.tracker.utils.SegmentedTaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
+    private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 1, 9, 0);
+
     @Override
     protected InMemoryTaskManager getTaskManager() {
         return new InMemoryTaskManager(Managers.getDefaultHistory());
     }
+
+    @Test
+    public void shouldFreeRestOfStartedTaskWhenItIsRemoved() {
+        MutableClock clock = new MutableClock(MORNING);
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory(),
+                new SegmentedTaskScheduler(clock, Period.ofYears(1)));
+        long id = manager.createTask(new Task("Long", "", MORNING.plusHours(1), Duration.ofHours(4)));
+
+        clock.set(MORNING.plusHours(3));
+        manager.removeTask(id);
+
+        assertDoesNotThrow(() -> manager.createTask(new Task("Next", "", MORNING.plusHours(4),
+                Duration.ofMinutes(30))), "Время начатой задачи не освобождено");
+    }
+
+    @Test
+    public void shouldFreeOldTimeOfStartedTaskWhenItIsMoved() {
+        MutableClock clock = new MutableClock(MORNING);
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory(),
+                new SegmentedTaskScheduler(clock, Period.ofYears(1)));
+        long id = manager.createTask(new Task("Long", "", MORNING.plusHours(1), Duration.ofHours(4)));
+
+        clock.set(MORNING.plusHours(3));
+        Task moved = manager.getTaskById(id).orElseThrow();
+        moved.setStartTime(MORNING.plusHours(6));
+        manager.updateTask(moved);
+
+        assertDoesNotThrow(() -> manager.createTask(new Task("Next", "", MORNING.plusHours(4),
+                Duration.ofMinutes(30))), "Старое время начатой задачи не освобождено");
+        assertThrows(TasksIntersectException.class, () -> manager.createTask(new Task("Overlap", "",
+                MORNING.plusHours(7), Duration.ofMinutes(30))), "Новое время задачи не занято");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.tracker.managers;
+
+import ru.yandex.practicum.tracker.utils.IntervalTaskScheduler;
+
+import java.time.LocalDateTime;
+
+class IntervalSchedulerTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
+    @Override
+    protected InMemoryTaskManager getTaskManager() {
+        LocalDateTime now = LocalDateTime.now();
+        return new InMemoryTaskManager(Managers.getDefaultHistory(), new IntervalTaskScheduler(now, now.plusYears(1)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withJournal(5);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-journal-", ".csv");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldRecoverChangesFromSnapshotAndJournal() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long firstId = taskManager.createSubtask(new Subtask("First", "First", null, null, epicId));
+        long secondId = taskManager.createSubtask(new Subtask("Second", "Second", null, null, epicId));
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        long removedId = taskManager.createTask(new Task("Removed", "Removed", null, null));
+        // The fifth record has triggered a snapshot, the changes below stay in the journal only.
+        assertFalse(Files.exists(getJournalPath()), "Журнал не сжат после достижения порога");
+
+        Subtask done = taskManager.getSubtaskById(firstId).orElseThrow();
+        done.setStatus(Status.DONE);
+        taskManager.updateSubtask(done);
+        taskManager.removeSubtask(secondId);
+        taskManager.removeTask(removedId);
+        assertTrue(Files.exists(getJournalPath()), "Изменения не записаны в журнал");
+
+        FileBackedTaskManager loaded = load();
+
+        assertEquals(Status.DONE, loaded.getSubtaskById(firstId).orElseThrow().getStatus(),
+                "Изменение подзадачи из журнала не применено");
+        assertTrue(loaded.getSubtaskById(secondId).isEmpty(), "Удаление подзадачи из журнала не применено");
+        assertTrue(loaded.getTaskById(removedId).isEmpty(), "Удаление задачи из журнала не применено");
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Задача из снимка потеряна");
+        assertEquals(Status.DONE, loaded.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика не пересчитан после загрузки");
+        assertFalse(Files.exists(getJournalPath()), "Журнал не сжат после загрузки");
+    }
+
+    @Test
+    public void shouldSkipInterruptedLastJournalRecord() throws IOException {
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        Files.writeString(getJournalPath(), "+42,Task,Broken", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = load();
+
+        assertTrue(loaded.getTaskById(taskId).isPresent(), "Задача из журнала потеряна");
+        assertEquals(1, loaded.getTaskList().size(), "Оборванная запись журнала применена");
+    }
+
+    private FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), OPTIONS);
+    }
+
+    private Path getJournalPath() {
+        return Path.of(file.getPath() + ".journal");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.codecs.TaskCodecs;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withFormat(SnapshotFormat.JSON_LINES);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-jsonl-", ".jsonl");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldSaveAndLoadTasksAsJsonLines() {
+        LocalDateTime now = LocalDateTime.now();
+        long epicId = taskManager.createEpic(new Epic("Эпик", "Описание, с \"кавычками\""));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "", now.plusHours(1),
+                Duration.ofMinutes(15), epicId));
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        Subtask subtask = taskManager.getSubtaskById(subtaskId).orElseThrow();
+        subtask.setStatus(Status.DONE);
+        taskManager.updateSubtask(subtask);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), OPTIONS);
+
+        assertSame(TaskCodecs.JSON_LINES, TaskCodecs.detect(file.toPath(), TaskCodecs.CSV),
+                "Снимок записан не в формате JSON Lines");
+        assertEquals(taskManager.getTaskById(taskId), loaded.getTaskById(taskId), "Задача не загружена");
+        assertEquals(Status.DONE, loaded.getSubtaskById(subtaskId).orElseThrow().getStatus(),
+                "Статус подзадачи не загружен");
+        assertEquals(Status.DONE, loaded.getEpicById(epicId).orElseThrow().getStatus(),
+                "Статус эпика не рассчитан после загрузки");
+        assertEquals(taskManager.getPrioritizedTasks(), loaded.getPrioritizedTasks(),
+                "Список приоритетов отличается после загрузки");
+    }
+
+    @Test
+    public void shouldRejectLazyLoadingOfJsonLinesSnapshots() {
+        StorageOptions options = OPTIONS.withLazyLoading(10);
+
+        assertThrows(IllegalArgumentException.class, () -> new FileBackedTaskManager(Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), file.getPath(), options),
+                "Ленивая загрузка включена для снимка без индекса");
+    }
+
+    @Test
+    public void shouldRewriteJsonLinesSnapshotAsCsvWhenLoadedLazily() {
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        StorageOptions options = StorageOptions.defaults().withLazyLoading(10);
+
+        try (FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), options)) {
+            assertSame(TaskCodecs.CSV, TaskCodecs.detect(file.toPath(), TaskCodecs.CSV),
+                    "Снимок не переписан в формате CSV");
+            assertEquals("Task", loaded.getTaskById(taskId).orElseThrow().getName(), "Задача не загружена");
+        }
+    }
+}
\ No newline at end of file
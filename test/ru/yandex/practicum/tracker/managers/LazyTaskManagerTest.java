@@ -0,0 +1,141 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.SnapshotFormat;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withJournal(100).withLazyLoading(2);
+
+    private File file;
+    private FileBackedTaskManager loaded;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-lazy-", ".csv");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (loaded != null) {
+            loaded.close();
+        }
+    }
+
+    @Test
+    public void shouldReadTasksOfLoadedSnapshotOnlyWhenTheyAreNeeded() {
+        LocalDateTime now = LocalDateTime.now();
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "Subtask", now.plusHours(1),
+                Duration.ofMinutes(15), epicId));
+        long taskId = taskManager.createTask(new Task("Task", "Task", now.plusHours(2), Duration.ofMinutes(30)));
+        for (int i = 0; i < 5; i++) {
+            taskManager.createTask(new Task("Task " + i, "", null, null));
+        }
+        taskManager.save();
+
+        loaded = load(OPTIONS);
+        StorageMetrics metrics = loaded.getStorageMetrics();
+        assertEquals(0, metrics.getLazyReads(), "Задачи прочитаны из файла при загрузке");
+
+        assertEquals("Task", loaded.getTaskById(taskId).orElseThrow().getName(), "Задача прочитана неверно");
+        loaded.getTaskById(taskId);
+        assertEquals(1, metrics.getLazyReads(), "Недавно прочитанная задача не закэширована");
+
+        assertEquals(6, loaded.getTaskList().size(), "Список задач неполный");
+        assertEquals(subtaskId, loaded.getSubtaskListForEpic(epicId).getFirst().getId(),
+                "Подзадачи эпика не прочитаны");
+        assertEquals(List.of(epicId, subtaskId, taskId), loaded.getPrioritizedTasks().stream().map(Task::getId).toList(),
+                "Список приоритетов прочитан неверно");
+    }
+
+    @Test
+    public void shouldKeepChangesMadeAfterSnapshotWhenLoadedLazily() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long firstId = taskManager.createSubtask(new Subtask("First", "First", null, null, epicId));
+        long secondId = taskManager.createSubtask(new Subtask("Second", "Second", null, null, epicId));
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        taskManager.save();
+        // The changes below stay in the journal only.
+        Subtask first = taskManager.getSubtaskById(firstId).orElseThrow();
+        first.setStatus(Status.DONE);
+        taskManager.updateSubtask(first);
+        taskManager.removeSubtask(secondId);
+
+        loaded = load(OPTIONS);
+        assertEquals(Status.DONE, loaded.getSubtaskById(firstId).orElseThrow().getStatus(),
+                "Изменение из журнала потеряно");
+        assertTrue(loaded.getSubtaskById(secondId).isEmpty(), "Удалённая подзадача прочитана из снимка");
+        assertEquals(1, loaded.getSubtaskList().size(), "Неверное количество подзадач");
+
+        Task task = loaded.getTaskById(taskId).orElseThrow();
+        task.setName("Changed");
+        loaded.updateTask(task);
+        loaded.removeSubtask(firstId);
+
+        assertEquals("Changed", loaded.getTaskById(taskId).orElseThrow().getName(), "Изменение задачи потеряно");
+        assertTrue(loaded.getSubtaskList().isEmpty(), "Удаление подзадачи из снимка не учтено");
+        assertEquals(Status.NEW, loaded.getEpicById(epicId).orElseThrow().getStatus(), "Статус эпика не пересчитан");
+
+        FileBackedTaskManager reloaded = load(StorageOptions.defaults());
+        assertEquals("Changed", reloaded.getTaskById(taskId).orElseThrow().getName(), "Изменение задачи не записано");
+        assertTrue(reloaded.getSubtaskList().isEmpty(), "Удаление подзадачи не записано");
+    }
+
+    @Test
+    public void shouldReadTasksOfBinarySnapshotLazily() {
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        StorageOptions options = OPTIONS.withFormat(SnapshotFormat.BINARY);
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(Managers.getDefaultHistory(),
+                Managers.getDefaultScheduler(), Managers.getDefaultIdGenerator(), file.getPath(), options);
+        long taskId = binaryManager.createTask(new Task("Задача", "Описание", startTime, Duration.ofMinutes(45)));
+        binaryManager.save();
+
+        loaded = load(options);
+        Task task = loaded.getTaskById(taskId).orElseThrow();
+
+        assertEquals(1, loaded.getStorageMetrics().getLazyReads(), "Задача не прочитана из файла");
+        assertEquals("Задача", task.getName(), "Название прочитано неверно");
+        assertEquals("Описание", task.getDescription(), "Описание прочитано неверно");
+        assertEquals(startTime, task.getStartTime(), "Время начала прочитано неверно");
+    }
+
+    @Test
+    public void shouldReadTasksAfterSnapshotFileIsReplaced() {
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+        taskManager.save();
+
+        loaded = load(OPTIONS);
+        loaded.createTask(new Task("New task", "New task", null, null));
+        loaded.save();
+
+        assertEquals("Task", loaded.getTaskById(taskId).orElseThrow().getName(),
+                "Задача не прочитана из заменённого снимка");
+        assertEquals(2, load(StorageOptions.defaults()).getTaskList().size(), "Снимок записан неверно");
+    }
+
+    private FileBackedTaskManager load(StorageOptions options) {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), options);
+    }
+}
\ No newline at end of file
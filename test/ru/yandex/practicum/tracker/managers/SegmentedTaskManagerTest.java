@@ -0,0 +1,106 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+import ru.yandex.practicum.tracker.storage.TaskStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final int IDS_PER_SEGMENT = 4;
+    private static final StorageOptions OPTIONS = StorageOptions.defaults().withSegments(IDS_PER_SEGMENT);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-segmented-", ".csv");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @Test
+    public void shouldRewriteOnlySegmentOfChangedTask() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        for (int i = 0; i < 3 * IDS_PER_SEGMENT; i++) {
+            taskManager.createTask(new Task("Task " + i, "", null, null));
+        }
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "Subtask", null, null, epicId));
+        assertNotEquals(epicId / IDS_PER_SEGMENT, subtaskId / IDS_PER_SEGMENT, "Эпик и подзадача в одном сегменте");
+
+        StorageMetrics metrics = taskManager.getStorageMetrics();
+        long segmentWrites = metrics.getSegmentWrites();
+        Subtask subtask = taskManager.getSubtaskById(subtaskId).orElseThrow();
+        subtask.setStatus(Status.DONE);
+        taskManager.updateSubtask(subtask);
+
+        assertEquals(segmentWrites + 1, metrics.getSegmentWrites(), "Перезаписаны сегменты без изменений");
+        FileBackedTaskManager loaded = load();
+        assertEquals(3 * IDS_PER_SEGMENT, loaded.getTaskList().size(), "Загружены не все задачи");
+        assertEquals(Status.DONE, loaded.getEpicById(epicId).orElseThrow().getStatus(),
+                "Эпик не связан с подзадачей из другого сегмента");
+        assertFalse(Files.exists(file.toPath()), "Цельный снимок не удалён");
+    }
+
+    @Test
+    public void shouldDeleteSegmentWithoutTasks() {
+        long[] ids = new long[2 * IDS_PER_SEGMENT];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = taskManager.createTask(new Task("Task " + i, "", null, null));
+        }
+        long emptySegment = ids[ids.length - 1] / IDS_PER_SEGMENT;
+
+        for (long id : ids) {
+            if (id / IDS_PER_SEGMENT == emptySegment) {
+                taskManager.removeTask(id);
+            }
+        }
+
+        assertFalse(Files.exists(getSegmentsPath().resolve("segment-" + emptySegment)), "Пустой сегмент не удалён");
+        FileBackedTaskManager loaded = load();
+        for (long id : ids) {
+            assertEquals(id / IDS_PER_SEGMENT != emptySegment, loaded.getTaskById(id).isPresent(),
+                    "Задача загружена неверно, id=" + id);
+        }
+    }
+
+    @Test
+    public void shouldSplitWholeSnapshotIntoSegmentsOnLoad() {
+        FileBackedTaskManager wholeManager = new FileBackedTaskManager(Managers.getDefaultHistory(), file.getPath());
+        long epicId = wholeManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = wholeManager.createSubtask(new Subtask("Subtask", "Subtask", null, null, epicId));
+
+        load();
+
+        assertFalse(Files.exists(file.toPath()), "Цельный снимок не удалён после разбиения");
+        assertFalse(TaskStore.getSegmentFiles(file.toPath()).isEmpty(), "Сегменты не записаны");
+        assertTrue(load().getSubtaskById(subtaskId).isPresent(), "Подзадача не загружена из сегментов");
+
+        FileBackedTaskManager merged = FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory());
+        assertTrue(merged.getSubtaskById(subtaskId).isPresent(), "Подзадача не загружена в цельный снимок");
+        assertFalse(Files.exists(getSegmentsPath()), "Сегменты не удалены после объединения");
+    }
+
+    private FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), OPTIONS);
+    }
+
+    private Path getSegmentsPath() {
+        return Path.of(file.getPath() + ".segments");
+    }
+}
\ No newline at end of file
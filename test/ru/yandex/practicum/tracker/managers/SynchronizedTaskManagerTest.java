@@ -0,0 +1,55 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SynchronizedTaskManagerTest extends TaskManagerTest<SynchronizedTaskManager> {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 1_000;
+
+    @Override
+    protected SynchronizedTaskManager getTaskManager() {
+        return new SynchronizedTaskManager(new InMemoryTaskManager(Managers.getDefaultHistory()));
+    }
+
+    @Test
+    public void shouldCreateAndReadTasksFromSeveralThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                List<Long> ids = new ArrayList<>();
+                start.await();
+                for (int j = 0; j < OPERATIONS; j++) {
+                    long id = taskManager.createTask(new Task("Task", "", null, null));
+                    ids.add(id);
+                    assertTrue(taskManager.getTaskById(id).isPresent(), "Созданная задача не найдена");
+                    taskManager.getTaskList();
+                }
+                return ids;
+            }));
+        }
+
+        start.countDown();
+        Set<Long> ids = new HashSet<>();
+        try {
+            for (Future<List<Long>> future : futures) {
+                ids.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * OPERATIONS, ids.size(), "Идентификаторы задач повторяются");
+        assertEquals(THREADS * OPERATIONS, taskManager.getTaskList().size(), "Часть задач потеряна");
+    }
+}
\ No newline at end of file
@@ -230,4 +230,170 @@ abstract class TaskManagerTest<T extends TaskManager> {
             assertEquals(expected.get(i), actual.get(i));
         }
     }
+
+    @Test
+    public void shouldRecalculateEpicTimeAndStatusWhenSubtasksChange() {
+        LocalDateTime now = LocalDateTime.now();
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long otherEpicId = taskManager.createEpic(new Epic("Other", "Other"));
+
+        Subtask first = new Subtask("First", "First", now.plusDays(1), Duration.ofMinutes(30), epicId);
+        Subtask second = new Subtask("Second", "Second", now.plusDays(2), Duration.ofMinutes(45), epicId);
+        second.setStatus(Status.DONE);
+        long firstId = taskManager.createSubtask(first);
+        long secondId = taskManager.createSubtask(second);
+
+        Epic epic = taskManager.getEpicList().stream().filter(e -> e.getId() == epicId).findFirst().orElseThrow();
+        assertEquals(Status.IN_PROGRESS, epic.getStatus(), "Статус эпика не IN_PROGRESS");
+        assertEquals(first.getStartTime(), epic.getStartTime(), "Неверное время начала эпика");
+        assertEquals(Duration.ofMinutes(75), epic.getDuration(), "Неверная продолжительность эпика");
+
+        taskManager.removeSubtask(firstId);
+        Subtask moved = taskManager.getSubtaskListForEpic(epicId).getFirst();
+        assertEquals(secondId, moved.getId(), "Неверная подзадача эпика");
+
+        epic = taskManager.getEpicList().stream().filter(e -> e.getId() == epicId).findFirst().orElseThrow();
+        assertEquals(Status.DONE, epic.getStatus(), "Статус эпика не DONE");
+        assertEquals(second.getStartTime(), epic.getStartTime(), "Время начала эпика не пересчитано");
+        assertEquals(Duration.ofMinutes(45), epic.getDuration(), "Продолжительность эпика не пересчитана");
+
+        moved.setParentEpicId(otherEpicId);
+        taskManager.updateSubtask(moved);
+
+        epic = taskManager.getEpicList().stream().filter(e -> e.getId() == epicId).findFirst().orElseThrow();
+        Epic otherEpic = taskManager.getEpicList().stream()
+                .filter(e -> e.getId() == otherEpicId).findFirst().orElseThrow();
+        assertEquals(Status.NEW, epic.getStatus(), "Статус эпика без подзадач не NEW");
+        assertNull(epic.getStartTime(), "У эпика без подзадач есть время начала");
+        assertEquals(Status.DONE, otherEpic.getStatus(), "Статус нового эпика подзадачи не DONE");
+        assertEquals(second.getStartTime(), otherEpic.getStartTime(), "Время начала нового эпика неверное");
+    }
+
+    @Test
+    public void shouldKeepEpicSubtasksConsistentAfterReparentingAndRemoval() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long otherEpicId = taskManager.createEpic(new Epic("Other", "Other"));
+        long firstId = taskManager.createSubtask(new Subtask("First", "First", null, null, epicId));
+        long secondId = taskManager.createSubtask(new Subtask("Second", "Second", null, null, epicId));
+
+        Subtask moved = taskManager.getSubtaskById(secondId).orElseThrow();
+        moved.setParentEpicId(otherEpicId);
+        taskManager.updateSubtask(moved);
+
+        assertEquals(List.of(firstId), taskManager.getSubtaskListForEpic(epicId).stream().map(Task::getId).toList(),
+                "Подзадача не удалена из старого эпика");
+        assertEquals(List.of(secondId), taskManager.getSubtaskListForEpic(otherEpicId).stream()
+                .map(Task::getId).toList(), "Подзадача не добавлена в новый эпик");
+        assertEquals(List.of(secondId), taskManager.getEpicById(otherEpicId).orElseThrow().getSubtaskIds(),
+                "Список подзадач эпика не обновлён");
+
+        taskManager.removeEpic(otherEpicId);
+        assertTrue(taskManager.getSubtaskById(secondId).isEmpty(), "Подзадача удалённого эпика осталась");
+        assertTrue(taskManager.getSubtaskListForEpic(otherEpicId).isEmpty(), "У удалённого эпика есть подзадачи");
+
+        taskManager.removeAllSubtasks();
+        assertTrue(taskManager.getSubtaskListForEpic(epicId).isEmpty(), "Подзадачи эпика не удалены");
+        assertTrue(taskManager.getEpicById(epicId).orElseThrow().getSubtaskIds().isEmpty(),
+                "Список подзадач эпика не очищен");
+    }
+
+    @Test
+    public void shouldReturnPrioritizedTasksInRangeWithLimitAndKeepEqualStartTimes() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "Subtask", now.plusDays(1),
+                Duration.ofMinutes(30), epicId));
+        long secondId = taskManager.createTask(new Task("Second", "Second", now.plusDays(2), Duration.ofMinutes(30)));
+        long thirdId = taskManager.createTask(new Task("Third", "Third", now.plusDays(3), Duration.ofMinutes(30)));
+
+        assertEquals(List.of(epicId, subtaskId, secondId, thirdId),
+                taskManager.getPrioritizedTasks().stream().map(Task::getId).toList(),
+                "Эпик и подзадача с одинаковым временем начала не сохранены");
+        assertEquals(List.of(secondId, thirdId), taskManager.getPrioritizedTasks(now.plusDays(2), null, 10)
+                .stream().map(Task::getId).toList(), "Неверная нижняя граница");
+        assertEquals(List.of(epicId, subtaskId), taskManager.getPrioritizedTasks(null, now.plusDays(2), 10)
+                .stream().map(Task::getId).toList(), "Неверная верхняя граница");
+        assertEquals(List.of(epicId), taskManager.getPrioritizedTasks(null, null, 1)
+                .stream().map(Task::getId).toList(), "Ограничение количества не применено");
+
+        taskManager.removeEpic(epicId);
+        assertEquals(List.of(secondId, thirdId), taskManager.getPrioritizedTasks().stream().map(Task::getId).toList(),
+                "Подзадачи удалённого эпика остались в списке приоритетов");
+    }
+
+    @Test
+    public void shouldIncrementVersionsOfChangedScopesOnly() {
+        long tasks = taskManager.getVersion(VersionScope.TASKS);
+        long all = taskManager.getVersion(VersionScope.ALL);
+        long taskId = taskManager.createTask(new Task("Task", "", null, null));
+
+        assertTrue(taskManager.getVersion(VersionScope.TASKS) > tasks, "Версия задач не изменилась");
+        assertTrue(taskManager.getVersion(VersionScope.ALL) > all, "Общая версия не изменилась");
+
+        long epics = taskManager.getVersion(VersionScope.EPICS);
+        long subtasks = taskManager.getVersion(VersionScope.SUBTASKS);
+        tasks = taskManager.getVersion(VersionScope.TASKS);
+        long epicId = taskManager.createEpic(new Epic("Epic", ""));
+        long epicsAfterCreation = taskManager.getVersion(VersionScope.EPICS);
+        taskManager.createSubtask(new Subtask("Subtask", "", null, null, epicId));
+
+        assertTrue(epicsAfterCreation > epics, "Версия эпиков не изменилась");
+        assertTrue(taskManager.getVersion(VersionScope.EPICS) > epicsAfterCreation,
+                "Версия эпиков не изменилась при создании подзадачи");
+        assertTrue(taskManager.getVersion(VersionScope.SUBTASKS) > subtasks, "Версия подзадач не изменилась");
+        assertEquals(tasks, taskManager.getVersion(VersionScope.TASKS), "Версия задач изменилась без изменения задач");
+
+        all = taskManager.getVersion(VersionScope.ALL);
+        long history = taskManager.getVersion(VersionScope.HISTORY);
+        taskManager.getTaskById(taskId);
+
+        assertTrue(taskManager.getVersion(VersionScope.HISTORY) > history, "Версия истории не изменилась");
+        assertEquals(all, taskManager.getVersion(VersionScope.ALL), "Общая версия изменилась при просмотре задачи");
+
+        history = taskManager.getVersion(VersionScope.HISTORY);
+        taskManager.removeTask(taskId);
+
+        assertTrue(taskManager.getVersion(VersionScope.TASKS) > tasks, "Версия задач не изменилась при удалении");
+        assertTrue(taskManager.getVersion(VersionScope.HISTORY) > history,
+                "Версия истории не изменилась при удалении");
+    }
+
+    @Test
+    public void shouldNotChangeVersionsWhenRemovingMissingValues() {
+        long epicId = taskManager.createEpic(new Epic("Epic", ""));
+        long[] versions = new long[VersionScope.values().length];
+        for (VersionScope scope : VersionScope.values()) {
+            versions[scope.ordinal()] = taskManager.getVersion(scope);
+        }
+
+        taskManager.removeTask(epicId + 100);
+        taskManager.removeSubtask(epicId + 100);
+        taskManager.removeEpic(epicId + 100);
+
+        for (VersionScope scope : VersionScope.values()) {
+            assertEquals(versions[scope.ordinal()], taskManager.getVersion(scope),
+                    "Версия изменилась при удалении несуществующего значения: " + scope);
+        }
+    }
+
+    @Test
+    public void shouldNotChangeVersionsWhenOnlyReading() {
+        long epicId = taskManager.createEpic(new Epic("Epic", ""));
+        taskManager.createSubtask(new Subtask("Subtask", "", null, null, epicId));
+        long[] versions = new long[VersionScope.values().length];
+        for (VersionScope scope : VersionScope.values()) {
+            versions[scope.ordinal()] = taskManager.getVersion(scope);
+        }
+
+        taskManager.getTaskList();
+        taskManager.getSubtaskList();
+        taskManager.getEpicList();
+        taskManager.getSubtaskListForEpic(epicId);
+        taskManager.getPrioritizedTasks();
+        taskManager.getHistory();
+
+        for (VersionScope scope : VersionScope.values()) {
+            assertEquals(versions[scope.ordinal()], taskManager.getVersion(scope), "Версия " + scope + " изменилась");
+        }
+    }
 }
\ No newline at end of file
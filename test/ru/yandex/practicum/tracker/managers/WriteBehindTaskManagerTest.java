@@ -0,0 +1,92 @@
+package ru.yandex.practicum.tracker.managers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+import ru.yandex.practicum.tracker.storage.Durability;
+import ru.yandex.practicum.tracker.storage.StorageMetrics;
+import ru.yandex.practicum.tracker.storage.StorageOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    // Long interval, so that nothing is written in the background unless the tests ask for it.
+    private static final StorageOptions OPTIONS = StorageOptions.defaults()
+            .withJournal(1000)
+            .withDurability(Durability.FSYNC)
+            .withWriteBehind(Duration.ofHours(1), 100);
+
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager getTaskManager() {
+        try {
+            file = File.createTempFile("tasks-write-behind-", ".csv");
+            return new FileBackedTaskManager(Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                    Managers.getDefaultIdGenerator(), file.getPath(), OPTIONS);
+        } catch (IOException exception) {
+            throw new RuntimeException("Can't create file", exception);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    public void shouldWriteQueuedChangesOnlyOnFlush() {
+        long epicId = taskManager.createEpic(new Epic("Epic", "Epic"));
+        long subtaskId = taskManager.createSubtask(new Subtask("Subtask", "Subtask", null, null, epicId));
+        taskManager.removeTask(taskManager.createTask(new Task("Task", "Task", null, null)));
+
+        StorageMetrics metrics = taskManager.getStorageMetrics();
+        assertEquals(4, metrics.getQueuedChanges(), "Неверное количество изменений в очереди");
+        assertTrue(load().getEpicList().isEmpty(), "Изменения записаны до сброса");
+
+        taskManager.flush();
+
+        assertEquals(0, metrics.getQueuedChanges(), "Очередь не очищена после сброса");
+        assertEquals(1, metrics.getFlushCount(), "Изменения не объединены в одну запись");
+        assertEquals(4, metrics.getFlushedChanges(), "Неверное количество записанных изменений");
+        FileBackedTaskManager loaded = load();
+        assertTrue(loaded.getSubtaskById(subtaskId).isPresent(), "Подзадача не записана при сбросе");
+        assertTrue(loaded.getTaskList().isEmpty(), "Удаление задачи не записано при сбросе");
+    }
+
+    @Test
+    public void shouldFlushInBackgroundWhenTooManyChangesArePending() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            taskManager.createTask(new Task("Task " + i, "", null, null));
+        }
+
+        StorageMetrics metrics = taskManager.getStorageMetrics();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((metrics.getFlushCount() == 0) && (System.nanoTime() < deadline)) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, metrics.getFlushCount(), "Изменения не записаны в фоне");
+        assertEquals(100, load().getTaskList().size(), "Записаны не все изменения");
+    }
+
+    @Test
+    public void shouldWritePendingChangesOnClose() {
+        long taskId = taskManager.createTask(new Task("Task", "Task", null, null));
+
+        taskManager.close();
+
+        assertTrue(load().getTaskById(taskId).isPresent(), "Изменения не записаны при закрытии");
+    }
+
+    private FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file, Managers.getDefaultHistory(), Managers.getDefaultScheduler(),
+                Managers.getDefaultIdGenerator(), StorageOptions.defaults());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tracker.utils;
+
+class AtomicIdGeneratorTest extends IdGeneratorTest<AtomicIdGenerator> {
+    @Override
+    protected AtomicIdGenerator getIdGenerator() {
+        return new AtomicIdGenerator();
+    }
+}
\ No newline at end of file
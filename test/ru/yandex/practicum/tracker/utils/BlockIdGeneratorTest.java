@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tracker.utils;
+
+class BlockIdGeneratorTest extends IdGeneratorTest<BlockIdGenerator> {
+    @Override
+    protected BlockIdGenerator getIdGenerator() {
+        return new BlockIdGenerator(64);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+abstract class IdGeneratorTest<T extends IdGenerator> {
+    protected abstract T getIdGenerator();
+
+    @Test
+    public void shouldGenerateUniqueIdsFromConcurrentThreads() throws InterruptedException {
+        T generator = getIdGenerator();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int idsPerThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < idsPerThread; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Генерация идентификаторов не завершилась");
+        assertEquals(threads * idsPerThread, ids.size(), "Сгенерированы повторяющиеся идентификаторы");
+        assertTrue(ids.stream().allMatch(id -> id > 0), "Сгенерирован неположительный идентификатор");
+    }
+
+    @Test
+    public void shouldGenerateIdsGreaterThanAdvancedOne() {
+        T generator = getIdGenerator();
+        generator.nextId();
+
+        generator.advanceTo(1000);
+        assertTrue(generator.nextId() > 1000, "Идентификатор не больше загруженного");
+
+        generator.advanceTo(10);
+        assertTrue(generator.nextId() > 1000, "Генератор откатился назад");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTaskSchedulerTest extends TaskSchedulerTest<IntervalTaskScheduler> {
+    @Override
+    protected IntervalTaskScheduler getScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+        return new IntervalTaskScheduler(initDateTime, endDateTime);
+    }
+
+    @Test
+    public void shouldScheduleAdjacentTasksWithMinutePrecision() {
+        Task first = new Task("First", "", INIT.plusHours(1), Duration.ofMinutes(20));
+        Task second = new Task("Second", "", first.getEndTime(), Duration.ofMinutes(7));
+        Task third = new Task("Third", "", second.getEndTime().minusMinutes(1), Duration.ofMinutes(5));
+
+        assertTrue(scheduler.addSchedule(first), "Первая задача не запланирована");
+        assertTrue(scheduler.addSchedule(second), "Смежная задача не запланирована");
+        assertFalse(scheduler.addSchedule(third), "Задача пересекается со второй на одну минуту");
+    }
+
+    @Test
+    public void shouldCheckRangeByExactMinutes() {
+        assertTrue(scheduler.isInRange(INIT), "Начало диапазона вне диапазона");
+        assertFalse(scheduler.isInRange(INIT.minusMinutes(1)), "Минута до начала диапазона в диапазоне");
+    }
+}
\ No newline at end of file
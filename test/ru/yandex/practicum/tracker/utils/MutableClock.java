@@ -0,0 +1,31 @@
+package ru.yandex.practicum.tracker.utils;
+
+import java.time.*;
+
+// Clock of tests which stands still until it's set to another time.
+public final class MutableClock extends Clock {
+    private Instant instant;
+
+    public MutableClock(LocalDateTime dateTime) {
+        set(dateTime);
+    }
+
+    public void set(LocalDateTime dateTime) {
+        instant = dateTime.toInstant(ZoneOffset.UTC);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedTaskSchedulerTest extends TaskSchedulerTest<SegmentedTaskScheduler> {
+    private MutableClock clock;
+
+    @Override
+    protected SegmentedTaskScheduler getScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+        clock = new MutableClock(initDateTime);
+        return new SegmentedTaskScheduler(clock, Period.between(initDateTime.toLocalDate(), endDateTime.toLocalDate()));
+    }
+
+    @Test
+    public void shouldMaterializeSegmentsOnlyForBookedTime() {
+        assertEquals(0, scheduler.getSegmentCount(), "Сегменты созданы до первой записи");
+
+        Task task = new Task("Task", "", INIT.plusDays(100), Duration.ofDays(10));
+        scheduler.addSchedule(task);
+        int segmentCount = scheduler.getSegmentCount();
+        assertTrue((segmentCount >= 2) && (segmentCount <= 3), "Неверное количество сегментов");
+
+        scheduler.removeSchedule(task);
+        assertEquals(0, scheduler.getSegmentCount(), "Пустые сегменты не удалены");
+    }
+
+    @Test
+    public void shouldRetirePastSegmentsAndSlideHorizonWhenClockAdvances() {
+        Task past = new Task("Past", "", INIT.plusHours(1), Duration.ofMinutes(30));
+        scheduler.addSchedule(past);
+        assertFalse(scheduler.isInRange(INIT.plusYears(1).plusDays(10)), "Время за горизонтом в диапазоне");
+
+        clock.set(INIT.plusDays(30));
+
+        assertTrue(scheduler.isAvailable(INIT.plusDays(31), INIT.plusDays(32)), "Свободное время считается занятым");
+        assertEquals(0, scheduler.getSegmentCount(), "Прошедшие сегменты не удалены");
+        assertFalse(scheduler.isInRange(past.getStartTime()), "Прошедшее время в диапазоне");
+        assertTrue(scheduler.isInRange(INIT.plusYears(1).plusDays(10)), "Горизонт не сдвинулся");
+    }
+
+    @Test
+    public void shouldBookOnlyRestOfStartedTask() {
+        Task started = new Task("Started", "", INIT.plusHours(1), Duration.ofHours(4));
+        clock.set(INIT.plusHours(3));
+
+        assertTrue(scheduler.addSchedule(started), "Начатая задача не запланирована");
+        assertFalse(scheduler.isAvailable(INIT.plusHours(4), INIT.plusHours(5)), "Остаток задачи не занят");
+
+        scheduler.removeSchedule(started);
+        assertTrue(scheduler.isAvailable(INIT.plusHours(4), INIT.plusHours(5)), "Остаток задачи не освобождён");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotTaskSchedulerTest extends TaskSchedulerTest<SlotTaskScheduler> {
+    @Override
+    protected SlotTaskScheduler getScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime) {
+        return new SlotTaskScheduler(initDateTime, endDateTime);
+    }
+
+    @Test
+    public void shouldRejectTaskWhichSharesSlotWithBookedOne() {
+        Task booked = new Task("Booked", "", INIT.plusHours(1), Duration.ofMinutes(20));
+        scheduler.addSchedule(booked);
+
+        assertFalse(scheduler.isAvailable(INIT.plusMinutes(82), INIT.plusMinutes(85)),
+                "Слот занятой задачи считается свободным");
+    }
+
+    @Test
+    public void shouldCheckRangeBySlotBoundaries() {
+        assertTrue(scheduler.isInRange(INIT.withMinute(0)), "Первый слот вне диапазона");
+        assertTrue(scheduler.isInRange(INIT.plusYears(1)), "Последний слот вне диапазона");
+        assertFalse(scheduler.isInRange(INIT.minusMinutes(8)), "Слот до начала диапазона в диапазоне");
+        assertFalse(scheduler.isInRange(INIT.plusYears(1).plusMinutes(15)), "Слот после диапазона в диапазоне");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+abstract class TaskSchedulerTest<T extends TaskScheduler> {
+    protected static final LocalDateTime INIT = LocalDateTime.of(2030, 1, 1, 0, 7);
+
+    protected T scheduler;
+
+    protected abstract T getScheduler(LocalDateTime initDateTime, LocalDateTime endDateTime);
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = getScheduler(INIT, INIT.plusYears(1));
+    }
+
+    @Test
+    public void shouldRejectTaskWhichOverlapsBookedOne() {
+        Task booked = new Task("Booked", "", INIT.plusHours(1), Duration.ofMinutes(20));
+        assertTrue(scheduler.addSchedule(booked), "Задача не запланирована");
+
+        assertFalse(scheduler.isAvailable(INIT.plusMinutes(75), INIT.plusMinutes(80)),
+                "Время занятой задачи считается свободным");
+        assertTrue(scheduler.isAvailable(INIT.plusMinutes(100), INIT.plusMinutes(110)),
+                "Свободное время считается занятым");
+    }
+
+    @Test
+    public void shouldFreeTimeAfterRemovingLongTask() {
+        Task longTask = new Task("Long", "", INIT.plusDays(3), Duration.ofDays(40));
+        Task inside = new Task("Inside", "", INIT.plusDays(20), Duration.ofMinutes(30));
+
+        assertTrue(scheduler.addSchedule(longTask), "Длинная задача не запланирована");
+        assertFalse(scheduler.addSchedule(inside), "Задача пересекается с длинной задачей");
+
+        scheduler.removeSchedule(longTask);
+
+        assertTrue(scheduler.addSchedule(inside), "Время не освобождено после удаления");
+    }
+
+    @Test
+    public void shouldThrowIllegalArgumentExceptionWhenIntervalIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.isAvailable(INIT.minusHours(1), INIT.plusHours(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.isAvailable(INIT.plusYears(1), INIT.plusYears(1).plusHours(1)));
+    }
+
+    @Test
+    public void shouldFindEarliestSlotBetweenBookedTasks() {
+        Task first = new Task("First", "", INIT.plusMinutes(60), Duration.ofMinutes(20));
+        Task second = new Task("Second", "", INIT.plusMinutes(113), Duration.ofMinutes(60));
+        scheduler.addSchedule(first);
+        scheduler.addSchedule(second);
+
+        Optional<LocalDateTime> slot = scheduler.findEarliestSlot(Duration.ofMinutes(20),
+                INIT.plusMinutes(50), INIT.plusHours(10));
+
+        assertTrue(slot.isPresent(), "Свободное время не найдено");
+        assertFalse(slot.get().isBefore(first.getEndTime()), "Найденное время пересекается с первой задачей");
+        assertFalse(slot.get().plusMinutes(20).isAfter(second.getStartTime()),
+                "Найденное время не является самым ранним");
+        assertTrue(scheduler.isAvailable(slot.get(), slot.get().plusMinutes(20)), "Найденное время занято");
+    }
+
+    @Test
+    public void shouldFindSlotAfterLongTaskAndRespectUpperBound() {
+        Task longTask = new Task("Long", "", INIT.plusDays(1), Duration.ofDays(20));
+        scheduler.addSchedule(longTask);
+
+        Optional<LocalDateTime> slot = scheduler.findEarliestSlot(Duration.ofHours(1),
+                INIT.plusDays(2), INIT.plusDays(30));
+        Optional<LocalDateTime> missing = scheduler.findEarliestSlot(Duration.ofHours(1),
+                INIT.plusDays(2), INIT.plusDays(21));
+
+        assertTrue(slot.isPresent(), "Свободное время после длинной задачи не найдено");
+        assertFalse(slot.get().isBefore(longTask.getEndTime()), "Найденное время пересекается с длинной задачей");
+        assertTrue(slot.get().isBefore(longTask.getEndTime().plusHours(1)), "Найденное время не самое раннее");
+        assertTrue(missing.isEmpty(), "Найдено время, выходящее за верхнюю границу");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.tracker.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tracker.exceptions.TaskFormatException;
+import ru.yandex.practicum.tracker.models.Epic;
+import ru.yandex.practicum.tracker.models.Status;
+import ru.yandex.practicum.tracker.models.Subtask;
+import ru.yandex.practicum.tracker.models.Task;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSerializerTest {
+    private final TaskSerializer serializer = new TaskSerializer(",", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+    @Test
+    public void shouldConvertTasksOfAllTypesBackAndForth() {
+        Task task = new Task("Task", "Description", LocalDateTime.of(2024, 3, 1, 10, 0), Duration.ofMinutes(30));
+        task.setId(1);
+        task.setStatus(Status.IN_PROGRESS);
+        Subtask subtask = new Subtask("Subtask", "", LocalDateTime.of(2024, 3, 1, 11, 5, 7, 120_000_000),
+                Duration.ofMinutes(15), 3);
+        subtask.setId(2);
+        subtask.setStatus(Status.DONE);
+        Epic epic = new Epic("Epic", "Epic");
+        epic.setId(3);
+
+        assertSameTask(task, serializer.fromString(serializer.toString(task)));
+        assertSameTask(subtask, serializer.fromString(serializer.toString(subtask)));
+        assertSameTask(epic, serializer.fromString(serializer.toString(epic)));
+        assertEquals("2,Subtask,Subtask,DONE,,2024-03-01T11:05:07.12,15,3", serializer.toString(subtask),
+                "Подзадача записана неверно");
+    }
+
+    @Test
+    public void shouldQuoteFieldsWithSeparatorsQuotesAndLineBreaks() {
+        Task task = new Task("Buy milk, bread and \"cheese\"", "First line\nsecond line\r\nC:\\path", null, null);
+        task.setId(7);
+
+        String row = serializer.toString(task);
+        Task restored = serializer.fromString(row);
+
+        assertFalse(row.contains("\n") || row.contains("\r"), "Строка задачи занимает несколько строк файла");
+        assertEquals("7,Task,\"Buy milk, bread and \"\"cheese\"\"\",NEW,\"First line\\nsecond line\\r\\nC:\\\\path\",,,",
+                row, "Поля задачи экранированы неверно");
+        assertSameTask(task, restored);
+    }
+
+    @Test
+    public void shouldReadRowFromRangeOfReusedBuffer() {
+        Task first = new Task("First", "", null, null);
+        first.setId(1);
+        Task second = new Task("Second, with comma", "", LocalDateTime.of(2024, 1, 2, 3, 4), Duration.ofMinutes(5));
+        second.setId(2);
+        CharBuffer buffer = CharBuffer.allocate(256);
+        buffer.append(serializer.toString(first)).append('\n');
+        int start = buffer.position();
+        buffer.append(serializer.toString(second)).append('\n');
+        int end = buffer.position() - 1;
+        buffer.flip();
+
+        assertSameTask(second, serializer.fromString(buffer, start, end));
+    }
+
+    @Test
+    public void shouldWriteIntoWriter() throws IOException {
+        Subtask subtask = new Subtask("Subtask", "Description", null, null, 1);
+        subtask.setId(2);
+        StringWriter writer = new StringWriter();
+
+        serializer.write(subtask, writer);
+
+        assertEquals(serializer.toString(subtask), writer.toString(), "Строка в Writer записана неверно");
+    }
+
+    @Test
+    public void shouldReadRowsWrittenBeforeQuoting() {
+        Task task = serializer.fromString("1,TASK,Name,NEW,Description,2024-01-01T10:00,30,");
+        Subtask subtask = (Subtask) serializer.fromString("2,Subtask,Name,DONE,,2024-01-01T10:00:00,30,5");
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), task.getStartTime(), "Время без секунд прочитано неверно");
+        assertEquals(Duration.ofMinutes(30), task.getDuration(), "Продолжительность прочитана неверно");
+        assertEquals(5, subtask.getParentEpicId(), "Эпик подзадачи прочитан неверно");
+        assertEquals(Status.DONE, subtask.getStatus(), "Статус подзадачи прочитан неверно");
+    }
+
+    @Test
+    public void shouldKeepDatesWhichAreWrittenByFormatter() {
+        Task task = new Task("Task", "", LocalDateTime.of(12024, 1, 1, 0, 0), Duration.ofMinutes(1));
+        task.setId(1);
+        TaskSerializer customSerializer = new TaskSerializer(" | ", DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"));
+        Task customTask = new Task("a | b", "", LocalDateTime.of(2024, 5, 6, 7, 8), Duration.ofMinutes(9));
+        customTask.setId(2);
+
+        assertSameTask(task, serializer.fromString(serializer.toString(task)));
+        assertEquals("2 | Task | \"a | b\" | NEW |  | 06.05.2024 07:08 | 9 | ", customSerializer.toString(customTask),
+                "Задача с другим разделителем записана неверно");
+        assertSameTask(customTask, customSerializer.fromString(customSerializer.toString(customTask)));
+    }
+
+    @Test
+    public void shouldRejectBrokenRows() {
+        assertThrows(TaskFormatException.class, () -> serializer.fromString("1,Task,\"Name,NEW,,,,"),
+                "Незакрытые кавычки не обнаружены");
+        assertThrows(TaskFormatException.class, () -> serializer.fromString("1,Task,\"Name\"x,NEW,,,,"),
+                "Символы после кавычек не обнаружены");
+        assertThrows(TaskFormatException.class, () -> serializer.fromString("1,Task,Name,NEW,,,,,"),
+                "Лишнее поле не обнаружено");
+        assertThrows(TaskFormatException.class, () -> serializer.fromString("1,Task,Name,NEW,,,"),
+                "Недостающее поле не обнаружено");
+        assertThrows(TaskFormatException.class, () -> serializer.fromString("1,Story,Name,NEW,,,,"),
+                "Неизвестный тип не обнаружен");
+        assertThrows(IllegalArgumentException.class, () -> serializer.fromString("x,Task,Name,NEW,,,,"),
+                "Неверный идентификатор не обнаружен");
+        assertThrows(IllegalArgumentException.class, () -> serializer.fromString("1,Task,Name,OPEN,,,,"),
+                "Неизвестный статус не обнаружен");
+        assertThrows(RuntimeException.class, () -> serializer.fromString("1,Task,Name,NEW,,2024-13-01T10:00:00,,"),
+                "Неверная дата не обнаружена");
+    }
+
+    @Test
+    public void shouldRejectSeparatorsWhichCanBreakRows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskSerializer("\"", DateTimeFormatter.ISO_LOCAL_DATE_TIME), "Кавычка принята разделителем");
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskSerializer("", DateTimeFormatter.ISO_LOCAL_DATE_TIME), "Пустой разделитель принят");
+    }
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getClass(), actual.getClass(), "Тип задачи не совпадает");
+        assertEquals(expected.getId(), actual.getId(), "Идентификатор не совпадает");
+        assertEquals(expected.getName(), actual.getName(), "Название не совпадает");
+        assertEquals(expected.getDescription(), actual.getDescription(), "Описание не совпадает");
+        assertEquals(expected.getStatus(), actual.getStatus(), "Статус не совпадает");
+        assertEquals(expected.getStartTime(), actual.getStartTime(), "Время начала не совпадает");
+        assertEquals(expected.getDuration(), actual.getDuration(), "Продолжительность не совпадает");
+        if (expected instanceof Subtask subtask) {
+            assertEquals(subtask.getParentEpicId(), ((Subtask) actual).getParentEpicId(), "Эпик не совпадает");
+        }
+    }
+}
\ No newline at end of file